@@ -0,0 +1,112 @@
+package br.com.sistema.livros.benchmark;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.sistema.livros.Startup;
+import br.com.sistema.livros.config.CacheConfig;
+import br.com.sistema.livros.dto.BookBatchResultDTO;
+import br.com.sistema.livros.dto.BookPageDTO;
+import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.dto.BookVersionDTO;
+import br.com.sistema.livros.service.BookBatchService;
+import br.com.sistema.livros.service.BookService;
+
+/**
+ * Leituras do BookService com o contexto Spring completo (JPA, Flyway, cache, proxies transacionais)
+ * sobre o H2 em memória do profile dev, sem servidor HTTP.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookServiceBenchmark {
+
+    @Param("5000")
+    private int livros;
+
+    private ConfigurableApplicationContext contexto;
+    private BookService service;
+    private long[] ids;
+    private Cache livrosPorId;
+
+    @Setup
+    public void setUp() {
+        contexto = new SpringApplicationBuilder(Startup.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN")
+                .run();
+        service = contexto.getBean(BookService.class);
+        livrosPorId = contexto.getBean(CacheManager.class).getCache(CacheConfig.LIVROS_POR_ID);
+
+        // IDs vindos da sequência (podem ter saltos): sorteia só entre os que foram de fato criados
+        ids = contexto.getBean(BookBatchService.class).criarEmLote(Livros.requests(livros)).stream()
+                .map(BookBatchResultDTO::getId)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    private long idAleatorio() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+
+    // Leitura por ID: depois do aquecimento atende quase tudo pelo cache Caffeine
+    @Benchmark
+    public BookResponseDTO getById() {
+        return service.getById(idAleatorio());
+    }
+
+    // Leitura por ID sempre no banco: remove a entrada do cache antes (o custo da remoção é desprezível)
+    @Benchmark
+    public BookResponseDTO getByIdSemCache() {
+        long id = idAleatorio();
+        livrosPorId.evict(id);
+        return service.getById(id);
+    }
+
+    // Sempre vai ao banco (só a versão, para o If-None-Match)
+    @Benchmark
+    public BookVersionDTO getVersao() {
+        return service.getVersao(idAleatorio());
+    }
+
+    // Primeira página no tamanho padrão
+    @Benchmark
+    public BookPageDTO listarPrimeiraPagina() {
+        return service.listarTodos(null, null);
+    }
+
+    @Benchmark
+    public List<BookResponseDTO> buscar() {
+        return service.buscar("memorias bras", null);
+    }
+}
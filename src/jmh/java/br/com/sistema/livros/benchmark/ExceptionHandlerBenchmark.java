@@ -0,0 +1,65 @@
+package br.com.sistema.livros.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import br.com.sistema.livros.dto.BookRequestDTO;
+import br.com.sistema.livros.exception.EntityNotFoundException;
+import br.com.sistema.livros.exception.ErrorResponse;
+import br.com.sistema.livros.exception.GlobalExceptionHandler;
+import br.com.sistema.livros.mapper.BookMapper;
+
+/**
+ * Montagem das respostas de erro. A exceção é criada no próprio benchmark (como acontece em produção):
+ * o custo de preencher o stack trace entra na conta junto com o ErrorResponse.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private MockHttpServletRequest request;
+    private MethodParameter parametro;
+    private BookRequestDTO invalido;
+
+    @Setup
+    public void setUp() throws Exception {
+        handler = new GlobalExceptionHandler();
+        request = new MockHttpServletRequest("GET", "/api/v1/books/42");
+        parametro = new MethodParameter(BookMapper.class.getMethod("toEntity", BookRequestDTO.class), 0);
+        invalido = new BookRequestDTO("", "Machado de Assis", "978-85-00000042", null);
+    }
+
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> livroNaoEncontrado() {
+        return handler.handleEntityNotFoundException(
+                new EntityNotFoundException("Livro não encontrado com ID: 42"), request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> erroDeValidacao() {
+        BeanPropertyBindingResult resultado = new BeanPropertyBindingResult(invalido, "bookRequestDTO");
+        resultado.rejectValue("titulo", "NotBlank", "Título é obrigatório");
+        return handler.handleValidationException(new MethodArgumentNotValidException(parametro, resultado), request);
+    }
+}
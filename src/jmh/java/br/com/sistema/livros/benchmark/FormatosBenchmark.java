@@ -0,0 +1,101 @@
+package br.com.sistema.livros.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import br.com.sistema.livros.config.JsonConfig;
+import br.com.sistema.livros.config.LivrosProperties;
+import br.com.sistema.livros.dto.BookResponseDTO;
+
+/**
+ * Página cheia de GET /api/v1/books em cada formato negociável: tempo para codificar, decodificar e
+ * codificar + gzip (o que o Tomcat faz acima de server.compression.min-response-size).
+ * Os tamanhos de cada formato, com e sem gzip, são impressos no setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class FormatosBenchmark {
+
+    private static final int PAGINA = 100;
+
+    @Param({ "json", "cbor", "smile" })
+    private String formato;
+
+    private ObjectWriter escritor;
+    private ObjectReader leitor;
+    private List<BookResponseDTO> lista;
+    private byte[] codificado;
+
+    @Setup
+    public void setUp() throws Exception {
+        JsonFactory factory = switch (formato) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        // Mesma configuração dos conversores HTTP da aplicação (JsonConfig)
+        JsonConfig config = new JsonConfig(new LivrosProperties());
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(config.livrosJsonModule(), config.blackbirdModule())
+                .build();
+        escritor = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, BookResponseDTO.class));
+        leitor = objectMapper.readerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, BookResponseDTO.class));
+
+        lista = Livros.responses(PAGINA);
+        codificado = escritor.writeValueAsBytes(lista);
+        System.out.printf("%n%s: %d bytes, %d bytes com gzip%n", formato, codificado.length, gzip(codificado).length);
+    }
+
+
+    @Benchmark
+    public byte[] codificar() throws Exception {
+        return escritor.writeValueAsBytes(lista);
+    }
+
+    @Benchmark
+    public List<BookResponseDTO> decodificar() throws Exception {
+        return leitor.readValue(codificado);
+    }
+
+    @Benchmark
+    public byte[] codificarComGzip() throws Exception {
+        return gzip(escritor.writeValueAsBytes(lista));
+    }
+
+    private static byte[] gzip(byte[] dados) throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(dados.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(dados);
+        }
+        return saida.toByteArray();
+    }
+}
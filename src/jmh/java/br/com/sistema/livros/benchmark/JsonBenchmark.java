@@ -0,0 +1,91 @@
+package br.com.sistema.livros.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import br.com.sistema.livros.config.JsonConfig;
+import br.com.sistema.livros.config.LivrosProperties;
+
+import br.com.sistema.livros.dto.BookRequestDTO;
+import br.com.sistema.livros.dto.BookResponseDTO;
+
+/**
+ * Serialização JSON como o Spring MVC faz: mesmo ObjectMapper padrão do Boot (JavaTimeModule para LocalDate,
+ * datas como texto). Writers e readers ficam prontos no setup, como nos conversores HTTP.
+ * "dedicado" acrescenta os módulos do JsonConfig (BookResponseSerializer e Blackbird).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    // Página cheia de GET /api/v1/books (livros.paginacao.tamanho-maximo)
+    private static final int PAGINA = 100;
+
+    @Param({ "padrao", "dedicado" })
+    private String modo;
+
+    private ObjectWriter escritorLivro;
+    private ObjectWriter escritorLista;
+    private ObjectReader leitorRequest;
+    private BookResponseDTO livro;
+    private List<BookResponseDTO> lista;
+    private byte[] requestJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Como o JacksonAutoConfiguration: datas em texto ISO, não em arrays
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (modo.equals("dedicado")) {
+            JsonConfig config = new JsonConfig(new LivrosProperties());
+            builder.modulesToInstall(config.livrosJsonModule(), config.blackbirdModule());
+        }
+        ObjectMapper objectMapper = builder.build();
+        escritorLivro = objectMapper.writerFor(BookResponseDTO.class);
+        escritorLista = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, BookResponseDTO.class));
+        leitorRequest = objectMapper.readerFor(BookRequestDTO.class);
+
+        livro = Livros.response(42);
+        lista = Livros.responses(PAGINA);
+        requestJson = objectMapper.writeValueAsBytes(Livros.request(42));
+    }
+
+
+    @Benchmark
+    public byte[] serializarLivro() throws Exception {
+        return escritorLivro.writeValueAsBytes(livro);
+    }
+
+    @Benchmark
+    public byte[] serializarLista() throws Exception {
+        return escritorLista.writeValueAsBytes(lista);
+    }
+
+    @Benchmark
+    public BookRequestDTO desserializarRequest() throws Exception {
+        return leitorRequest.readValue(requestJson);
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.sistema.livros.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.sistema.livros.dto.BookRequestDTO;
+import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.model.Book;
+
+// Massa de dados compartilhada pelos benchmarks (valores no formato dos dados reais)
+final class Livros {
+
+    private Livros() {
+    }
+
+    static BookRequestDTO request(int i) {
+        return new BookRequestDTO("Memórias Póstumas de Brás Cubas - vol. " + i, "Machado de Assis",
+                String.format("978-85-%08d", i), LocalDate.of(1881, 1, 1).plusDays(i % 3650));
+    }
+
+    static Book entidade(int i) {
+        BookRequestDTO request = request(i);
+        Book book = new Book(request.getTitulo(), request.getAutor(), request.getIsbn(), request.getPublicadoEm());
+        book.setId((long) i);
+        return book;
+    }
+
+    static BookResponseDTO response(int i) {
+        BookRequestDTO request = request(i);
+        BookResponseDTO dto = new BookResponseDTO((long) i, request.getTitulo(), request.getAutor(), request.getIsbn(),
+                request.getPublicadoEm());
+        dto.setVersao(3L);
+        dto.setAtualizadoEm(LocalDateTime.of(2024, 5, 17, 10, 30, 15));
+        return dto;
+    }
+
+    static List<BookRequestDTO> requests(int quantidade) {
+        List<BookRequestDTO> requests = new ArrayList<>(quantidade);
+        for (int i = 1; i <= quantidade; i++) {
+            requests.add(request(i));
+        }
+        return requests;
+    }
+
+    static List<BookResponseDTO> responses(int quantidade) {
+        List<BookResponseDTO> responses = new ArrayList<>(quantidade);
+        for (int i = 1; i <= quantidade; i++) {
+            responses.add(response(i));
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.sistema.livros.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.sistema.livros.dto.BookRequestDTO;
+import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.mapper.BookMapper;
+import br.com.sistema.livros.model.Book;
+
+// Conversões DTO <-> entidade feitas em toda requisição (e por item no lote e na exportação)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private BookMapper mapper;
+    private BookRequestDTO request;
+    private Book book;
+
+    @Setup
+    public void setUp() {
+        mapper = new BookMapper();
+        request = Livros.request(42);
+        book = Livros.entidade(42);
+    }
+
+
+    @Benchmark
+    public Book toEntity() {
+        return mapper.toEntity(request);
+    }
+
+    @Benchmark
+    public BookResponseDTO toResponse() {
+        return mapper.toResponse(book);
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.sistema.livros.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de tokens de um cliente, sem trava: guarda só o "instante teórico da próxima chegada" (GCRA)
+ * num AtomicLong. Cada requisição empurra esse instante um intervalo (1 / taxa) para frente; ela é
+ * aceita enquanto ele não passar de agora + rajada intervalos. Equivale a um balde com capacidade
+ * "rajada" reabastecido a "taxa" tokens por segundo, com um único compareAndSet por requisição.
+ */
+final class BaldeTokens {
+
+    private final AtomicLong proximaChegada = new AtomicLong(Long.MIN_VALUE);
+
+    // 0 se a requisição foi aceita; senão, quantos nanos faltam para haver um token
+    long consumir(long agora, long intervalo, long tolerancia) {
+        while (true) {
+            long atual = proximaChegada.get();
+            long proxima = Math.max(atual, agora) + intervalo;
+            long espera = proxima - agora - tolerancia;
+            if (espera > 0) {
+                return espera;
+            }
+            if (proximaChegada.compareAndSet(atual, proxima)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.sistema.livros.config;
+
+import java.util.List;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// O interceptor do cache fica por fora do transacional (ordem padrão LOWEST_PRECEDENCE):
+// um acerto no cache devolve o valor sem abrir transação nem pegar conexão do pool
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    // Cache de BookResponseDTO por ID, usado em BookService.getById
+    public static final String LIVROS_POR_ID = "livrosPorId";
+
+    @Bean
+    public CacheManager cacheManager(LivrosProperties properties) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        caffeine.setCacheSpecification(properties.getCache().getEspecificacao());
+        caffeine.setCacheNames(List.of(LIVROS_POR_ID)); // Criado na inicialização para ter métricas desde o início
+
+        // Evicções feitas dentro de uma transação só acontecem depois do commit:
+        // assim uma leitura concorrente não recoloca no cache o valor antigo ainda visível no banco
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.sistema.livros.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource que limita quantas conexões podem estar em uso ao mesmo tempo, com uma fila justa (FIFO).
+ *
+ * Com virtual threads não há mais o teto natural do pool de threads do Tomcat: milhares de requisições
+ * podem pedir conexão ao mesmo tempo. O limite igual ao tamanho do pool faz com que só esse número
+ * chegue ao Hikari; as demais esperam aqui, em um Semaphore barato para virtual threads, até o mesmo
+ * connectionTimeout do pool.
+ */
+public class ConexoesLimitadasDataSource extends DelegatingDataSource {
+
+    private final int limite;
+    private final long esperaMaximaMs;
+    private final Semaphore permissoes;
+
+    public ConexoesLimitadasDataSource(DataSource alvo, int limite, long esperaMaximaMs) {
+        super(alvo);
+        this.limite = limite;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.permissoes = new Semaphore(limite, true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return liberarAoFechar(super.getConnection());
+        } catch (SQLException | RuntimeException ex) {
+            permissoes.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return liberarAoFechar(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException ex) {
+            permissoes.release();
+            throw ex;
+        }
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permissoes.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Nenhuma conexão livre após " + esperaMaximaMs
+                        + " ms (limite de " + limite + " conexões simultâneas)");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido enquanto aguardava uma conexão", ex);
+        }
+    }
+
+    // Devolve a permissão uma única vez, quando a conexão é fechada (devolvida ao pool)
+    private Connection liberarAoFechar(Connection conexao) {
+        AtomicBoolean fechada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().equals("close") && metodo.getParameterCount() == 0) {
+                        if (fechada.compareAndSet(false, true)) {
+                            try {
+                                conexao.close();
+                            } finally {
+                                permissoes.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return metodo.invoke(conexao, argumentos);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    // Conexões entregues e ainda não devolvidas
+    public int getEmUso() {
+        return limite - permissoes.availablePermits();
+    }
+
+    // Threads esperando por uma conexão
+    public int getAguardando() {
+        return permissoes.getQueueLength();
+    }
+}
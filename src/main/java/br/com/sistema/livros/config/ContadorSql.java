@@ -0,0 +1,70 @@
+package br.com.sistema.livros.config;
+
+/**
+ * Contadores de acesso ao banco da requisição em andamento (um por thread).
+ * Aberto e fechado pelo MetricasRequisicaoFilter e alimentado pelo MetricasJdbcDataSource.
+ * Trabalho feito fora da thread da requisição (ex.: o corpo em streaming do /export) não entra aqui,
+ * só nos totais globais livros.jdbc.*.
+ */
+public final class ContadorSql {
+
+    private static final ThreadLocal<ContadorSql> ATUAL = new ThreadLocal<>();
+
+    private long comandos;
+    private long linhas;
+    private long nanosExecutando;
+    private long nanosAguardandoConexao;
+
+    private ContadorSql() {
+    }
+
+    // Começa a contar na thread atual
+    static ContadorSql iniciar() {
+        ContadorSql contador = new ContadorSql();
+        ATUAL.set(contador);
+        return contador;
+    }
+
+    // Para de contar na thread atual
+    static void encerrar() {
+        ATUAL.remove();
+    }
+
+    // Contador da requisição em andamento, ou null fora de uma requisição
+    static ContadorSql atual() {
+        return ATUAL.get();
+    }
+
+    void comandoExecutado(long nanos) {
+        comandos++;
+        nanosExecutando += nanos;
+    }
+
+    void linhaLida() {
+        linhas++;
+    }
+
+    void conexaoObtida(long nanosAguardando) {
+        nanosAguardandoConexao += nanosAguardando;
+    }
+
+    // Comandos SQL enviados ao banco (um batch conta como um)
+    public long getComandos() {
+        return comandos;
+    }
+
+    // Linhas lidas dos ResultSets
+    public long getLinhas() {
+        return linhas;
+    }
+
+    // Tempo dentro de execute*/executeQuery/executeBatch (não inclui a leitura das linhas)
+    public long getNanosExecutando() {
+        return nanosExecutando;
+    }
+
+    // Tempo esperando uma conexão do pool (e do limitador, no modo virtual threads)
+    public long getNanosAguardandoConexao() {
+        return nanosAguardandoConexao;
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.sistema.livros.config;
+
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.dto.BookResponseSerializer;
+
+/**
+ * Módulos extras do ObjectMapper do Spring (o Boot registra todo bean do tipo Module).
+ * Nenhum dos dois muda o JSON produzido; só o custo de CPU para produzi-lo e lê-lo.
+ *
+ * Também registra os conversores HTTP de CBOR e Smile: com Accept (ou Content-Type) application/cbor ou
+ * application/x-jackson-smile a API responde (e lê) no formato binário, com o mesmo ObjectMapper configurado
+ * pelo Boot (módulos acima, datas ISO). Sem esses headers nada muda, o padrão continua JSON.
+ * Com livros.json.formatos-binarios=false os dois tipos deixam de ser aceitos (406 / 415).
+ */
+@Configuration
+public class JsonConfig implements WebMvcConfigurer {
+
+    private final LivrosProperties properties;
+
+    public JsonConfig(LivrosProperties properties) {
+        this.properties = properties;
+    }
+
+    // BookResponseDTO (GET por ID, listagens, busca, /export) pelo serializador escrito à mão
+    @Bean
+    @ConditionalOnProperty(prefix = "livros.json", name = "serializador-dedicado", matchIfMissing = true)
+    public Module livrosJsonModule() {
+        return new SimpleModule("livros").addSerializer(BookResponseDTO.class, new BookResponseSerializer());
+    }
+
+    // Substituem os conversores que o Spring MVC cria sozinho quando as bibliotecas estão no classpath (sem as
+    // configurações do Boot: datas viram arrays e o serializador dedicado fica de fora). Ficam na mesma posição,
+    // depois do JSON, e só são escolhidos quando o cliente pede o tipo
+    @Bean
+    @ConditionalOnProperty(prefix = "livros.json", name = "formatos-binarios", matchIfMissing = true)
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "livros.json", name = "formatos-binarios", matchIfMissing = true)
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    // Com a opção desligada, tira também os conversores padrão do Spring MVC para CBOR e Smile
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        if (!properties.getJson().isFormatosBinarios()) {
+            converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                    || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        }
+    }
+
+    // Demais DTOs (inclusive a leitura dos corpos de POST/PUT/PATCH) com acessores gerados em vez de reflexão
+    @Bean
+    @ConditionalOnProperty(prefix = "livros.json", name = "blackbird", matchIfMissing = true)
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.sistema.livros.config;
+
+import java.io.IOException;
+import java.util.Set;
+import org.springframework.web.filter.OncePerRequestFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Janela de leitura própria ("read-your-writes") com réplicas: depois que um cliente (header
+ * livros.replicas.cabecalho-cliente ou IP) faz uma escrita bem-sucedida, as requisições dele ficam no primário durante
+ * livros.replicas.janela-leitura-propria. Assim ele não deixa de ver o que acabou de gravar por causa do
+ * atraso de replicação; os demais clientes continuam lendo das réplicas.
+ *
+ * A janela fica na memória da instância que atendeu a escrita: com várias instâncias, só vale se o balanceador
+ * mandar o mesmo cliente sempre à mesma instância (afinidade por IP ou pelo header do cliente). Nas demais, as
+ * leituras dele continuam indo às réplicas.
+ */
+public class LeituraPropriaFilter extends OncePerRequestFilter {
+
+    // Métodos que alteram livros; OPTIONS (preflight de CORS), GET e HEAD não abrem a janela
+    private static final Set<String> ESCRITAS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    // POST que só consulta (busca em lote): não abre a janela
+    private static final String CONSULTA_EM_LOTE = "/lookup";
+
+    private final String cabecalhoCliente;
+
+    // Cliente -> presença: a expiração do Caffeine fecha a janela sozinha
+    private final Cache<String, Boolean> escreveramRecentemente;
+
+    public LeituraPropriaFilter(LivrosProperties.Replicas properties) {
+        this.cabecalhoCliente = properties.getCabecalhoCliente();
+        this.escreveramRecentemente = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getJanelaLeituraPropria())
+                .maximumSize(properties.getClientesMaximos())
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String cliente = cliente(request);
+        boolean escrita = ESCRITAS.contains(request.getMethod()) && !request.getRequestURI().endsWith(CONSULTA_EM_LOTE);
+        if (!escrita && escreveramRecentemente.getIfPresent(cliente) == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        try (RoteamentoLeitura.Escopo escopo = RoteamentoLeitura.primario()) {
+            chain.doFilter(request, response);
+        }
+        // A janela começa (ou recomeça) no fim da escrita, já confirmada no primário
+        if (escrita && response.getStatus() < 400) {
+            escreveramRecentemente.put(cliente, Boolean.TRUE);
+        }
+    }
+
+    // Aqui o header basta: quem informa a chave de outro cliente só consegue mandar as leituras dele ao primário
+    private String cliente(HttpServletRequest request) {
+        String chave = request.getHeader(cabecalhoCliente);
+        return chave != null && !chave.isBlank() ? "chave:" + chave : "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.sistema.livros.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Limite adaptativo de requisições simultâneas (AIMD, como no controle de congestionamento do TCP).
+ *
+ * Cada requisição concluída rápido e sem fila no pool de conexões aumenta o limite em 1 (se o limite
+ * estava sendo usado); uma requisição acima da latência alvo, ou terminada com threads esperando
+ * conexão, multiplica o limite pelo fator de redução. Assim o limite acompanha o quanto o banco aguenta
+ * e o excesso é recusado na entrada, antes de formar fila no Hikari e atrasar todo mundo junto.
+ */
+final class LimiteConcorrencia {
+
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    // double guardado em bits: o limite é ajustado com compareAndSet, sem trava
+    private final AtomicLong limite;
+    private final int minimo;
+    private final int maximo;
+    private final long latenciaAlvo;
+    private final double fatorReducao;
+    private final IntSupplier aguardandoConexao;
+
+    LimiteConcorrencia(LivrosProperties.Limite properties, IntSupplier aguardandoConexao) {
+        this.minimo = properties.getConcorrenciaMinima();
+        this.maximo = properties.getConcorrenciaMaxima();
+        this.limite = new AtomicLong(Double.doubleToLongBits(properties.getConcorrenciaInicial()));
+        this.latenciaAlvo = properties.getLatenciaAlvo().toNanos();
+        this.fatorReducao = properties.getFatorReducao();
+        this.aguardandoConexao = aguardandoConexao;
+    }
+
+    // Reserva uma vaga; false quando o limite atual já está ocupado
+    boolean tentarAdmitir() {
+        while (true) {
+            int atual = emAndamento.get();
+            if (atual >= getLimite()) {
+                return false;
+            }
+            if (emAndamento.compareAndSet(atual, atual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Libera a vaga e ajusta o limite pela duração da requisição e pela fila no pool de conexões
+    void concluir(long nanos) {
+        int simultaneas = emAndamento.getAndDecrement();
+        boolean sobrecarga = nanos > latenciaAlvo || aguardandoConexao.getAsInt() > 0;
+        limite.getAndUpdate(bits -> {
+            double valor = Double.longBitsToDouble(bits);
+            if (sobrecarga) {
+                valor = Math.max(minimo, valor * fatorReducao);
+            } else if (simultaneas * 2 >= valor) {
+                // Só cresce se o limite estiver de fato sendo usado; com pouca carga ele fica onde está
+                valor = Math.min(maximo, valor + 1);
+            }
+            return Double.doubleToLongBits(valor);
+        });
+    }
+
+    // Limite atual (inteiro), entre o mínimo e o máximo configurados
+    int getLimite() {
+        return (int) Double.longBitsToDouble(limite.get());
+    }
+
+    int getEmAndamento() {
+        return emAndamento.get();
+    }
+}
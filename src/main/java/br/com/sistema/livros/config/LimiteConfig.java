@@ -0,0 +1,54 @@
+package br.com.sistema.livros.config;
+
+import java.sql.SQLException;
+import java.util.function.IntSupplier;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Controle de admissão da API de livros (livros.limite.*): taxa por cliente e limite adaptativo de
+ * requisições simultâneas por rota, que usa a fila do pool de conexões como sinal de sobrecarga.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "livros.limite", name = "habilitado", matchIfMissing = true)
+public class LimiteConfig {
+
+    // Só nas rotas de livros: actuator e Swagger continuam respondendo mesmo com a API no limite
+    @Bean
+    FilterRegistrationBean<LimiteRequisicoesFilter> limiteRequisicoesFilter(LivrosProperties properties, DataSource dataSource,
+            ObjectMapper objectMapper, MeterRegistry registry) {
+        LimitesPorRota limites = new LimitesPorRota(properties.getLimite(), aguardandoConexao(dataSource), registry);
+        FilterRegistrationBean<LimiteRequisicoesFilter> registro = new FilterRegistrationBean<>(
+                new LimiteRequisicoesFilter(properties.getLimite(), limites, objectMapper, registry));
+        registro.addUrlPatterns("/api/v1/books", "/api/v1/books/*");
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 3); // Depois das métricas: as recusas também aparecem nelas
+        return registro;
+    }
+
+    // Threads esperando conexão no Hikari e, no modo virtual threads, no limitador de conexões
+    private static IntSupplier aguardandoConexao(DataSource dataSource) {
+        HikariDataSource hikari = desembrulhar(dataSource, HikariDataSource.class);
+        ConexoesLimitadasDataSource limitado = desembrulhar(dataSource, ConexoesLimitadasDataSource.class);
+        return () -> {
+            int aguardando = limitado != null ? limitado.getAguardando() : 0;
+            HikariPoolMXBean pool = hikari != null ? hikari.getHikariPoolMXBean() : null;
+            return pool != null ? aguardando + pool.getThreadsAwaitingConnection() : aguardando;
+        };
+    }
+
+    private static <T> T desembrulhar(DataSource dataSource, Class<T> tipo) {
+        try {
+            return dataSource.isWrapperFor(tipo) ? dataSource.unwrap(tipo) : null;
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+}
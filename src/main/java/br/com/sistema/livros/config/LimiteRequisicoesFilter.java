@@ -0,0 +1,166 @@
+package br.com.sistema.livros.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import br.com.sistema.livros.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Controle de admissão: cada cliente (IP de origem) tem um balde de tokens por rota (método e padrão do
+ * mapeamento, ex.: "GET /api/v1/books/{id}") e recebe 429 quando passa da taxa; depois disso, o limite
+ * adaptativo de concorrência da rota (LimitesPorRota) recusa com 503 o que passaria da capacidade atual do
+ * banco. As requisições admitidas não disputam o pool com o excesso, então a latência delas fica limitada
+ * mesmo no pico. As rotas em lote e de streaming (ROTAS_LONGAS) passam só pela taxa: duram mais que qualquer
+ * latência alvo por natureza, e a carga delas já é limitada pelo tamanho do lote, pela fila do /async e
+ * pelo pool de conexões.
+ *
+ * O balde não segue o X-API-Key: a API não valida a chave, e um cliente que trocasse de chave a cada
+ * requisição ganharia um balde novo (e tiraria os dos outros da memória). Atrás de um proxy reverso, configure
+ * server.forward-headers-strategy para que o IP seja o do cliente, não o do proxy.
+ * Métricas: livros.limite.admitidas, livros.limite.rejeitadas (motivo=taxa|concorrencia) e, por rota,
+ * livros.limite.concorrencia e livros.limite.em-andamento.
+ */
+public class LimiteRequisicoesFilter extends OncePerRequestFilter {
+
+    // Sugestão de nova tentativa quando a recusa é por sobrecarga (segundos)
+    private static final long RETRY_AFTER_SOBRECARGA = 1;
+
+    private static final String PREFIXO = "/api/v1/books";
+
+    // Partes fixas das rotas de BookController (/search, /changes/stream, /async/{chave}...)
+    private static final Set<String> SEGMENTOS_FIXOS = Set.of("search", "suggest", "changes", "stream", "export",
+            "batch", "lookup", "async");
+
+    private static final Set<String> METODOS = Set.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS");
+
+    // Caminhos que ficam fora do limite de concorrência e da amostra de latência do AIMD
+    private static final Set<String> ROTAS_LONGAS = Set.of(PREFIXO + "/batch", PREFIXO + "/export", PREFIXO + "/async",
+            PREFIXO + "/changes/stream");
+
+    private final LivrosProperties.Limite properties;
+    private final LimitesPorRota limites;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, BaldeTokens> baldes;
+    private final long intervalo;
+    private final long tolerancia;
+    private final Counter admitidas;
+    private final Counter rejeitadasPorTaxa;
+    private final Counter rejeitadasPorConcorrencia;
+
+    public LimiteRequisicoesFilter(LivrosProperties.Limite properties, LimitesPorRota limites,
+            ObjectMapper objectMapper, MeterRegistry registry) {
+        this.properties = properties;
+        this.limites = limites;
+        this.objectMapper = objectMapper;
+        this.intervalo = (long) (TimeUnit.SECONDS.toNanos(1) / properties.getTaxaPorCliente());
+        this.tolerancia = intervalo * properties.getRajada();
+
+        // Um balde parado por mais tempo que o necessário para encher de novo pode ser descartado sem mudar nada
+        Duration ociosidade = Duration.ofNanos(Math.max(tolerancia, TimeUnit.MINUTES.toNanos(1)));
+        this.baldes = Caffeine.newBuilder()
+                .expireAfterAccess(ociosidade)
+                .maximumSize(properties.getClientesMaximos())
+                .build();
+
+        this.admitidas = Counter.builder("livros.limite.admitidas")
+                .description("Requisições aceitas pelo controle de admissão")
+                .register(registry);
+        this.rejeitadasPorTaxa = Counter.builder("livros.limite.rejeitadas")
+                .description("Requisições recusadas pelo controle de admissão")
+                .tag("motivo", "taxa")
+                .register(registry);
+        this.rejeitadasPorConcorrencia = Counter.builder("livros.limite.rejeitadas")
+                .description("Requisições recusadas pelo controle de admissão")
+                .tag("motivo", "concorrencia")
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String rota = rota(request);
+        long espera = baldes.get(request.getRemoteAddr() + " " + rota, chave -> new BaldeTokens())
+                .consumir(System.nanoTime(), intervalo, tolerancia);
+        if (espera > 0) {
+            rejeitadasPorTaxa.increment();
+            recusar(request, response, HttpStatus.TOO_MANY_REQUESTS, "Limite de requisições do cliente excedido",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera + TimeUnit.SECONDS.toNanos(1) - 1)));
+            return;
+        }
+
+        if (rotaLonga(rota)) {
+            admitidas.increment();
+            chain.doFilter(request, response);
+            return;
+        }
+
+        LimiteConcorrencia concorrencia = limites.daRota(rota);
+        if (!concorrencia.tentarAdmitir()) {
+            rejeitadasPorConcorrencia.increment();
+            recusar(request, response, HttpStatus.SERVICE_UNAVAILABLE, "Servidor sobrecarregado, tente novamente em instantes",
+                    RETRY_AFTER_SOBRECARGA);
+            return;
+        }
+
+        admitidas.increment();
+        long inicio = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            concorrencia.concluir(System.nanoTime() - inicio);
+        }
+    }
+
+    // Método e padrão da rota em BookController. Um segmento que não é parte fixa de uma rota vira "{id}" (ou
+    // "{chave}" depois de /async), e o caminho para no segundo segmento: URLs inventadas não criam baldes novos
+    static String rota(HttpServletRequest request) {
+        String metodo = METODOS.contains(request.getMethod()) ? request.getMethod() : "OUTRO";
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        if (!caminho.startsWith(PREFIXO + "/")) {
+            return metodo + " " + PREFIXO;
+        }
+
+        String[] segmentos = caminho.substring(PREFIXO.length() + 1).split("/", 3);
+        StringBuilder rota = new StringBuilder(metodo).append(' ').append(PREFIXO);
+        for (int i = 0; i < Math.min(segmentos.length, 2); i++) {
+            String segmento = segmentos[i];
+            if (!SEGMENTOS_FIXOS.contains(segmento)) {
+                segmento = i == 1 && segmentos[0].equals("async") ? "{chave}" : "{id}";
+            }
+            rota.append('/').append(segmento);
+        }
+        if (segmentos.length > 2) {
+            rota.append("/**");
+        }
+        return rota.toString();
+    }
+
+    // POST /batch, GET /export, POST /async e GET /changes/stream, em qualquer método
+    static boolean rotaLonga(String rota) {
+        return ROTAS_LONGAS.contains(rota.substring(rota.indexOf(' ') + 1));
+    }
+
+    // Mesmo corpo de erro do GlobalExceptionHandler (o filtro roda antes do Spring MVC)
+    private void recusar(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String mensagem,
+            long retryAfter) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(status.value(), status.getReasonPhrase(), mensagem, request.getRequestURI()));
+    }
+}
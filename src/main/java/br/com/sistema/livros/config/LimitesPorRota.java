@@ -0,0 +1,46 @@
+package br.com.sistema.livros.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Um limite adaptativo de concorrência (LimiteConcorrencia) para cada rota do LimiteRequisicoesFilter.
+ *
+ * A latência alvo só faz sentido comparada com requisições do mesmo tipo: com um limite único, uma rota mais
+ * lenta reduziria o limite até o mínimo e as leituras baratas de outras rotas receberiam 503 sem que o banco
+ * estivesse sobrecarregado. A fila no pool de conexões continua sendo um sinal comum a todas as rotas.
+ * As rotas vêm já normalizadas pelo filtro (método e padrão do mapeamento), então o mapa é pequeno e fixo.
+ */
+final class LimitesPorRota {
+
+    private final ConcurrentHashMap<String, LimiteConcorrencia> limites = new ConcurrentHashMap<>();
+    private final LivrosProperties.Limite properties;
+    private final IntSupplier aguardandoConexao;
+    private final MeterRegistry registry;
+
+    LimitesPorRota(LivrosProperties.Limite properties, IntSupplier aguardandoConexao, MeterRegistry registry) {
+        this.properties = properties;
+        this.aguardandoConexao = aguardandoConexao;
+        this.registry = registry;
+    }
+
+    // Limite da rota ("GET /api/v1/books/{id}"), criado no primeiro uso com a concorrência inicial
+    LimiteConcorrencia daRota(String rota) {
+        return limites.computeIfAbsent(rota, this::criar);
+    }
+
+    private LimiteConcorrencia criar(String rota) {
+        LimiteConcorrencia concorrencia = new LimiteConcorrencia(properties, aguardandoConexao);
+        Gauge.builder("livros.limite.concorrencia", concorrencia, LimiteConcorrencia::getLimite)
+                .description("Limite atual de requisições simultâneas na rota (ajustado pelo AIMD)")
+                .tag("rota", rota)
+                .register(registry);
+        Gauge.builder("livros.limite.em-andamento", concorrencia, LimiteConcorrencia::getEmAndamento)
+                .description("Requisições admitidas na rota e ainda em andamento")
+                .tag("rota", rota)
+                .register(registry);
+        return concorrencia;
+    }
+}
@@ -0,0 +1,588 @@
+package br.com.sistema.livros.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Propriedades da aplicação configuráveis via application.yml (prefixo "livros")
+@ConfigurationProperties(prefix = "livros")
+public class LivrosProperties {
+
+    private final Paginacao paginacao = new Paginacao();
+    private final Lote lote = new Lote();
+    private final Cache cache = new Cache();
+    private final Sugestoes sugestoes = new Sugestoes();
+    private final Metricas metricas = new Metricas();
+    private final Json json = new Json();
+    private final Fila fila = new Fila();
+    private final Limite limite = new Limite();
+    private final Mudancas mudancas = new Mudancas();
+    private final FiltroIsbns filtroIsbns = new FiltroIsbns();
+    private final Replicas replicas = new Replicas();
+
+    public Paginacao getPaginacao() {
+        return paginacao;
+    }
+
+    public Lote getLote() {
+        return lote;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Sugestoes getSugestoes() {
+        return sugestoes;
+    }
+
+    public Metricas getMetricas() {
+        return metricas;
+    }
+
+    public Json getJson() {
+        return json;
+    }
+
+    public Fila getFila() {
+        return fila;
+    }
+
+    public Limite getLimite() {
+        return limite;
+    }
+
+    public Mudancas getMudancas() {
+        return mudancas;
+    }
+
+    public FiltroIsbns getFiltroIsbns() {
+        return filtroIsbns;
+    }
+
+    public Replicas getReplicas() {
+        return replicas;
+    }
+
+    // Tamanhos de página usados na listagem paginada por cursor
+    public static class Paginacao {
+
+        // Tamanho usado quando o cliente não informa "tamanho"
+        private int tamanhoPadrao = 20;
+
+        // Limite superior aceito, independente do que o cliente pedir
+        private int tamanhoMaximo = 100;
+
+        public int getTamanhoPadrao() {
+            return tamanhoPadrao;
+        }
+
+        public void setTamanhoPadrao(int tamanhoPadrao) {
+            this.tamanhoPadrao = tamanhoPadrao;
+        }
+
+        public int getTamanhoMaximo() {
+            return tamanhoMaximo;
+        }
+
+        public void setTamanhoMaximo(int tamanhoMaximo) {
+            this.tamanhoMaximo = tamanhoMaximo;
+        }
+    }
+
+    // Limites do cadastro e da consulta em lote
+    public static class Lote {
+
+        // Quantidade máxima de livros aceita em uma única chamada
+        private int tamanhoMaximo = 50_000;
+
+        // Quantidade máxima de chaves (IDs + ISBNs) por consulta em lote (POST /lookup)
+        private int consultaMaxima = 1000;
+
+        public int getTamanhoMaximo() {
+            return tamanhoMaximo;
+        }
+
+        public void setTamanhoMaximo(int tamanhoMaximo) {
+            this.tamanhoMaximo = tamanhoMaximo;
+        }
+
+        public int getConsultaMaxima() {
+            return consultaMaxima;
+        }
+
+        public void setConsultaMaxima(int consultaMaxima) {
+            this.consultaMaxima = consultaMaxima;
+        }
+    }
+
+    // Cache em memória (Caffeine) das consultas por ID
+    public static class Cache {
+
+        // Especificação no formato do Caffeine: limite de tamanho, expiração e coleta de estatísticas
+        private String especificacao = "maximumSize=10000,expireAfterWrite=10m,recordStats";
+
+        public String getEspecificacao() {
+            return especificacao;
+        }
+
+        public void setEspecificacao(String especificacao) {
+            this.especificacao = especificacao;
+        }
+    }
+
+    // Índice em memória do autocompletar (GET /api/v1/books/suggest)
+    public static class Sugestoes {
+
+        // Quantidade de sugestões quando o cliente não informa "tamanho"
+        private int tamanhoPadrao = 10;
+
+        // Limite superior aceito, independente do que o cliente pedir;
+        // também é quantos textos o índice guarda prontos por prefixo
+        private int tamanhoMaximo = 50;
+
+        public int getTamanhoPadrao() {
+            return tamanhoPadrao;
+        }
+
+        public void setTamanhoPadrao(int tamanhoPadrao) {
+            this.tamanhoPadrao = tamanhoPadrao;
+        }
+
+        public int getTamanhoMaximo() {
+            return tamanhoMaximo;
+        }
+
+        public void setTamanhoMaximo(int tamanhoMaximo) {
+            this.tamanhoMaximo = tamanhoMaximo;
+        }
+    }
+
+    // Instrumentação do acesso ao banco por requisição (MetricasConfig)
+    public static class Metricas {
+
+        // Conta comandos SQL e linhas lidas (proxy sobre o DataSource)
+        private boolean jdbc = true;
+
+        // Requisições a partir deste tempo são logadas como lentas
+        private Duration requisicaoLenta = Duration.ofMillis(500);
+
+        // Requisições que leem ao menos esta quantidade de linhas também são logadas
+        private long linhasAlerta = 10_000;
+
+        public boolean isJdbc() {
+            return jdbc;
+        }
+
+        public void setJdbc(boolean jdbc) {
+            this.jdbc = jdbc;
+        }
+
+        public Duration getRequisicaoLenta() {
+            return requisicaoLenta;
+        }
+
+        public void setRequisicaoLenta(Duration requisicaoLenta) {
+            this.requisicaoLenta = requisicaoLenta;
+        }
+
+        public long getLinhasAlerta() {
+            return linhasAlerta;
+        }
+
+        public void setLinhasAlerta(long linhasAlerta) {
+            this.linhasAlerta = linhasAlerta;
+        }
+    }
+
+    // Serialização das respostas (JsonConfig); lidos direto pelas condições dos beans
+    public static class Json {
+
+        // BookResponseDTO pelo serializador escrito à mão (BookResponseSerializer)
+        private boolean serializadorDedicado = true;
+
+        // Módulo Blackbird do Jackson para os demais DTOs
+        private boolean blackbird = true;
+
+        // Negociação de application/cbor e application/x-jackson-smile além do JSON
+        private boolean formatosBinarios = true;
+
+        public boolean isSerializadorDedicado() {
+            return serializadorDedicado;
+        }
+
+        public void setSerializadorDedicado(boolean serializadorDedicado) {
+            this.serializadorDedicado = serializadorDedicado;
+        }
+
+        public boolean isBlackbird() {
+            return blackbird;
+        }
+
+        public void setBlackbird(boolean blackbird) {
+            this.blackbird = blackbird;
+        }
+
+        public boolean isFormatosBinarios() {
+            return formatosBinarios;
+        }
+
+        public void setFormatosBinarios(boolean formatosBinarios) {
+            this.formatosBinarios = formatosBinarios;
+        }
+    }
+
+    // Cadastro assíncrono (POST /api/v1/books/async, BookAsyncService)
+    public static class Fila {
+
+        // Pedidos aguardando gravação; com a fila cheia o POST responde 429
+        private int capacidade = 10_000;
+
+        // Livros gravados por transação
+        private int tamanhoLote = 500;
+
+        // Quanto o gravador espera juntando pedidos antes de gravar um lote incompleto
+        private Duration esperaLote = Duration.ofMillis(50);
+
+        // Tempo em que o status de um pedido (e sua Idempotency-Key) continua consultável
+        private Duration retencao = Duration.ofHours(24);
+
+        // Quantidade máxima de pedidos concluídos guardados; acima dela o cache descarta alguns antes do fim da
+        // retenção (pela frequência de uso, não pela idade). Pedidos pendentes não contam e nunca são descartados
+        private int maximoChaves = 100_000;
+
+        public int getCapacidade() {
+            return capacidade;
+        }
+
+        public void setCapacidade(int capacidade) {
+            this.capacidade = capacidade;
+        }
+
+        public int getTamanhoLote() {
+            return tamanhoLote;
+        }
+
+        public void setTamanhoLote(int tamanhoLote) {
+            this.tamanhoLote = tamanhoLote;
+        }
+
+        public Duration getEsperaLote() {
+            return esperaLote;
+        }
+
+        public void setEsperaLote(Duration esperaLote) {
+            this.esperaLote = esperaLote;
+        }
+
+        public Duration getRetencao() {
+            return retencao;
+        }
+
+        public void setRetencao(Duration retencao) {
+            this.retencao = retencao;
+        }
+
+        public int getMaximoChaves() {
+            return maximoChaves;
+        }
+
+        public void setMaximoChaves(int maximoChaves) {
+            this.maximoChaves = maximoChaves;
+        }
+    }
+
+    // Controle de admissão das rotas /api/v1/books (LimiteRequisicoesFilter)
+    public static class Limite {
+
+        // Liga o filtro (taxa por cliente e limite adaptativo de concorrência)
+        private boolean habilitado = true;
+
+        // Requisições por segundo sustentadas por cliente em cada rota (acima disso, 429)
+        private double taxaPorCliente = 100;
+
+        // Requisições que um cliente parado pode disparar de uma vez
+        private int rajada = 200;
+
+        // Baldes (cliente e rota) em memória; acima disso o cache descarta os menos usados
+        private int clientesMaximos = 100_000;
+
+        // Requisições simultâneas aceitas na inicialização, antes de o limite se ajustar
+        private int concorrenciaInicial = 20;
+
+        private int concorrenciaMinima = 4;
+
+        private int concorrenciaMaxima = 200;
+
+        // Requisições acima deste tempo indicam sobrecarga e reduzem o limite
+        private Duration latenciaAlvo = Duration.ofMillis(250);
+
+        // Fator aplicado ao limite a cada sinal de sobrecarga
+        private double fatorReducao = 0.9;
+
+        public boolean isHabilitado() {
+            return habilitado;
+        }
+
+        public void setHabilitado(boolean habilitado) {
+            this.habilitado = habilitado;
+        }
+
+        public double getTaxaPorCliente() {
+            return taxaPorCliente;
+        }
+
+        public void setTaxaPorCliente(double taxaPorCliente) {
+            this.taxaPorCliente = taxaPorCliente;
+        }
+
+        public int getRajada() {
+            return rajada;
+        }
+
+        public void setRajada(int rajada) {
+            this.rajada = rajada;
+        }
+
+        public int getClientesMaximos() {
+            return clientesMaximos;
+        }
+
+        public void setClientesMaximos(int clientesMaximos) {
+            this.clientesMaximos = clientesMaximos;
+        }
+
+        public int getConcorrenciaInicial() {
+            return concorrenciaInicial;
+        }
+
+        public void setConcorrenciaInicial(int concorrenciaInicial) {
+            this.concorrenciaInicial = concorrenciaInicial;
+        }
+
+        public int getConcorrenciaMinima() {
+            return concorrenciaMinima;
+        }
+
+        public void setConcorrenciaMinima(int concorrenciaMinima) {
+            this.concorrenciaMinima = concorrenciaMinima;
+        }
+
+        public int getConcorrenciaMaxima() {
+            return concorrenciaMaxima;
+        }
+
+        public void setConcorrenciaMaxima(int concorrenciaMaxima) {
+            this.concorrenciaMaxima = concorrenciaMaxima;
+        }
+
+        public Duration getLatenciaAlvo() {
+            return latenciaAlvo;
+        }
+
+        public void setLatenciaAlvo(Duration latenciaAlvo) {
+            this.latenciaAlvo = latenciaAlvo;
+        }
+
+        public double getFatorReducao() {
+            return fatorReducao;
+        }
+
+        public void setFatorReducao(double fatorReducao) {
+            this.fatorReducao = fatorReducao;
+        }
+    }
+
+    // Feed de alterações (GET /api/v1/books/changes e o stream SSE), lido do outbox book_changes
+    public static class Mudancas {
+
+        // Alterações por chamada quando o cliente não informa "tamanho"
+        private int tamanhoPadrao = 100;
+
+        // Limite superior aceito, independente do que o cliente pedir
+        private int tamanhoMaximo = 1000;
+
+        // Alterações mais novas que isso ainda não aparecem no feed: dá tempo de transações que pegaram
+        // um seq menor confirmarem, para o consumidor não pular nenhuma ao avançar o "since". Só vale para
+        // transações que confirmam até esse tempo depois de gravar a alteração (lotes grandes podem passar)
+        private Duration atrasoVisibilidade = Duration.ofSeconds(1);
+
+        // Por quanto tempo as alterações ficam no outbox; "since" anterior a isso responde 410
+        private Duration retencao = Duration.ofDays(7);
+
+        // Intervalo entre as consultas que alimentam os streams SSE abertos
+        private Duration intervaloStream = Duration.ofMillis(500);
+
+        // Duração máxima de uma conexão SSE; o cliente reconecta com Last-Event-ID
+        private Duration duracaoStream = Duration.ofMinutes(30);
+
+        public int getTamanhoPadrao() {
+            return tamanhoPadrao;
+        }
+
+        public void setTamanhoPadrao(int tamanhoPadrao) {
+            this.tamanhoPadrao = tamanhoPadrao;
+        }
+
+        public int getTamanhoMaximo() {
+            return tamanhoMaximo;
+        }
+
+        public void setTamanhoMaximo(int tamanhoMaximo) {
+            this.tamanhoMaximo = tamanhoMaximo;
+        }
+
+        public Duration getAtrasoVisibilidade() {
+            return atrasoVisibilidade;
+        }
+
+        public void setAtrasoVisibilidade(Duration atrasoVisibilidade) {
+            this.atrasoVisibilidade = atrasoVisibilidade;
+        }
+
+        public Duration getRetencao() {
+            return retencao;
+        }
+
+        public void setRetencao(Duration retencao) {
+            this.retencao = retencao;
+        }
+
+        public Duration getIntervaloStream() {
+            return intervaloStream;
+        }
+
+        public void setIntervaloStream(Duration intervaloStream) {
+            this.intervaloStream = intervaloStream;
+        }
+
+        public Duration getDuracaoStream() {
+            return duracaoStream;
+        }
+
+        public void setDuracaoStream(Duration duracaoStream) {
+            this.duracaoStream = duracaoStream;
+        }
+    }
+
+    // Filtro de Bloom dos ISBNs cadastrados, consultado antes da checagem de duplicados do lote
+    public static class FiltroIsbns {
+
+        // false = toda checagem vai ao banco
+        private boolean habilitado = true;
+
+        // Taxa de falsos positivos ("talvez exista" para um ISBN novo) para a qual o filtro é dimensionado;
+        // quando a estimativa passa do dobro disso, o filtro é reconstruído maior
+        private double taxaFalsosPositivos = 0.01;
+
+        // ISBNs que o filtro comporta no mínimo (cresce para o dobro dos cadastrados a cada reconstrução)
+        private long capacidadeMinima = 1_000_000;
+
+        public boolean isHabilitado() {
+            return habilitado;
+        }
+
+        public void setHabilitado(boolean habilitado) {
+            this.habilitado = habilitado;
+        }
+
+        public double getTaxaFalsosPositivos() {
+            return taxaFalsosPositivos;
+        }
+
+        public void setTaxaFalsosPositivos(double taxaFalsosPositivos) {
+            this.taxaFalsosPositivos = taxaFalsosPositivos;
+        }
+
+        public long getCapacidadeMinima() {
+            return capacidadeMinima;
+        }
+
+        public void setCapacidadeMinima(long capacidadeMinima) {
+            this.capacidadeMinima = capacidadeMinima;
+        }
+    }
+
+    // Réplicas de leitura do banco (ReplicasConfig): só as leituras do BookService vão para elas
+    public static class Replicas {
+
+        // URLs JDBC das réplicas; vazio = tudo no primário. Usuário, senha e tamanho do pool são os do primário
+        private List<String> urls = new ArrayList<>();
+
+        // Depois de uma escrita, as leituras do mesmo cliente (e as do livro alterado) ficam no primário por
+        // esse tempo; deve ser maior que o atraso máximo tolerado
+        private Duration janelaLeituraPropria = Duration.ofSeconds(5);
+
+        // Frequência da verificação de saúde (conexão válida e atraso de replicação)
+        private Duration intervaloVerificacao = Duration.ofSeconds(5);
+
+        // Réplica com atraso de replicação acima disso sai do rodízio até alcançar o primário
+        private Duration atrasoMaximo = Duration.ofSeconds(2);
+
+        // Consulta que devolve o atraso de replicação em segundos; vazio = não mede (só a conexão)
+        private String consultaAtraso = "";
+
+        // Clientes lembrados ao mesmo tempo na janela de leitura própria
+        private int clientesMaximos = 100_000;
+
+        // Header que identifica o cliente na janela de leitura própria; sem ele, vale o IP de origem
+        private String cabecalhoCliente = "X-API-Key";
+
+        public List<String> getUrls() {
+            return urls;
+        }
+
+        public void setUrls(List<String> urls) {
+            this.urls = urls;
+        }
+
+        public Duration getJanelaLeituraPropria() {
+            return janelaLeituraPropria;
+        }
+
+        public void setJanelaLeituraPropria(Duration janelaLeituraPropria) {
+            this.janelaLeituraPropria = janelaLeituraPropria;
+        }
+
+        public Duration getIntervaloVerificacao() {
+            return intervaloVerificacao;
+        }
+
+        public void setIntervaloVerificacao(Duration intervaloVerificacao) {
+            this.intervaloVerificacao = intervaloVerificacao;
+        }
+
+        public Duration getAtrasoMaximo() {
+            return atrasoMaximo;
+        }
+
+        public void setAtrasoMaximo(Duration atrasoMaximo) {
+            this.atrasoMaximo = atrasoMaximo;
+        }
+
+        public String getConsultaAtraso() {
+            return consultaAtraso;
+        }
+
+        public void setConsultaAtraso(String consultaAtraso) {
+            this.consultaAtraso = consultaAtraso;
+        }
+
+        public int getClientesMaximos() {
+            return clientesMaximos;
+        }
+
+        public void setClientesMaximos(int clientesMaximos) {
+            this.clientesMaximos = clientesMaximos;
+        }
+
+        public String getCabecalhoCliente() {
+            return cabecalhoCliente;
+        }
+
+        public void setCabecalhoCliente(String cabecalhoCliente) {
+            this.cabecalhoCliente = cabecalhoCliente;
+        }
+    }
+}
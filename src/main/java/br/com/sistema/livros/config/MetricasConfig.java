@@ -0,0 +1,89 @@
+package br.com.sistema.livros.config;
+
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Métricas de acesso ao banco: comandos SQL, linhas lidas e espera por conexão, no total (livros.jdbc.*,
+ * livros.banco.conexoes.espera) e por requisição (MetricasRequisicaoFilter).
+ * Os tempos por endpoint vêm do http.server.requests e os dos services do @Timed (livros.service).
+ */
+@Configuration
+public class MetricasConfig {
+
+    // Envolve o DataSource por último, por fora do limitador de conexões do modo virtual threads (ThreadsConfig).
+    // O tipo de retorno concreto deixa o Spring ver o Ordered antes de criar o bean
+    @Bean
+    @ConditionalOnProperty(prefix = "livros.metricas", name = "jdbc", matchIfMissing = true)
+    static MetricasJdbc metricasJdbc() {
+        return new MetricasJdbc();
+    }
+
+    private static final class MetricasJdbc implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof MetricasJdbcDataSource)) {
+                return new MetricasJdbcDataSource(dataSource);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+
+    // livros.jdbc.comandos / livros.jdbc.linhas e o histograma da espera por conexão (pool + limitador)
+    @Bean
+    MeterBinder metricasJdbcBinder(DataSource dataSource) {
+        return registry -> {
+            MetricasJdbcDataSource metricas = desembrulhar(dataSource);
+            if (metricas == null) {
+                return;
+            }
+            FunctionCounter.builder("livros.jdbc.comandos", metricas, MetricasJdbcDataSource::getComandos)
+                    .description("Comandos SQL executados")
+                    .register(registry);
+            FunctionCounter.builder("livros.jdbc.linhas", metricas, MetricasJdbcDataSource::getLinhas)
+                    .description("Linhas lidas do banco")
+                    .baseUnit("rows")
+                    .register(registry);
+            metricas.setEsperaConexao(Timer.builder("livros.banco.conexoes.espera")
+                    .description("Tempo para obter uma conexão do DataSource")
+                    .publishPercentileHistogram()
+                    .register(registry));
+        };
+    }
+
+    // Só nas rotas da API: o scrape do Prometheus e o Swagger não entram nas métricas por requisição
+    @Bean
+    FilterRegistrationBean<MetricasRequisicaoFilter> metricasRequisicaoFilter(MeterRegistry registry, LivrosProperties properties) {
+        FilterRegistrationBean<MetricasRequisicaoFilter> registro =
+                new FilterRegistrationBean<>(new MetricasRequisicaoFilter(registry, properties.getMetricas()));
+        registro.addUrlPatterns("/api/*");
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 2); // Logo depois do filtro de observação do http.server.requests
+        return registro;
+    }
+
+    private static MetricasJdbcDataSource desembrulhar(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(MetricasJdbcDataSource.class)
+                    ? dataSource.unwrap(MetricasJdbcDataSource.class)
+                    : null;
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package br.com.sistema.livros.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * DataSource que conta comandos SQL e linhas lidas, e mede a espera por conexão.
+ *
+ * Conexões, statements e ResultSets são proxies finos: só execute*, next() e a obtenção da conexão fazem
+ * alguma conta; o resto vai direto ao objeto do driver. Os totais ficam aqui (livros.jdbc.*) e, dentro de
+ * uma requisição HTTP, também no ContadorSql da thread.
+ */
+public class MetricasJdbcDataSource extends DelegatingDataSource {
+
+    private final LongAdder comandos = new LongAdder();
+    private final LongAdder linhas = new LongAdder();
+    private volatile Timer esperaConexao;
+
+    public MetricasJdbcDataSource(DataSource alvo) {
+        super(alvo);
+    }
+
+    // Timer da espera por conexão (registrado depois que o MeterRegistry existe)
+    public void setEsperaConexao(Timer esperaConexao) {
+        this.esperaConexao = esperaConexao;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long inicio = System.nanoTime();
+        Connection conexao = super.getConnection();
+        conexaoObtida(System.nanoTime() - inicio);
+        return envolver(conexao);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long inicio = System.nanoTime();
+        Connection conexao = super.getConnection(username, password);
+        conexaoObtida(System.nanoTime() - inicio);
+        return envolver(conexao);
+    }
+
+    private void conexaoObtida(long nanos) {
+        Timer timer = esperaConexao;
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+        ContadorSql contador = ContadorSql.atual();
+        if (contador != null) {
+            contador.conexaoObtida(nanos);
+        }
+    }
+
+    // Statements criados pela conexão também são envolvidos
+    private Connection envolver(Connection conexao) {
+        return proxy(Connection.class, conexao, (metodo, argumentos) -> {
+            Object resultado = invocar(conexao, metodo, argumentos);
+            if (resultado instanceof Statement statement
+                    && (metodo.getName().equals("createStatement") || metodo.getName().startsWith("prepare"))) {
+                return envolver(statement, tipoDoStatement(metodo.getReturnType()));
+            }
+            return resultado;
+        });
+    }
+
+    private static Class<? extends Statement> tipoDoStatement(Class<?> retorno) {
+        if (retorno == CallableStatement.class) {
+            return CallableStatement.class;
+        }
+        return retorno == PreparedStatement.class ? PreparedStatement.class : Statement.class;
+    }
+
+    // execute* conta um comando e soma o tempo; os ResultSets devolvidos contam as linhas
+    private <S extends Statement> S envolver(Statement statement, Class<S> tipo) {
+        return proxy(tipo, statement, (metodo, argumentos) -> {
+            String nome = metodo.getName();
+            if (nome.startsWith("execute")) {
+                long inicio = System.nanoTime();
+                Object resultado;
+                try {
+                    resultado = invocar(statement, metodo, argumentos);
+                } finally {
+                    comandoExecutado(System.nanoTime() - inicio);
+                }
+                return resultado instanceof ResultSet resultSet ? envolver(resultSet) : resultado;
+            }
+            Object resultado = invocar(statement, metodo, argumentos);
+            return nome.equals("getResultSet") && resultado instanceof ResultSet resultSet ? envolver(resultSet) : resultado;
+        });
+    }
+
+    private void comandoExecutado(long nanos) {
+        comandos.increment();
+        ContadorSql contador = ContadorSql.atual();
+        if (contador != null) {
+            contador.comandoExecutado(nanos);
+        }
+    }
+
+    private ResultSet envolver(ResultSet resultSet) {
+        // O contador é o da thread que executou a consulta, mesmo que as linhas sejam lidas em outra
+        ContadorSql contador = ContadorSql.atual();
+        return proxy(ResultSet.class, resultSet, (metodo, argumentos) -> {
+            Object resultado = invocar(resultSet, metodo, argumentos);
+            if (Boolean.TRUE.equals(resultado) && metodo.getName().equals("next")) {
+                linhas.increment();
+                if (contador != null) {
+                    contador.linhaLida();
+                }
+            }
+            return resultado;
+        });
+    }
+
+    @FunctionalInterface
+    private interface Interceptador {
+        Object invocar(Method metodo, Object[] argumentos) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> tipo, Object alvo, Interceptador interceptador) {
+        return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo },
+                (proxy, metodo, argumentos) -> interceptador.invocar(metodo, argumentos)));
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(alvo, argumentos);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    // Comandos SQL executados desde a inicialização
+    public long getComandos() {
+        return comandos.sum();
+    }
+
+    // Linhas lidas desde a inicialização
+    public long getLinhas() {
+        return linhas.sum();
+    }
+}
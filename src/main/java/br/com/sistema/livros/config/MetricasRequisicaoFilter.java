@@ -0,0 +1,82 @@
+package br.com.sistema.livros.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Acesso ao banco por requisição: quantos comandos SQL e quantas linhas cada endpoint custa
+ * (livros.requisicao.sql.comandos / livros.requisicao.sql.linhas, com histograma) e log WARN
+ * das requisições lentas ou que leram linhas demais, já com os números do banco.
+ */
+public class MetricasRequisicaoFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricasRequisicaoFilter.class);
+
+    private final MeterRegistry registry;
+    private final LivrosProperties.Metricas properties;
+
+    public MetricasRequisicaoFilter(MeterRegistry registry, LivrosProperties.Metricas properties) {
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long inicio = System.nanoTime();
+        ContadorSql contador = ContadorSql.iniciar();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ContadorSql.encerrar();
+            registrar(request, response, contador, System.nanoTime() - inicio);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, HttpServletResponse response, ContadorSql contador, long nanos) {
+        // Mesmo rótulo "uri" do http.server.requests: o padrão da rota, não a URL com IDs
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = padrao != null ? padrao.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("livros.requisicao.sql.comandos")
+                .description("Comandos SQL executados por requisição")
+                .tags("method", request.getMethod(), "uri", uri)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(contador.getComandos());
+        DistributionSummary.builder("livros.requisicao.sql.linhas")
+                .description("Linhas lidas do banco por requisição")
+                .baseUnit("rows")
+                .tags("method", request.getMethod(), "uri", uri)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(contador.getLinhas());
+
+        Duration duracao = Duration.ofNanos(nanos);
+        if (duracao.compareTo(properties.getRequisicaoLenta()) >= 0 || contador.getLinhas() >= properties.getLinhasAlerta()) {
+            Counter.builder("livros.requisicao.lenta")
+                    .description("Requisições acima do tempo ou do número de linhas de alerta")
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .register(registry)
+                    .increment();
+            log.warn("Requisição lenta: {} {}{} -> {} em {} ms; {} comandos SQL, {} linhas, {} ms executando SQL, {} ms aguardando conexão",
+                    request.getMethod(), request.getRequestURI(),
+                    request.getQueryString() != null ? "?" + request.getQueryString() : "",
+                    response.getStatus(), duracao.toMillis(), contador.getComandos(), contador.getLinhas(),
+                    TimeUnit.NANOSECONDS.toMillis(contador.getNanosExecutando()),
+                    TimeUnit.NANOSECONDS.toMillis(contador.getNanosAguardandoConexao()));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package br.com.sistema.livros.config;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Réplicas de leitura (livros.replicas.urls): o DataSource do primário passa a ser um ReplicasDataSource,
+ * e as leituras do BookService (RoteamentoLeitura.naReplica) vão para as réplicas. Cada réplica tem um pool
+ * Hikari com a mesma configuração do primário (usuário, senha, tamanho), só que somente leitura.
+ */
+@Configuration
+@ConditionalOnExpression("!'${livros.replicas.urls:}'.isBlank()")
+public class ReplicasConfig {
+
+    // As propriedades vêm direto do Environment: o BeanPostProcessor é criado antes dos demais beans
+    @Bean
+    static RoteadorDeReplicas roteadorDeReplicas(Environment environment) {
+        LivrosProperties.Replicas properties = Binder.get(environment)
+                .bind("livros.replicas", LivrosProperties.Replicas.class)
+                .orElseGet(LivrosProperties.Replicas::new);
+        return new RoteadorDeReplicas(properties);
+    }
+
+    // Depois do limitador de conexões (ThreadsConfig) e antes das métricas JDBC (MetricasConfig), que assim
+    // medem também as conexões das réplicas
+    static final class RoteadorDeReplicas implements BeanPostProcessor, Ordered, DisposableBean {
+
+        private final LivrosProperties.Replicas properties;
+        private ReplicasDataSource replicas;
+
+        private RoteadorDeReplicas(LivrosProperties.Replicas properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource primario && !(bean instanceof ReplicasDataSource) && replicas == null) {
+                HikariDataSource hikari = desembrulhar(primario, HikariDataSource.class);
+                if (hikari != null) {
+                    replicas = new ReplicasDataSource(primario, pools(hikari, desembrulhar(primario, ConexoesLimitadasDataSource.class) != null), properties);
+                    return replicas;
+                }
+            }
+            return bean;
+        }
+
+        private Map<String, DataSource> pools(HikariDataSource primario, boolean limitado) {
+            Map<String, DataSource> pools = new LinkedHashMap<>();
+            List<String> urls = properties.getUrls();
+            for (int i = 0; i < urls.size(); i++) {
+                String nome = "replica-" + (i + 1);
+                HikariConfig config = new HikariConfig();
+                primario.copyStateTo(config);
+                config.setJdbcUrl(urls.get(i));
+                config.setPoolName("livros-" + nome);
+                config.setReadOnly(true);
+                config.setInitializationFailTimeout(-1); // Réplica fora do ar não impede a subida: a verificação cuida dela
+                HikariDataSource pool = new HikariDataSource(config);
+
+                // No modo virtual threads cada réplica tem o mesmo limite de conexões simultâneas do primário
+                pools.put(nome, limitado
+                        ? new ConexoesLimitadasDataSource(pool, pool.getMaximumPoolSize(), pool.getConnectionTimeout())
+                        : pool);
+            }
+            return pools;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE + 1;
+        }
+
+        @Override
+        public void destroy() {
+            if (replicas != null) {
+                replicas.close();
+            }
+        }
+    }
+
+    // Só as requisições da API de livros abrem e respeitam a janela de leitura própria
+    @Bean
+    FilterRegistrationBean<LeituraPropriaFilter> leituraPropriaFilter(LivrosProperties properties) {
+        FilterRegistrationBean<LeituraPropriaFilter> registro = new FilterRegistrationBean<>(
+                new LeituraPropriaFilter(properties.getReplicas()));
+        registro.addUrlPatterns("/api/v1/books", "/api/v1/books/*");
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 4); // Depois do controle de admissão
+        return registro;
+    }
+
+    // livros.replicas.saudavel / atraso / conexoes.em-uso e livros.replicas.leituras, por réplica
+    @Bean
+    MeterBinder metricasDasReplicas(DataSource dataSource) {
+        return registry -> {
+            ReplicasDataSource roteador = desembrulhar(dataSource, ReplicasDataSource.class);
+            if (roteador == null) {
+                return;
+            }
+            for (ReplicasDataSource.Replica replica : roteador.getReplicas()) {
+                Gauge.builder("livros.replicas.saudavel", replica, r -> r.isSaudavel() ? 1 : 0)
+                        .description("1 se a réplica está no rodízio de leituras, 0 se foi retirada pela verificação")
+                        .tag("replica", replica.getNome())
+                        .register(registry);
+                Gauge.builder("livros.replicas.atraso", replica, r -> r.getAtrasoMs() / 1000.0)
+                        .description("Atraso de replicação medido na última verificação")
+                        .tag("replica", replica.getNome())
+                        .baseUnit("seconds")
+                        .register(registry);
+                Gauge.builder("livros.replicas.conexoes.em-uso", replica, ReplicasDataSource.Replica::getEmUso)
+                        .description("Conexões da réplica entregues e ainda não devolvidas")
+                        .tag("replica", replica.getNome())
+                        .register(registry);
+                FunctionCounter.builder("livros.replicas.leituras", replica, ReplicasDataSource.Replica::getLeituras)
+                        .description("Conexões de leitura entregues pela réplica")
+                        .tag("replica", replica.getNome())
+                        .register(registry);
+            }
+        };
+    }
+
+    private static <T> T desembrulhar(DataSource dataSource, Class<T> tipo) {
+        try {
+            return dataSource.isWrapperFor(tipo) ? dataSource.unwrap(tipo) : null;
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+}
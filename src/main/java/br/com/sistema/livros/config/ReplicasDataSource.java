@@ -0,0 +1,218 @@
+package br.com.sistema.livros.config;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource do primário que manda para as réplicas as leituras marcadas com RoteamentoLeitura.naReplica.
+ *
+ * A réplica é escolhida em rodízio, ficando com a de menos conexões em uso entre as saudáveis: uma réplica
+ * lenta acumula conexões abertas e passa a receber menos leituras. Uma verificação periódica tira do rodízio
+ * a réplica que não responde ou cujo atraso de replicação passou do máximo, e a devolve quando se recupera.
+ * Sem réplica saudável (ou se a conexão falhar), a leitura vai ao primário. Todo o resto (escritas, Flyway,
+ * outbox, cargas em segundo plano) continua sempre no primário.
+ */
+public class ReplicasDataSource extends DelegatingDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicasDataSource.class);
+
+    // Espera máxima da verificação por uma resposta da réplica (segundos)
+    private static final int TEMPO_VERIFICACAO = 2;
+
+    private final List<Replica> replicas;
+    private final long atrasoMaximoMs;
+    private final String consultaAtraso;
+    private final AtomicInteger proxima = new AtomicInteger();
+    private final ScheduledExecutorService verificador;
+
+    public ReplicasDataSource(DataSource primario, Map<String, DataSource> replicas, LivrosProperties.Replicas properties) {
+        super(primario);
+        List<Replica> lista = new ArrayList<>();
+        replicas.forEach((nome, dataSource) -> lista.add(new Replica(nome, dataSource)));
+        this.replicas = Collections.unmodifiableList(lista);
+        this.atrasoMaximoMs = properties.getAtrasoMaximo().toMillis();
+        this.consultaAtraso = properties.getConsultaAtraso();
+
+        long intervalo = properties.getIntervaloVerificacao().toMillis();
+        this.verificador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("livros-replicas-verificacao").daemon().factory());
+        this.verificador.scheduleWithFixedDelay(this::verificar, 0, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!RoteamentoLeitura.replicaPermitida()) {
+            return super.getConnection();
+        }
+        Replica replica = escolher();
+        if (replica == null) {
+            return super.getConnection();
+        }
+        try {
+            return replica.conectar();
+        } catch (SQLException ex) {
+            // Caiu entre duas verificações: sai do rodízio já, e esta leitura vai ao primário
+            replica.marcar(false, ex.getMessage());
+            return super.getConnection();
+        }
+    }
+
+    // Rodízio a partir da próxima posição, ficando com a saudável de menos conexões em uso
+    Replica escolher() {
+        int quantidade = replicas.size();
+        int inicio = Math.floorMod(proxima.getAndIncrement(), quantidade);
+        Replica escolhida = null;
+        for (int i = 0; i < quantidade; i++) {
+            Replica replica = replicas.get((inicio + i) % quantidade);
+            if (replica.saudavel && (escolhida == null || replica.emUso.get() < escolhida.emUso.get())) {
+                escolhida = replica;
+            }
+        }
+        return escolhida;
+    }
+
+    void verificar() {
+        for (Replica replica : replicas) {
+            try (Connection conexao = replica.dataSource.getConnection()) {
+                if (!conexao.isValid(TEMPO_VERIFICACAO)) {
+                    replica.marcar(false, "conexão inválida");
+                    continue;
+                }
+                replica.atrasoMs = medirAtraso(conexao);
+                replica.marcar(replica.atrasoMs <= atrasoMaximoMs, "atraso de replicação de " + replica.atrasoMs + " ms");
+            } catch (SQLException | RuntimeException ex) {
+                replica.marcar(false, ex.getMessage());
+            }
+        }
+    }
+
+    private long medirAtraso(Connection conexao) throws SQLException {
+        if (consultaAtraso == null || consultaAtraso.isBlank()) {
+            return 0;
+        }
+        try (Statement comando = conexao.createStatement()) {
+            comando.setQueryTimeout(TEMPO_VERIFICACAO);
+            try (ResultSet resultado = comando.executeQuery(consultaAtraso)) {
+                return resultado.next() ? Math.round(resultado.getDouble(1) * 1000) : 0;
+            }
+        }
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        verificador.shutdownNow();
+        for (Replica replica : replicas) {
+            try {
+                if (replica.dataSource.isWrapperFor(Closeable.class)) {
+                    replica.dataSource.unwrap(Closeable.class).close();
+                }
+            } catch (Exception ex) {
+                log.warn("Falha ao fechar o pool da réplica {}", replica.nome, ex);
+            }
+        }
+    }
+
+    public static final class Replica {
+
+        private final String nome;
+        private final DataSource dataSource;
+        private final AtomicInteger emUso = new AtomicInteger();
+        private final AtomicLong leituras = new AtomicLong();
+
+        // Só entra no rodízio depois de passar na primeira verificação (feita logo na criação, em segundo plano):
+        // uma réplica fora do ar desde a subida faria cada leitura esperar o connectionTimeout do pool
+        private volatile boolean saudavel;
+        private volatile long atrasoMs;
+
+        private Replica(String nome, DataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+        }
+
+        // Conta a conexão em uso até ela ser fechada (devolvida ao pool), uma única vez
+        private Connection conectar() throws SQLException {
+            emUso.incrementAndGet();
+            Connection conexao;
+            try {
+                conexao = dataSource.getConnection();
+            } catch (SQLException | RuntimeException ex) {
+                emUso.decrementAndGet();
+                throw ex;
+            }
+            leituras.incrementAndGet();
+            AtomicBoolean fechada = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                    (proxy, metodo, argumentos) -> {
+                        if (metodo.getName().equals("close") && metodo.getParameterCount() == 0) {
+                            if (fechada.compareAndSet(false, true)) {
+                                try {
+                                    conexao.close();
+                                } finally {
+                                    emUso.decrementAndGet();
+                                }
+                            }
+                            return null;
+                        }
+                        try {
+                            return metodo.invoke(conexao, argumentos);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        }
+                    });
+        }
+
+        // Registra no log só as mudanças de estado
+        private void marcar(boolean saudavel, String motivo) {
+            if (this.saudavel != saudavel) {
+                if (saudavel) {
+                    log.info("Réplica {} no rodízio de leituras ({})", nome, motivo);
+                } else {
+                    log.warn("Réplica {} fora do rodízio: {}", nome, motivo);
+                }
+            }
+            this.saudavel = saudavel;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+
+        public boolean isSaudavel() {
+            return saudavel;
+        }
+
+        public long getAtrasoMs() {
+            return atrasoMs;
+        }
+
+        public int getEmUso() {
+            return emUso.get();
+        }
+
+        public long getLeituras() {
+            return leituras.get();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.sistema.livros.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Para onde vão as conexões pedidas pela thread atual (ReplicasDataSource).
+ *
+ * Fora de qualquer escopo, tudo vai ao primário. naReplica marca uma leitura que aceita réplica; noPrimario
+ * (e o escopo aberto pelo LeituraPropriaFilter) exige o primário e prevalece sobre naReplica, inclusive em
+ * chamadas aninhadas. O escopo precisa estar aberto antes da transação começar: a conexão é escolhida quando
+ * a transação a pede ao DataSource.
+ */
+public final class RoteamentoLeitura {
+
+    private enum Destino {
+        REPLICA,
+        PRIMARIO
+    }
+
+    private static final ThreadLocal<Destino> DESTINO = new ThreadLocal<>();
+
+    private RoteamentoLeitura() {
+    }
+
+    // Leitura somente de consulta que pode ver um estado um pouco atrasado do banco
+    public static <T> T naReplica(Supplier<T> leitura) {
+        return executar(Destino.REPLICA, leitura);
+    }
+
+    // Leitura que precisa ver as escritas já confirmadas (ex.: logo depois de alterar o livro)
+    public static <T> T noPrimario(Supplier<T> leitura) {
+        return executar(Destino.PRIMARIO, leitura);
+    }
+
+    // Escopo para código que não cabe num Supplier (filtros); fechar restaura o destino anterior
+    public static Escopo primario() {
+        Destino anterior = DESTINO.get();
+        DESTINO.set(Destino.PRIMARIO);
+        return () -> restaurar(anterior);
+    }
+
+    public static boolean replicaPermitida() {
+        return DESTINO.get() == Destino.REPLICA;
+    }
+
+    public static boolean primarioExigido() {
+        return DESTINO.get() == Destino.PRIMARIO;
+    }
+
+    private static <T> T executar(Destino destino, Supplier<T> leitura) {
+        Destino anterior = DESTINO.get();
+        if (anterior == Destino.PRIMARIO) {
+            return leitura.get();
+        }
+        DESTINO.set(destino);
+        try {
+            return leitura.get();
+        } finally {
+            restaurar(anterior);
+        }
+    }
+
+    private static void restaurar(Destino anterior) {
+        if (anterior == null) {
+            DESTINO.remove();
+        } else {
+            DESTINO.set(anterior);
+        }
+    }
+
+    public interface Escopo extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
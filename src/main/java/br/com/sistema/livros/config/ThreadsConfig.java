@@ -0,0 +1,73 @@
+package br.com.sistema.livros.config;
+
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Modo de execução em virtual threads (spring.threads.virtual.enabled=true).
+ * O próprio Spring Boot passa o Tomcat, o executor de tarefas (usado também pelas respostas assíncronas,
+ * como o /export) e o agendador para virtual threads; aqui só fica o limite de acesso ao banco.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ThreadsConfig {
+
+    // Envolve o pool Hikari com o limite de conexões simultâneas igual ao tamanho do pool
+    @Bean
+    static LimitadorDeConexoes limitadorDeConexoes() {
+        return new LimitadorDeConexoes();
+    }
+
+    // Roda antes dos demais BeanPostProcessors: precisa ver o HikariDataSource ainda sem outros wrappers
+    private static final class LimitadorDeConexoes implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource hikari) {
+                return new ConexoesLimitadasDataSource(hikari, hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    // livros.banco.conexoes.em-uso / aguardando: a fila mostra quando o pool virou o gargalo
+    @Bean
+    MeterBinder metricasDoLimitadorDeConexoes(DataSource dataSource) {
+        return registry -> {
+            ConexoesLimitadasDataSource limitado = desembrulhar(dataSource);
+            if (limitado == null) {
+                return;
+            }
+            Gauge.builder("livros.banco.conexoes.em-uso", limitado, ConexoesLimitadasDataSource::getEmUso)
+                    .description("Conexões entregues pelo limitador e ainda não devolvidas")
+                    .register(registry);
+            Gauge.builder("livros.banco.conexoes.aguardando", limitado, ConexoesLimitadasDataSource::getAguardando)
+                    .description("Threads aguardando uma conexão no limitador")
+                    .register(registry);
+        };
+    }
+
+    private static ConexoesLimitadasDataSource desembrulhar(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ConexoesLimitadasDataSource.class)
+                    ? dataSource.unwrap(ConexoesLimitadasDataSource.class)
+                    : null;
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+}
@@ -1,50 +1,243 @@
 package br.com.sistema.livros.controller;
 
+import br.com.sistema.livros.dto.BookAsyncStatusDTO;
+import br.com.sistema.livros.dto.BookBatchResultDTO;
+import br.com.sistema.livros.dto.BookChangePageDTO;
+import br.com.sistema.livros.dto.BookFiltroDTO;
+import br.com.sistema.livros.dto.BookLookupRequestDTO;
+import br.com.sistema.livros.dto.BookLookupResultDTO;
+import br.com.sistema.livros.dto.BookPageDTO;
+import br.com.sistema.livros.dto.BookPatchDTO;
 import br.com.sistema.livros.dto.BookRequestDTO;
 import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.dto.BookSuggestionDTO;
+import br.com.sistema.livros.dto.BookVersionDTO;
+import br.com.sistema.livros.service.BookAsyncService;
+import br.com.sistema.livros.service.BookBatchService;
+import br.com.sistema.livros.service.BookChangeService;
+import br.com.sistema.livros.service.BookChangeStreamService;
+import br.com.sistema.livros.service.BookExportService;
 import br.com.sistema.livros.service.BookService;
+import br.com.sistema.livros.service.BookSuggestionService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/books")
 @Validated
-@Tag(name = "Books", description = "Endpoints para gerenciamento de livros")
+@Tag(name = "Books", description = "Endpoints para gerenciamento de livros. Além de JSON, aceitam e respondem "
+        + "application/cbor e application/x-jackson-smile conforme Content-Type / Accept")
 public class BookController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final BookService service;
+    private final BookExportService exportService;
+    private final BookBatchService batchService;
+    private final BookSuggestionService suggestionService;
+    private final BookAsyncService asyncService;
+    private final BookChangeService changeService;
+    private final BookChangeStreamService changeStreamService;
 
-    public BookController(BookService service) {
+    public BookController(BookService service, BookExportService exportService, BookBatchService batchService,
+            BookSuggestionService suggestionService, BookAsyncService asyncService, BookChangeService changeService,
+            BookChangeStreamService changeStreamService) {
         this.service = service;
+        this.exportService = exportService;
+        this.batchService = batchService;
+        this.suggestionService = suggestionService;
+        this.asyncService = asyncService;
+        this.changeService = changeService;
+        this.changeStreamService = changeStreamService;
     }
 
-    @Operation(summary = "Lista todos os livros", description = "Retorna uma lista com todos os livros cadastrados")
+    @Operation(summary = "Lista os livros paginados", description = "Retorna uma página de livros, por padrão ordenada por ID. "
+            + "Filtros opcionais por autor, faixa de publicação e prefixo de ISBN, combinados entre si; ordenarPor e direcao "
+            + "escolhem a ordem. Quando houver mais registros, o header Link (rel=\"next\") traz a URL da próxima página, "
+            + "com os mesmos filtros. Suporta If-None-Match com o ETag da página")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso")
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Página não mudou desde o ETag informado"),
+            @ApiResponse(responseCode = "400", description = "Cursor, tamanho de página, filtro ou ordenação inválidos")
     })
     @GetMapping
-    public ResponseEntity<List<BookResponseDTO>> listarTodos() {
-        List<BookResponseDTO> books = service.listarTodos();
-        return ResponseEntity.ok(books);
+    public ResponseEntity<List<BookResponseDTO>> listarTodos(
+            @Parameter(description = "Cursor opaco recebido no header Link da página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de livros por página (limitada pelo máximo configurado)")
+            @RequestParam(required = false) Integer tamanho,
+            @Parameter(description = "Nome exato do autor")
+            @RequestParam(required = false) String autor,
+            @Parameter(description = "Publicados a partir desta data, inclusive (AAAA-MM-DD)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publicadoDe,
+            @Parameter(description = "Publicados até esta data, inclusive (AAAA-MM-DD)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publicadoAte,
+            @Parameter(description = "Início do ISBN, ex.: \"978-85\"")
+            @RequestParam(required = false) String isbnPrefixo,
+            @Parameter(description = "Campo da ordenação: id (padrão), titulo, autor ou publicadoEm. Por publicadoEm, "
+                    + "livros sem data de publicação ficam de fora")
+            @RequestParam(required = false) String ordenarPor,
+            @Parameter(description = "Direção da ordenação: asc (padrão) ou desc")
+            @RequestParam(required = false) String direcao) {
+        BookFiltroDTO filtro = new BookFiltroDTO(autor, publicadoDe, publicadoAte, isbnPrefixo, ordenarPor, direcao);
+        BookPageDTO pagina = service.listarTodos(cursor, tamanho, filtro);
+
+        // Com If-None-Match igual ao ETag, o Spring responde 304 sem serializar o corpo
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(BookETags.daPagina(pagina.getConteudo(), pagina.getProximo()));
+        if (pagina.getProximo() != null) {
+            String proximaPagina = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", pagina.getProximo())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + proximaPagina + ">; rel=\"next\"");
+        }
+        return response.body(pagina.getConteudo());
+    }
+
+    @Operation(summary = "Busca livros por texto", description = "Busca em título e autor, sem diferenciar acentos "
+            + "e maiúsculas (\"sertao\" encontra \"Grande Sertão: Veredas\"). Os resultados mais relevantes vêm primeiro")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Busca realizada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Nenhum termo de busca informado")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<BookResponseDTO>> buscar(
+            @Parameter(description = "Texto buscado no título e no autor")
+            @RequestParam String q,
+            @Parameter(description = "Quantidade máxima de resultados (limitada pelo máximo configurado)")
+            @RequestParam(required = false) Integer tamanho) {
+        return ResponseEntity.ok(service.buscar(q, tamanho));
+    }
+
+    @Operation(summary = "Sugere títulos e autores", description = "Autocompletar respondido da memória: títulos e autores "
+            + "com uma palavra começando pelo prefixo, sem diferenciar acentos. Os que começam pelo prefixo vêm primeiro")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sugestões retornadas com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Prefixo sem letras ou números")
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<BookSuggestionDTO>> sugerir(
+            @Parameter(description = "Início de uma palavra do título ou do autor, ex.: \"sert\"")
+            @RequestParam String prefix,
+            @Parameter(description = "Quantidade máxima de sugestões (limitada pelo máximo configurado)")
+            @RequestParam(required = false) Integer tamanho) {
+        return ResponseEntity.ok(suggestionService.sugerir(prefix, tamanho));
+    }
+
+    @Operation(summary = "Lista as alterações dos livros", description = "Feed de criações, alterações e remoções em ordem, "
+            + "a partir da posição \"since\" (exclusiva); cada alteração traz o livro como ficou. Use \"ultimo\" como o próximo since. "
+            + "Sem since, responde só a posição atual: guarde-a, faça a carga completa pela listagem e continue pelo feed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Alterações retornadas com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Posição ou tamanho inválido"),
+            @ApiResponse(responseCode = "410", description = "Posição anterior à retenção do feed; refaça a carga completa")
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<BookChangePageDTO> listarAlteracoes(
+            @Parameter(description = "Posição do feed já processada pelo cliente (\"ultimo\" da chamada anterior)")
+            @RequestParam(required = false) Long since,
+            @Parameter(description = "Quantidade máxima de alterações (limitada pelo máximo configurado)")
+            @RequestParam(required = false) Integer tamanho) {
+        return ResponseEntity.ok(changeService.listar(since, tamanho));
     }
 
-    @Operation(summary = "Busca livro por ID", description = "Retorna um livro específico pelo seu ID")
+    @Operation(summary = "Acompanha as alterações dos livros (SSE)", description = "Server-Sent Events com as alterações "
+            + "do feed à medida que são confirmadas; o id de cada evento é a posição no feed. Ao reconectar, o header "
+            + "Last-Event-ID (enviado pelo EventSource) tem prioridade sobre since. Sem nenhum dos dois, começa da posição atual")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream aberto"),
+            @ApiResponse(responseCode = "400", description = "Posição inválida"),
+            @ApiResponse(responseCode = "410", description = "Posição anterior à retenção do feed; refaça a carga completa")
+    })
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter acompanharAlteracoes(
+            @Parameter(description = "Posição do feed a partir da qual enviar (exclusiva)")
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEvento) {
+        return changeStreamService.assinar(ultimoEvento != null ? ultimoEvento : since);
+    }
+
+    @Operation(summary = "Exporta todos os livros", description = "Envia o catálogo completo em streaming, "
+            + "como NDJSON (padrão) ou CSV conforme o header Accept")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação iniciada"),
+            @ApiResponse(responseCode = "406", description = "Formato solicitado não suportado")
+    })
+    @GetMapping(value = "/export", produces = { MediaType.APPLICATION_NDJSON_VALUE, "text/csv" })
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (preferCsv(accept)) {
+            StreamingResponseBody body = exportService::exportarCsv;
+            return ResponseEntity.ok()
+                    .contentType(TEXT_CSV)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"livros.csv\"")
+                    .body(body);
+        }
+
+        StreamingResponseBody body = exportService::exportarNdjson;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // Escolhe CSV apenas quando o cliente o prefere explicitamente em relação ao NDJSON
+    private boolean preferCsv(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+
+        List<MediaType> aceitos = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(aceitos);
+        for (MediaType aceito : aceitos) {
+            if (aceito.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+                return false;
+            }
+            if (aceito.isCompatibleWith(TEXT_CSV)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Operation(summary = "Busca livro por ID", description = "Retorna um livro específico pelo seu ID. "
+            + "Suporta If-None-Match / If-Modified-Since (ETag e Last-Modified)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Livro encontrado"),
+            @ApiResponse(responseCode = "304", description = "Livro não mudou desde a versão informada"),
             @ApiResponse(responseCode = "404", description = "Livro não encontrado")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<BookResponseDTO> getById(@PathVariable Long id) {
+    public ResponseEntity<BookResponseDTO> getById(@PathVariable Long id, WebRequest webRequest) {
+
+        // Requisição condicional: consulta só a versão; se o cliente já tem a atual, responde 304 sem montar o corpo
+        if (BookETags.isCondicional(webRequest)) {
+            BookVersionDTO versao = service.getVersao(id);
+            if (webRequest.checkNotModified(BookETags.daVersao(versao.getVersao()), BookETags.ultimaAlteracao(versao.getAtualizadoEm()))) {
+                return null;
+            }
+            // checkNotModified já adicionou ETag e Last-Modified à resposta
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(service.getById(id));
+        }
+
         BookResponseDTO book = service.getById(id);
-        return ResponseEntity.ok(book);
+        return BookETags.comValidadores(ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT), book).body(book);
     }
 
     @Operation(summary = "Cria um novo livro", description = "Cadastra um novo livro no sistema")
@@ -58,28 +251,110 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
-    @Operation(summary = "Atualiza um livro", description = "Atualiza os dados de um livro existente")
+    @Operation(summary = "Cria livros em lote", description = "Cadastra vários livros em uma única transação. "
+            + "Retorna um resultado por item (CRIADO, DUPLICADO ou INVALIDO), na mesma ordem do envio")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; verifique o status de cada item"),
+            @ApiResponse(responseCode = "400", description = "Lote acima do tamanho máximo permitido")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookBatchResultDTO>> criarEmLote(@RequestBody List<BookRequestDTO> requests) {
+        List<BookBatchResultDTO> resultados = batchService.criarEmLote(requests);
+        return ResponseEntity.ok(resultados);
+    }
+
+    @Operation(summary = "Busca vários livros por ID e/ou ISBN", description = "Resolve todas as chaves com uma consulta "
+            + "por tipo. Retorna um resultado por chave (ENCONTRADO ou NAO_ENCONTRADO), primeiro os IDs e depois os ISBNs, "
+            + "na mesma ordem do envio")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Consulta processada; verifique o status de cada chave"),
+            @ApiResponse(responseCode = "400", description = "Nenhuma chave, chave nula ou acima do tamanho máximo permitido")
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<List<BookLookupResultDTO>> buscarVarios(@RequestBody BookLookupRequestDTO request) {
+        return ResponseEntity.ok(service.buscarVarios(request));
+    }
+
+    @Operation(summary = "Cria um livro de forma assíncrona", description = "Valida o livro e o coloca na fila de cadastro, "
+            + "gravada em lotes. Exige o header Idempotency-Key: repetir a chave devolve o mesmo pedido, sem gravar o livro duas vezes. "
+            + "O header Location aponta para o status do pedido")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Pedido aceito e aguardando gravação"),
+            @ApiResponse(responseCode = "200", description = "Chave repetida de um pedido já concluído; o corpo traz o resultado"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos, Idempotency-Key ausente ou usada com outro livro"),
+            @ApiResponse(responseCode = "429", description = "Fila cheia; tente de novo após o Retry-After")
+    })
+    @PostMapping("/async")
+    public ResponseEntity<BookAsyncStatusDTO> criarLivroAssincrono(
+            @Parameter(description = "Chave única do pedido, gerada pelo cliente (ex.: UUID)")
+            @RequestHeader(value = "Idempotency-Key", required = false) String chave,
+            @Valid @RequestBody BookRequestDTO request) {
+        BookAsyncStatusDTO status = asyncService.enfileirar(chave, request);
+        URI statusUrl = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{chave}")
+                .buildAndExpand(status.getChave())
+                .toUri();
+        HttpStatus httpStatus = status.getStatus() == BookAsyncStatusDTO.Status.PENDENTE ? HttpStatus.ACCEPTED : HttpStatus.OK;
+        return ResponseEntity.status(httpStatus).location(statusUrl).body(status);
+    }
+
+    @Operation(summary = "Consulta um cadastro assíncrono", description = "Status do pedido da Idempotency-Key: "
+            + "PENDENTE, CRIADO (com o ID do livro), DUPLICADO, INVALIDO ou ERRO")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Status do pedido"),
+            @ApiResponse(responseCode = "404", description = "Chave desconhecida ou fora do período de retenção")
+    })
+    @GetMapping("/async/{chave}")
+    public ResponseEntity<BookAsyncStatusDTO> consultarCadastroAssincrono(@PathVariable String chave) {
+        return ResponseEntity.ok(asyncService.consultar(chave));
+    }
+
+    @Operation(summary = "Atualiza um livro", description = "Atualiza os dados de um livro existente. "
+            + "Com If-Match, só atualiza se o ETag ainda for o da versão atual")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Livro atualizado com sucesso"),
             @ApiResponse(responseCode = "404", description = "Livro não encontrado"),
-            @ApiResponse(responseCode = "400", description = "Dados inválidos")
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual")
     })
     @PutMapping("/{id}")
     public ResponseEntity<BookResponseDTO> atualizarLivro(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody BookRequestDTO request) {
-        BookResponseDTO updated = service.atualizarLivro(id, request);
-        return ResponseEntity.ok(updated);
+        BookResponseDTO updated = service.atualizarLivro(id, request, BookETags.versaoDoIfMatch(ifMatch));
+        return BookETags.comValidadores(ResponseEntity.ok(), updated).body(updated);
     }
 
-    @Operation(summary = "Deleta um livro", description = "Remove um livro do sistema")
+    @Operation(summary = "Atualiza parte de um livro", description = "Altera só os campos enviados; os ausentes ficam como estão. "
+            + "Com If-Match, só atualiza se o ETag ainda for o da versão atual")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Livro atualizado com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Livro não encontrado"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos, nenhum campo informado ou ISBN duplicado"),
+            @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual")
+    })
+    @PatchMapping("/{id}")
+    public ResponseEntity<BookResponseDTO> atualizarParcialmente(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody BookPatchDTO request) {
+        BookResponseDTO updated = service.atualizarParcialmente(id, request, BookETags.versaoDoIfMatch(ifMatch));
+        return BookETags.comValidadores(ResponseEntity.ok(), updated).body(updated);
+    }
+
+    @Operation(summary = "Deleta um livro", description = "Remove um livro do sistema. "
+            + "Com If-Match, só remove se o ETag ainda for o da versão atual")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Livro deletado com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Livro não encontrado")
+            @ApiResponse(responseCode = "404", description = "Livro não encontrado"),
+            @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual")
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deletar(@PathVariable Long id) {
-        service.deletar(id);
+    public ResponseEntity<Void> deletar(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        service.deletar(id, BookETags.versaoDoIfMatch(ifMatch));
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package br.com.sistema.livros.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.exception.PreconditionFailedException;
+
+/**
+ * Validadores HTTP (ETag / Last-Modified) dos recursos de livro.
+ * O ETag de um livro é a sua versão (@Version); o de uma página é um hash dos IDs e versões que ela contém.
+ * As respostas de leitura variam pelo Accept (JSON, CBOR ou Smile), então levam "Vary: Accept".
+ */
+final class BookETags {
+
+    private BookETags() {
+    }
+
+    // ETag forte de um livro: a versão entre aspas, ex.: "3"
+    static String daVersao(Long versao) {
+        return versao == null ? null : "\"" + versao + "\"";
+    }
+
+    // ETag fraco de uma página: muda sempre que um livro da página muda de versão ou a página muda de composição.
+    // Fraco porque a mesma página sai em JSON, CBOR ou Smile, com ou sem gzip (o Tomcat não comprime com ETag forte)
+    static String daPagina(List<BookResponseDTO> conteudo, String proximo) {
+        StringBuilder assinatura = new StringBuilder(conteudo.size() * 12);
+        for (BookResponseDTO book : conteudo) {
+            assinatura.append(book.getId()).append(':').append(book.getVersao()).append(';');
+        }
+        assinatura.append(proximo);
+        return "W/\"" + DigestUtils.md5DigestAsHex(assinatura.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    // Data da última alteração em milissegundos (-1 quando desconhecida, como espera o Spring)
+    static long ultimaAlteracao(LocalDateTime atualizadoEm) {
+        return atualizadoEm == null ? -1 : atualizadoEm.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Requisição traz If-None-Match ou If-Modified-Since?
+    static boolean isCondicional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    // Adiciona ETag e Last-Modified de um livro à resposta
+    static ResponseEntity.BodyBuilder comValidadores(ResponseEntity.BodyBuilder response, BookResponseDTO book) {
+        String etag = daVersao(book.getVersao());
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        long ultimaAlteracao = ultimaAlteracao(book.getAtualizadoEm());
+        if (ultimaAlteracao > 0) {
+            response.lastModified(ultimaAlteracao);
+        }
+        return response;
+    }
+
+    /**
+     * Converte o If-Match na versão esperada pelo service.
+     * Ausente ou "*" significa "qualquer versão" (null). Só aceita um único ETag forte gerado por esta API;
+     * ETags fracos ou listas não podem ser comparados com segurança e falham a pré-condição.
+     */
+    static Long versaoDoIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String valor = ifMatch.trim();
+        if (valor.length() > 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+            try {
+                return Long.valueOf(valor.substring(1, valor.length() - 1));
+            } catch (NumberFormatException ex) {
+                // Cai no erro abaixo
+            }
+        }
+        throw new PreconditionFailedException("If-Match inválido: " + ifMatch);
+    }
+}
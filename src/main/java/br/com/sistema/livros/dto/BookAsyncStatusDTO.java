@@ -0,0 +1,73 @@
+package br.com.sistema.livros.dto;
+
+public class BookAsyncStatusDTO {
+
+    // Situação de um pedido de cadastro assíncrono
+    public enum Status {
+        PENDENTE,
+        CRIADO,
+        DUPLICADO,
+        INVALIDO,
+        ERRO
+    }
+
+    private String chave;
+    private Status status;
+    private Long id;
+    private String isbn;
+    private String mensagem;
+
+    // Construtor vazio
+    public BookAsyncStatusDTO() {
+    }
+
+    // Construtor completo
+    public BookAsyncStatusDTO(String chave, Status status, Long id, String isbn, String mensagem) {
+        this.chave = chave;
+        this.status = status;
+        this.id = id;
+        this.isbn = isbn;
+        this.mensagem = mensagem;
+    }
+
+    // Getters e Setters
+    public String getChave() {
+        return chave;
+    }
+
+    public void setChave(String chave) {
+        this.chave = chave;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public void setIsbn(String isbn) {
+        this.isbn = isbn;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.sistema.livros.dto;
+
+public class BookBatchResultDTO {
+
+    // Resultado possível de cada item do lote
+    public enum Status {
+        CRIADO,
+        DUPLICADO,
+        INVALIDO
+    }
+
+    private int indice;
+    private Status status;
+    private Long id;
+    private String isbn;
+    private String mensagem;
+
+    // Construtor vazio
+    public BookBatchResultDTO() {
+    }
+
+    // Construtor completo
+    public BookBatchResultDTO(int indice, Status status, Long id, String isbn, String mensagem) {
+        this.indice = indice;
+        this.status = status;
+        this.id = id;
+        this.isbn = isbn;
+        this.mensagem = mensagem;
+    }
+
+    // Getters e Setters
+    public int getIndice() {
+        return indice;
+    }
+
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public void setIsbn(String isbn) {
+        this.isbn = isbn;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+}
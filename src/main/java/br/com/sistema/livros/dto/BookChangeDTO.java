@@ -0,0 +1,77 @@
+package br.com.sistema.livros.dto;
+
+import java.time.LocalDateTime;
+
+public class BookChangeDTO {
+
+    public enum Tipo {
+        CRIADO,
+        ATUALIZADO,
+        REMOVIDO
+    }
+
+    // Posição no feed; usada como "since" (ou Last-Event-ID no stream) para continuar daqui
+    private Long seq;
+
+    private Tipo tipo;
+    private Long livroId;
+
+    // Livro depois da alteração; na remoção, como ele estava antes de ser removido
+    private BookResponseDTO livro;
+
+    private LocalDateTime ocorridoEm;
+
+    // Construtor vazio
+    public BookChangeDTO() {
+    }
+
+    // Construtor completo
+    public BookChangeDTO(Long seq, Tipo tipo, Long livroId, BookResponseDTO livro, LocalDateTime ocorridoEm) {
+        this.seq = seq;
+        this.tipo = tipo;
+        this.livroId = livroId;
+        this.livro = livro;
+        this.ocorridoEm = ocorridoEm;
+    }
+
+    // Getters e Setters
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(Tipo tipo) {
+        this.tipo = tipo;
+    }
+
+    public Long getLivroId() {
+        return livroId;
+    }
+
+    public void setLivroId(Long livroId) {
+        this.livroId = livroId;
+    }
+
+    public BookResponseDTO getLivro() {
+        return livro;
+    }
+
+    public void setLivro(BookResponseDTO livro) {
+        this.livro = livro;
+    }
+
+    public LocalDateTime getOcorridoEm() {
+        return ocorridoEm;
+    }
+
+    public void setOcorridoEm(LocalDateTime ocorridoEm) {
+        this.ocorridoEm = ocorridoEm;
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.sistema.livros.dto;
+
+import java.util.List;
+
+public class BookChangePageDTO {
+
+    private List<BookChangeDTO> alteracoes;
+
+    // Seq da última alteração entregue (ou o próprio "since", sem novidades): o "since" da próxima chamada
+    private Long ultimo;
+
+    // true quando a página encheu e já há mais alterações para buscar
+    private boolean temMais;
+
+    // Construtor vazio
+    public BookChangePageDTO() {
+    }
+
+    // Construtor completo
+    public BookChangePageDTO(List<BookChangeDTO> alteracoes, Long ultimo, boolean temMais) {
+        this.alteracoes = alteracoes;
+        this.ultimo = ultimo;
+        this.temMais = temMais;
+    }
+
+    // Getters e Setters
+    public List<BookChangeDTO> getAlteracoes() {
+        return alteracoes;
+    }
+
+    public void setAlteracoes(List<BookChangeDTO> alteracoes) {
+        this.alteracoes = alteracoes;
+    }
+
+    public Long getUltimo() {
+        return ultimo;
+    }
+
+    public void setUltimo(Long ultimo) {
+        this.ultimo = ultimo;
+    }
+
+    public boolean isTemMais() {
+        return temMais;
+    }
+
+    public void setTemMais(boolean temMais) {
+        this.temMais = temMais;
+    }
+}
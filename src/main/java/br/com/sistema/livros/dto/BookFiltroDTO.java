@@ -0,0 +1,80 @@
+package br.com.sistema.livros.dto;
+
+import java.time.LocalDate;
+
+public class BookFiltroDTO {
+
+    // Filtros da listagem; os ausentes (null) não restringem nada
+    private String autor;
+    private LocalDate publicadoDe;
+    private LocalDate publicadoAte;
+    private String isbnPrefixo;
+
+    // Campo (id, titulo, autor ou publicadoEm) e direção (asc ou desc) da ordenação; padrão: id, asc
+    private String ordenarPor;
+    private String direcao;
+
+    // Construtor vazio
+    public BookFiltroDTO() {
+    }
+
+    // Construtor completo
+    public BookFiltroDTO(String autor, LocalDate publicadoDe, LocalDate publicadoAte, String isbnPrefixo,
+            String ordenarPor, String direcao) {
+        this.autor = autor;
+        this.publicadoDe = publicadoDe;
+        this.publicadoAte = publicadoAte;
+        this.isbnPrefixo = isbnPrefixo;
+        this.ordenarPor = ordenarPor;
+        this.direcao = direcao;
+    }
+
+    // Getters e Setters
+    public String getAutor() {
+        return autor;
+    }
+
+    public void setAutor(String autor) {
+        this.autor = autor;
+    }
+
+    public LocalDate getPublicadoDe() {
+        return publicadoDe;
+    }
+
+    public void setPublicadoDe(LocalDate publicadoDe) {
+        this.publicadoDe = publicadoDe;
+    }
+
+    public LocalDate getPublicadoAte() {
+        return publicadoAte;
+    }
+
+    public void setPublicadoAte(LocalDate publicadoAte) {
+        this.publicadoAte = publicadoAte;
+    }
+
+    public String getIsbnPrefixo() {
+        return isbnPrefixo;
+    }
+
+    public void setIsbnPrefixo(String isbnPrefixo) {
+        this.isbnPrefixo = isbnPrefixo;
+    }
+
+    public String getOrdenarPor() {
+        return ordenarPor;
+    }
+
+    public void setOrdenarPor(String ordenarPor) {
+        this.ordenarPor = ordenarPor;
+    }
+
+    public String getDirecao() {
+        return direcao;
+    }
+
+    public void setDirecao(String direcao) {
+        this.direcao = direcao;
+    }
+}
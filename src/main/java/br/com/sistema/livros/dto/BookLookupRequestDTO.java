@@ -0,0 +1,37 @@
+package br.com.sistema.livros.dto;
+
+import java.util.List;
+
+public class BookLookupRequestDTO {
+
+    // IDs e/ou ISBNs a resolver; qualquer uma das listas pode faltar
+    private List<Long> ids;
+    private List<String> isbns;
+
+    // Construtor vazio
+    public BookLookupRequestDTO() {
+    }
+
+    // Construtor completo
+    public BookLookupRequestDTO(List<Long> ids, List<String> isbns) {
+        this.ids = ids;
+        this.isbns = isbns;
+    }
+
+    // Getters e Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getIsbns() {
+        return isbns;
+    }
+
+    public void setIsbns(List<String> isbns) {
+        this.isbns = isbns;
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.sistema.livros.dto;
+
+public class BookLookupResultDTO {
+
+    // Lista da requisição de onde veio a chave
+    public enum Tipo {
+        ID,
+        ISBN
+    }
+
+    public enum Status {
+        ENCONTRADO,
+        NAO_ENCONTRADO
+    }
+
+    private Tipo tipo;
+
+    // ID ou ISBN exatamente como pedido
+    private String chave;
+
+    private Status status;
+
+    // Livro encontrado (null quando NAO_ENCONTRADO)
+    private BookResponseDTO livro;
+
+    // Construtor vazio
+    public BookLookupResultDTO() {
+    }
+
+    // Construtor completo
+    public BookLookupResultDTO(Tipo tipo, String chave, Status status, BookResponseDTO livro) {
+        this.tipo = tipo;
+        this.chave = chave;
+        this.status = status;
+        this.livro = livro;
+    }
+
+    // Getters e Setters
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(Tipo tipo) {
+        this.tipo = tipo;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    public void setChave(String chave) {
+        this.chave = chave;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public BookResponseDTO getLivro() {
+        return livro;
+    }
+
+    public void setLivro(BookResponseDTO livro) {
+        this.livro = livro;
+    }
+}
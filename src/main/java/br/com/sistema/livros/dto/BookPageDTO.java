@@ -0,0 +1,38 @@
+package br.com.sistema.livros.dto;
+
+import java.util.List;
+
+public class BookPageDTO {
+
+    private List<BookResponseDTO> conteudo;
+
+    // Cursor opaco para a próxima página (null quando esta é a última)
+    private String proximo;
+
+    // Construtor vazio
+    public BookPageDTO() {
+    }
+
+    // Construtor completo
+    public BookPageDTO(List<BookResponseDTO> conteudo, String proximo) {
+        this.conteudo = conteudo;
+        this.proximo = proximo;
+    }
+
+    // Getters e Setters
+    public List<BookResponseDTO> getConteudo() {
+        return conteudo;
+    }
+
+    public void setConteudo(List<BookResponseDTO> conteudo) {
+        this.conteudo = conteudo;
+    }
+
+    public String getProximo() {
+        return proximo;
+    }
+
+    public void setProximo(String proximo) {
+        this.proximo = proximo;
+    }
+}
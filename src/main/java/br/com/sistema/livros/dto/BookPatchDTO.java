@@ -0,0 +1,75 @@
+package br.com.sistema.livros.dto;
+
+import java.time.LocalDate;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+// Atualização parcial (PATCH): só os campos informados são alterados; campos ausentes ou nulos ficam como estão
+public class BookPatchDTO {
+
+    @Size(min = 3, max = 100, message = "Título deve ter entre 3 e 100 caracteres")
+    @Pattern(regexp = ".*\\S.*", message = "Título não pode ficar em branco")
+    private String titulo;
+
+    @Size(min = 3, max = 100, message = "Autor deve ter entre 3 e 100 caracteres")
+    @Pattern(regexp = ".*\\S.*", message = "Autor não pode ficar em branco")
+    private String autor;
+
+    @Size(min = 10, max = 17, message = "ISBN deve ter entre 10 e 17 caracteres")
+    @Pattern(regexp = ".*\\S.*", message = "ISBN não pode ficar em branco")
+    private String isbn;
+
+    private LocalDate publicadoEm;
+
+    // Construtor vazio
+    public BookPatchDTO() {
+    }
+
+    // Construtor completo
+    public BookPatchDTO(String titulo, String autor, String isbn, LocalDate publicadoEm) {
+        this.titulo = titulo;
+        this.autor = autor;
+        this.isbn = isbn;
+        this.publicadoEm = publicadoEm;
+    }
+
+    // Nenhum campo informado
+    @JsonIgnore
+    public boolean isVazio() {
+        return titulo == null && autor == null && isbn == null && publicadoEm == null;
+    }
+
+    // Getters e Setters
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getAutor() {
+        return autor;
+    }
+
+    public void setAutor(String autor) {
+        this.autor = autor;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public void setIsbn(String isbn) {
+        this.isbn = isbn;
+    }
+
+    public LocalDate getPublicadoEm() {
+        return publicadoEm;
+    }
+
+    public void setPublicadoEm(LocalDate publicadoEm) {
+        this.publicadoEm = publicadoEm;
+    }
+}
@@ -1,6 +1,8 @@
 package br.com.sistema.livros.dto;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 public class BookResponseDTO {
 
@@ -10,6 +12,13 @@ public class BookResponseDTO {
     private String isbn;
     private LocalDate publicadoEm;
 
+    // Usados apenas nos headers ETag / Last-Modified, não fazem parte do JSON
+    @JsonIgnore
+    private Long versao;
+
+    @JsonIgnore
+    private LocalDateTime atualizadoEm;
+
     // Construtor vazio
     public BookResponseDTO() {
     }
@@ -23,6 +32,14 @@ public class BookResponseDTO {
         this.publicadoEm = publicadoEm;
     }
 
+    // Construtor da projeção (consultas JPQL em BookRepository): o DTO sai direto do ResultSet, sem entidade
+    public BookResponseDTO(Long id, String titulo, String autor, String isbn, LocalDate publicadoEm,
+            Long versao, LocalDateTime atualizadoEm) {
+        this(id, titulo, autor, isbn, publicadoEm);
+        this.versao = versao;
+        this.atualizadoEm = atualizadoEm;
+    }
+
     // Getters e Setters
     public Long getId() {
         return id;
@@ -63,4 +80,20 @@ public class BookResponseDTO {
     public void setPublicadoEm(LocalDate publicadoEm) {
         this.publicadoEm = publicadoEm;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public LocalDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public void setAtualizadoEm(LocalDateTime atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
 }
\ No newline at end of file
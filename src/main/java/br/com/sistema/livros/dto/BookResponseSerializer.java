@@ -0,0 +1,84 @@
+package br.com.sistema.livros.dto;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Serializador escrito à mão do BookResponseDTO, registrado pelo JsonConfig (livros.json.serializador-dedicado).
+ *
+ * Gera exatamente o mesmo JSON do serializador por reflexão do Jackson com a configuração do Boot
+ * (mesma ordem de campos, nulls incluídos, data ISO yyyy-MM-dd, ou [ano,mês,dia] se WRITE_DATES_AS_TIMESTAMPS
+ * estiver ligado), mas sem introspecção nem
+ * JavaTimeModule: os nomes dos campos já vêm codificados e a data é montada direto num char[].
+ * Um campo novo no DTO precisa entrar aqui também (o BookResponseSerializerTest compara as duas saídas).
+ */
+public class BookResponseSerializer extends StdSerializer<BookResponseDTO> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITULO = new SerializedString("titulo");
+    private static final SerializableString AUTOR = new SerializedString("autor");
+    private static final SerializableString ISBN = new SerializedString("isbn");
+    private static final SerializableString PUBLICADO_EM = new SerializedString("publicadoEm");
+
+    public BookResponseSerializer() {
+        super(BookResponseDTO.class);
+    }
+
+    @Override
+    public void serialize(BookResponseDTO livro, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(livro);
+
+        generator.writeFieldName(ID);
+        if (livro.getId() != null) {
+            generator.writeNumber(livro.getId());
+        } else {
+            generator.writeNull();
+        }
+        generator.writeFieldName(TITULO);
+        generator.writeString(livro.getTitulo());
+        generator.writeFieldName(AUTOR);
+        generator.writeString(livro.getAutor());
+        generator.writeFieldName(ISBN);
+        generator.writeString(livro.getIsbn());
+        generator.writeFieldName(PUBLICADO_EM);
+        if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            provider.defaultSerializeValue(livro.getPublicadoEm(), generator); // [ano,mês,dia], como o JavaTimeModule
+        } else {
+            escreverData(generator, livro.getPublicadoEm());
+        }
+
+        generator.writeEndObject();
+    }
+
+    // Mesmo texto do DateTimeFormatter.ISO_LOCAL_DATE, sem passar pelo formatter nos anos de 4 dígitos
+    private static void escreverData(JsonGenerator generator, LocalDate data) throws IOException {
+        if (data == null) {
+            generator.writeNull();
+            return;
+        }
+        int ano = data.getYear();
+        if (ano < 0 || ano > 9999) {
+            generator.writeString(data.toString());
+            return;
+        }
+        char[] texto = new char[10];
+        doisDigitos(texto, 0, ano / 100);
+        doisDigitos(texto, 2, ano % 100);
+        texto[4] = '-';
+        doisDigitos(texto, 5, data.getMonthValue());
+        texto[7] = '-';
+        doisDigitos(texto, 8, data.getDayOfMonth());
+        generator.writeString(texto, 0, texto.length);
+    }
+
+    private static void doisDigitos(char[] destino, int posicao, int valor) {
+        destino[posicao] = (char) ('0' + valor / 10);
+        destino[posicao + 1] = (char) ('0' + valor % 10);
+    }
+}
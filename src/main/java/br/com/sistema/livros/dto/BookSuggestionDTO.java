@@ -0,0 +1,50 @@
+package br.com.sistema.livros.dto;
+
+public class BookSuggestionDTO {
+
+    // Campo do livro de onde veio a sugestão
+    public enum Campo {
+        TITULO,
+        AUTOR
+    }
+
+    private String texto;
+    private Campo campo;
+    private int livros;
+
+    // Construtor vazio
+    public BookSuggestionDTO() {
+    }
+
+    // Construtor completo
+    public BookSuggestionDTO(String texto, Campo campo, int livros) {
+        this.texto = texto;
+        this.campo = campo;
+        this.livros = livros;
+    }
+
+    // Getters e Setters
+    public String getTexto() {
+        return texto;
+    }
+
+    public void setTexto(String texto) {
+        this.texto = texto;
+    }
+
+    public Campo getCampo() {
+        return campo;
+    }
+
+    public void setCampo(Campo campo) {
+        this.campo = campo;
+    }
+
+    public int getLivros() {
+        return livros;
+    }
+
+    public void setLivros(int livros) {
+        this.livros = livros;
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.sistema.livros.dto;
+
+import java.time.LocalDateTime;
+
+// Apenas o necessário para responder requisições condicionais (ETag / Last-Modified)
+public class BookVersionDTO {
+
+    private Long versao;
+    private LocalDateTime atualizadoEm;
+
+    // Construtor vazio
+    public BookVersionDTO() {
+    }
+
+    // Construtor completo (usado pela consulta JPQL em BookRepository)
+    public BookVersionDTO(Long versao, LocalDateTime atualizadoEm) {
+        this.versao = versao;
+        this.atualizadoEm = atualizadoEm;
+    }
+
+    // Getters e Setters
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public LocalDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public void setAtualizadoEm(LocalDateTime atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.sistema.livros.exception;
+
+// Lançada quando o recurso pedido existiu mas não está mais disponível (ex.: alterações fora da retenção do feed)
+public class GoneException extends RuntimeException {
+	public GoneException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.sistema.livros.exception;
+
+// Lançada quando o If-Match enviado pelo cliente não corresponde à versão atual do recurso
+public class PreconditionFailedException extends RuntimeException {
+	public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
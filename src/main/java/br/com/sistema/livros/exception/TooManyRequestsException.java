@@ -0,0 +1,17 @@
+package br.com.sistema.livros.exception;
+
+// Lançada quando a aplicação não tem capacidade para aceitar a requisição agora (ex.: fila cheia)
+public class TooManyRequestsException extends RuntimeException {
+
+    // Segundos sugeridos ao cliente antes de tentar de novo (header Retry-After)
+    private final long retryAfter;
+
+    public TooManyRequestsException(String message, long retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public long getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -32,12 +32,17 @@ public class BookMapper {
             return null;
         }
 
-        return new BookResponseDTO(
+        BookResponseDTO dto = new BookResponseDTO(
             book.getId(),
             book.getTitulo(),
             book.getAutor(),
             book.getIsbn(),
             book.getPublicadoEm()
         );
+
+        // Linhas antigas não têm updated_at: a data de criação vale como última alteração
+        dto.setVersao(book.getVersao());
+        dto.setAtualizadoEm(book.getAtualizadoEm() != null ? book.getAtualizadoEm() : book.getCriadoEm());
+        return dto;
     }
 }
\ No newline at end of file
@@ -1,19 +1,30 @@
 package br.com.sistema.livros.model;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
+// Região "books" do cache de segundo nível (cache-l2.conf), usada só com LIVROS_CACHE_L2=true (READ_WRITE: o cache acompanha os commits)
 @Entity
 @Table(name = "books")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
 public class Book {
 
+	// Sequência com allocationSize 50 (otimizador pooled): evita um round trip por INSERT e permite batch JDBC
 	@Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 200)
@@ -28,6 +39,19 @@ public class Book {
     @Column(name = "publicado_em")
     private LocalDate publicadoEm;
 
+    // Incrementada a cada UPDATE (controle de concorrência otimista e ETag)
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long versao;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime criadoEm;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime atualizadoEm;
+
     // Construtor vazio (obrigatório para JPA)
     public Book() {
     }
@@ -80,4 +104,28 @@ public class Book {
     public void setPublicadoEm(LocalDate publicadoEm) {
         this.publicadoEm = publicadoEm;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public LocalDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public void setCriadoEm(LocalDateTime criadoEm) {
+        this.criadoEm = criadoEm;
+    }
+
+    public LocalDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public void setAtualizadoEm(LocalDateTime atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
 }
\ No newline at end of file
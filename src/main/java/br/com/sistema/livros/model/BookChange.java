@@ -0,0 +1,142 @@
+package br.com.sistema.livros.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Linha do outbox de alterações (tabela book_changes): gravada em batch pelo BookChangeRepository, lida pelo feed
+@Entity
+@Table(name = "book_changes")
+public class BookChange {
+
+    public enum Tipo {
+        CRIADO,
+        ATUALIZADO,
+        REMOVIDO
+    }
+
+    // Posição no feed, atribuída pelo banco (IDENTITY) no INSERT
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Tipo tipo;
+
+    @Column(name = "livro_id", nullable = false)
+    private Long livroId;
+
+    // Estado do livro depois da alteração; na remoção, como ele estava antes de ser removido
+    @Column(length = 200)
+    private String titulo;
+
+    @Column(length = 100)
+    private String autor;
+
+    @Column(length = 20)
+    private String isbn;
+
+    @Column(name = "publicado_em")
+    private LocalDate publicadoEm;
+
+    private Long versao;
+
+    @Column(name = "ocorrido_em", nullable = false)
+    private LocalDateTime ocorridoEm;
+
+    // Construtor vazio (obrigatório para JPA)
+    public BookChange() {
+    }
+
+    // Construtor completo (sem seq, que vem do banco)
+    public BookChange(Tipo tipo, Long livroId, String titulo, String autor, String isbn, LocalDate publicadoEm, Long versao) {
+        this.tipo = tipo;
+        this.livroId = livroId;
+        this.titulo = titulo;
+        this.autor = autor;
+        this.isbn = isbn;
+        this.publicadoEm = publicadoEm;
+        this.versao = versao;
+    }
+
+    // Getters e Setters
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(Tipo tipo) {
+        this.tipo = tipo;
+    }
+
+    public Long getLivroId() {
+        return livroId;
+    }
+
+    public void setLivroId(Long livroId) {
+        this.livroId = livroId;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getAutor() {
+        return autor;
+    }
+
+    public void setAutor(String autor) {
+        this.autor = autor;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public void setIsbn(String isbn) {
+        this.isbn = isbn;
+    }
+
+    public LocalDate getPublicadoEm() {
+        return publicadoEm;
+    }
+
+    public void setPublicadoEm(LocalDate publicadoEm) {
+        this.publicadoEm = publicadoEm;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public LocalDateTime getOcorridoEm() {
+        return ocorridoEm;
+    }
+
+    public void setOcorridoEm(LocalDateTime ocorridoEm) {
+        this.ocorridoEm = ocorridoEm;
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.sistema.livros.repository;
+
+import java.util.List;
+import br.com.sistema.livros.model.BookChange;
+
+// Fragmento do BookChangeRepository com a gravação do outbox em batch JDBC
+public interface BookChangeGravacaoRepository {
+
+    // Insere as alterações na transação corrente, com um único batch JDBC (o seq é atribuído pelo banco)
+    void registrar(List<BookChange> alteracoes);
+}
@@ -0,0 +1,63 @@
+package br.com.sistema.livros.repository;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import br.com.sistema.livros.model.BookChange;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * INSERTs do outbox pelo JdbcTemplate: com IDENTITY o Hibernate faria um INSERT por linha (precisa do ID
+ * de volta para gerenciar a entidade), e aqui ninguém usa a entidade depois de gravada. O JdbcTemplate
+ * usa a mesma conexão da transação JPA corrente.
+ *
+ * O ocorrido_em vem do relógio do banco, o mesmo que o feed usa para o atraso de visibilidade: instâncias com
+ * relógios diferentes não desordenam o feed. No PostgreSQL é o início do INSERT (statement_timestamp), não o da
+ * transação (CURRENT_TIMESTAMP), que num lote longo ficaria muito antes do seq atribuído no beforeCommit.
+ */
+class BookChangeGravacaoRepositoryImpl implements BookChangeGravacaoRepository {
+
+    private static final String INSERT = "INSERT INTO book_changes "
+            + "(tipo, livro_id, titulo, autor, isbn, publicado_em, versao, ocorrido_em) VALUES (?, ?, ?, ?, ?, ?, ?, %s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile String insert;
+
+    BookChangeGravacaoRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void registrar(List<BookChange> alteracoes) {
+        jdbcTemplate.batchUpdate(insert(), alteracoes, alteracoes.size(), (statement, alteracao) -> {
+            statement.setString(1, alteracao.getTipo().name());
+            statement.setLong(2, alteracao.getLivroId());
+            statement.setString(3, alteracao.getTitulo());
+            statement.setString(4, alteracao.getAutor());
+            statement.setString(5, alteracao.getIsbn());
+            if (alteracao.getPublicadoEm() != null) {
+                statement.setDate(6, Date.valueOf(alteracao.getPublicadoEm()));
+            } else {
+                statement.setNull(6, Types.DATE);
+            }
+            if (alteracao.getVersao() != null) {
+                statement.setLong(7, alteracao.getVersao());
+            } else {
+                statement.setNull(7, Types.BIGINT);
+            }
+        });
+    }
+
+    private String insert() {
+        if (insert == null) {
+            insert = INSERT.formatted(Dialetos.isPostgresql(entityManager) ? "CAST(statement_timestamp() AS TIMESTAMP)" : "LOCALTIMESTAMP");
+        }
+        return insert;
+    }
+}
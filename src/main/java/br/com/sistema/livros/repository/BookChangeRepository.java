@@ -0,0 +1,38 @@
+package br.com.sistema.livros.repository;
+
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import br.com.sistema.livros.model.BookChange;
+
+@Repository
+public interface BookChangeRepository extends JpaRepository<BookChange, Long>, BookChangeGravacaoRepository {
+
+    // Próximas alterações do feed, em ordem de seq (índice da PK, custo proporcional ao tamanho da página)
+    List<BookChange> findBySeqGreaterThanOrderBySeqAsc(Long seq, Limit limit);
+
+    // Como a anterior, mas para antes da primeira alteração mais nova que o atraso, pelo relógio do banco (o
+    // mesmo que gravou ocorrido_em; atraso em segundos). A subconsulta lê só as alterações recentes, pelo
+    // índice de ocorrido_em
+    @Query("select c from BookChange c where c.seq > :seq and c.seq < coalesce((select min(r.seq) from BookChange r "
+            + "where r.seq > :seq and r.ocorridoEm > local datetime - (:atraso) second), c.seq + 1) order by c.seq")
+    List<BookChange> findVisiveisDepoisDe(Long seq, double atraso, Limit limit);
+
+    // Posição atual do feed: a última alteração antes da primeira ainda recente (percorre a PK a partir do fim)
+    @Query("select c.seq from BookChange c where c.seq < coalesce((select min(r.seq) from BookChange r "
+            + "where r.ocorridoEm > local datetime - (:atraso) second), c.seq + 1) order by c.seq desc")
+    List<Long> findUltimaSeqVisivel(double atraso, Limit limit);
+
+    // Primeira posição ainda retida (null com a tabela vazia)
+    @Query("select min(c.seq) from BookChange c")
+    Long findPrimeiraSeq();
+
+    // Remove as alterações mais antigas que a retenção (relógio do banco, em segundos), exceto a última: ela
+    // marca até onde o feed já chegou
+    @Modifying
+    @Query("delete from BookChange c where c.ocorridoEm < local datetime - (:retencao) second and c.seq < (select max(u.seq) from BookChange u)")
+    int removerAnterioresA(double retencao);
+}
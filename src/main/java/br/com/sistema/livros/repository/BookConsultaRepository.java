@@ -0,0 +1,15 @@
+package br.com.sistema.livros.repository;
+
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.model.Book;
+
+// Fragmento do BookRepository com a listagem filtrada (Specifications de BookSpecifications)
+public interface BookConsultaRepository {
+
+    // Mesma projeção de resposta das consultas do BookRepository, com filtro, ordem e limite montados na chamada
+    List<BookResponseDTO> findResponses(Specification<Book> filtro, Sort ordem, Limit limite);
+}
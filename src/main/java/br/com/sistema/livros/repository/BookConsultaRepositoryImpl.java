@@ -0,0 +1,50 @@
+package br.com.sistema.livros.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.model.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Implementação da listagem filtrada com a Criteria API.
+ * O JpaSpecificationExecutor devolveria entidades gerenciadas; aqui a Specification entra numa consulta que
+ * monta o BookResponseDTO direto do ResultSet (como PROJECAO_RESPOSTA), e a página sai dos índices com INCLUDE.
+ */
+class BookConsultaRepositoryImpl implements BookConsultaRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookResponseDTO> findResponses(Specification<Book> filtro, Sort ordem, Limit limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookResponseDTO> query = cb.createQuery(BookResponseDTO.class);
+        Root<Book> book = query.from(Book.class);
+        query.select(cb.construct(BookResponseDTO.class,
+                book.get("id"), book.get("titulo"), book.get("autor"), book.get("isbn"), book.get("publicadoEm"),
+                book.get("versao"), cb.coalesce(book.<LocalDateTime>get("atualizadoEm"), book.<LocalDateTime>get("criadoEm"))));
+
+        Predicate predicado = filtro.toPredicate(book, query, cb);
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        query.orderBy(QueryUtils.toOrders(ordem, book, cb));
+
+        TypedQuery<BookResponseDTO> consulta = entityManager.createQuery(query);
+        if (limite.isLimited()) {
+            consulta.setMaxResults(limite.max());
+        }
+        return consulta.getResultList();
+    }
+}
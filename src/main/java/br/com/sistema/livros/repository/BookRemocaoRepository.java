@@ -0,0 +1,12 @@
+package br.com.sistema.livros.repository;
+
+import java.util.Optional;
+import br.com.sistema.livros.model.Book;
+
+// Fragmento do BookRepository com a exclusão em um único comando (SQL nativo específico de cada banco)
+public interface BookRemocaoRepository {
+
+    // Exclui o livro (só se estiver na versão esperada, quando não for nula) e devolve como ele estava;
+    // vazio quando nenhuma linha foi excluída
+    Optional<Book> removerRetornando(Long id, Long versaoEsperada);
+}
@@ -0,0 +1,63 @@
+package br.com.sistema.livros.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.query.NativeQuery;
+import br.com.sistema.livros.model.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+/**
+ * Exclusão com um único round trip, devolvendo a linha removida (usada no BookChangedEvent).
+ * No PostgreSQL usa DELETE ... RETURNING; no H2, SELECT ... FROM OLD TABLE (DELETE ...).
+ */
+class BookRemocaoRepositoryImpl implements BookRemocaoRepository {
+
+    private static final String COLUNAS = "id, titulo, autor, isbn, publicado_em, version, created_at, updated_at";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgresql;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Book> removerRetornando(Long id, Long versaoEsperada) {
+        String delete = "DELETE FROM books WHERE id = :id" + (versaoEsperada != null ? " AND version = :versao" : "");
+        String sql = isPostgresql()
+                ? delete + " RETURNING " + COLUNAS
+                : "SELECT " + COLUNAS + " FROM OLD TABLE (" + delete + ")";
+
+        Query query = entityManager.createNativeQuery(sql, Book.class).setParameter("id", id);
+        if (versaoEsperada != null) {
+            query.setParameter("versao", versaoEsperada);
+        }
+        // Altera a tabela de Book: pendências de Book no contexto vão ao banco antes (e caches de consulta são invalidados)
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(Book.class);
+
+        List<Book> removidos = query.getResultList();
+        if (removidos.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // O Hibernate não sabe que a consulta removeu uma linha: como num DELETE nativo por executeUpdate, agenda a
+        // invalidação da região de Book e dos resultados de consultas sobre books no cache de segundo nível
+        BulkOperationCleanupAction.schedule(entityManager.unwrap(SharedSessionContractImplementor.class), Set.of("books"));
+
+        // A linha não existe mais: a entidade não pode continuar gerenciada pelo contexto de persistência
+        Book removido = removidos.get(0);
+        entityManager.detach(removido);
+        return Optional.of(removido);
+    }
+
+    private boolean isPostgresql() {
+        if (postgresql == null) {
+            postgresql = Dialetos.isPostgresql(entityManager);
+        }
+        return postgresql;
+    }
+}
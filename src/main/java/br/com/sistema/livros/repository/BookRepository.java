@@ -1,17 +1,70 @@
 package br.com.sistema.livros.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.dto.BookVersionDTO;
 import br.com.sistema.livros.model.Book;
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookSearchRepository, BookRemocaoRepository, BookConsultaRepository {
 
 	// Método customizado para buscar por ISBN
     Optional<Book> findByIsbn(String isbn);
-    
+
     // Método para verificar se existe livro com determinado ISBN
     boolean existsByIsbn(String isbn);
-	
+
+    // Verificação de ISBN em conjunto: uma consulta para vários ISBNs (cadastro em lote, depois do filtro de ISBNs)
+    // (cacheável: com o cache de segundo nível ligado, o mesmo lote reenviado não volta ao banco até a próxima escrita em books)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select b.isbn from Book b where b.isbn in :isbns")
+    List<String> findIsbnsExistentes(Collection<String> isbns);
+
+    // Versão e data da última alteração (requisições condicionais), sem carregar a entidade
+    @Query("select new br.com.sistema.livros.dto.BookVersionDTO(b.versao, coalesce(b.atualizadoEm, b.criadoEm)) "
+            + "from Book b where b.id = :id")
+    Optional<BookVersionDTO> findVersaoById(Long id);
+
+    // Projeções de leitura: o DTO de resposta é montado direto do ResultSet, sem entidade gerenciada
+    // (sem snapshot para dirty checking e sem passar pelo BookMapper)
+    String PROJECAO_RESPOSTA = "select new br.com.sistema.livros.dto.BookResponseDTO("
+            + "b.id, b.titulo, b.autor, b.isbn, b.publicadoEm, b.versao, coalesce(b.atualizadoEm, b.criadoEm)) from Book b ";
+
+    @Query(PROJECAO_RESPOSTA + "where b.id = :id")
+    Optional<BookResponseDTO> findResponseById(Long id);
+
+    // Consulta em lote (POST /lookup): um IN por tipo de chave; com in_clause_parameter_padding a quantidade de
+    // parâmetros é arredondada para potência de 2, e poucos formatos de SQL se repetem nos caches de plano
+    @Query(PROJECAO_RESPOSTA + "where b.id in :ids")
+    List<BookResponseDTO> findResponsesByIdIn(Collection<Long> ids);
+
+    // (cacheável, como findIsbnsExistentes: ISBNs consultados de novo entre duas escritas não voltam ao banco)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(PROJECAO_RESPOSTA + "where b.isbn in :isbns")
+    List<BookResponseDTO> findResponsesByIsbnIn(Collection<String> isbns);
+
+    // Paginação por cursor (keyset): usa o índice da PK, custo proporcional ao tamanho da página
+    @Query(PROJECAO_RESPOSTA + "where b.id > :id order by b.id")
+    List<BookResponseDTO> findResponsesAPartirDe(Long id, Limit limit);
+
+    // Percorre a tabela inteira com cursor no servidor (fetch size limitado) - exige transação aberta
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select b from Book b order by b.id")
+    Stream<Book> streamTodos();
+
+    // Só os ISBNs, com o mesmo cursor no servidor (carga do filtro de ISBNs) - exige transação aberta
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b.isbn from Book b where b.isbn is not null")
+    Stream<String> streamIsbns();
+
 }
@@ -0,0 +1,11 @@
+package br.com.sistema.livros.repository;
+
+import java.util.List;
+import br.com.sistema.livros.model.Book;
+
+// Fragmento do BookRepository com a busca textual (SQL nativo específico de cada banco)
+public interface BookSearchRepository {
+
+    // Livros cujo título ou autor contém todos os termos (já normalizados), os mais relevantes primeiro
+    List<Book> buscarPorTermos(List<String> termos, int limite);
+}
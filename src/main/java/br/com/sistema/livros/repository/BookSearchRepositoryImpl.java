@@ -0,0 +1,71 @@
+package br.com.sistema.livros.repository;
+
+import java.util.List;
+import br.com.sistema.livros.model.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+/**
+ * Implementação da busca textual.
+ * No PostgreSQL usa a expressão livros_busca(titulo, autor) com índice GIN (migrações V5 e V5_1), com ranking por ts_rank.
+ * Nos demais bancos (H2 em dev) usa a coluna "busca" normalizada com LIKE por termo.
+ */
+class BookSearchRepositoryImpl implements BookSearchRepository {
+
+    private static final String COLUNAS = "b.id, b.titulo, b.autor, b.isbn, b.publicado_em, b.version, b.created_at, b.updated_at";
+
+    private static final String BUSCA_POSTGRESQL = "SELECT " + COLUNAS + " FROM books b "
+            + "WHERE livros_busca(b.titulo, b.autor) @@ to_tsquery('simple', :consulta) "
+            + "ORDER BY ts_rank(livros_busca(b.titulo, b.autor), to_tsquery('simple', :consulta)) DESC, b.id "
+            + "LIMIT :limite";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgresql;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Book> buscarPorTermos(List<String> termos, int limite) {
+        if (termos.isEmpty()) {
+            return List.of();
+        }
+
+        Query query = isPostgresql() ? consultaPostgresql(termos) : consultaGenerica(termos);
+        query.setParameter("limite", limite);
+        return query.getResultList();
+    }
+
+    // Cada termo vira um prefixo: "sert" encontra "sertao". Os termos já chegam só com letras e números.
+    private Query consultaPostgresql(List<String> termos) {
+        String consulta = String.join(" & ", termos.stream().map(termo -> termo + ":*").toList());
+        return entityManager.createNativeQuery(BUSCA_POSTGRESQL, Book.class)
+                .setParameter("consulta", consulta);
+    }
+
+    // Sem índice textual: um LIKE por termo; livros em que o termo aparece antes (no título) vêm primeiro
+    private Query consultaGenerica(List<String> termos) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUNAS).append(" FROM books b WHERE ");
+        for (int i = 0; i < termos.size(); i++) {
+            if (i > 0) {
+                sql.append(" AND ");
+            }
+            sql.append("b.busca LIKE :termo").append(i);
+        }
+        sql.append(" ORDER BY LOCATE(:primeiro, b.busca), b.id LIMIT :limite");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Book.class);
+        for (int i = 0; i < termos.size(); i++) {
+            query.setParameter("termo" + i, "%" + termos.get(i) + "%");
+        }
+        return query.setParameter("primeiro", termos.get(0));
+    }
+
+    private boolean isPostgresql() {
+        if (postgresql == null) {
+            postgresql = Dialetos.isPostgresql(entityManager);
+        }
+        return postgresql;
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.sistema.livros.repository;
+
+import java.time.LocalDate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import br.com.sistema.livros.model.Book;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Filtros da listagem como Specifications, combinados conforme os parâmetros recebidos e executados por
+ * BookConsultaRepository. Cada filtro tem índice: autor e publicado_em os da V7 (que também servem à
+ * ordenação por autor, título e data), o prefixo de ISBN o índice único ou, no PostgreSQL, o da V8.
+ */
+public final class BookSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> doAutor(String autor) {
+        return (book, query, cb) -> cb.equal(book.get("autor"), autor);
+    }
+
+    // Faixa de publicação com as duas pontas inclusivas
+    public static Specification<Book> publicadosDesde(LocalDate data) {
+        return (book, query, cb) -> cb.greaterThanOrEqualTo(book.get("publicadoEm"), data);
+    }
+
+    public static Specification<Book> publicadosAte(LocalDate data) {
+        return (book, query, cb) -> cb.lessThanOrEqualTo(book.get("publicadoEm"), data);
+    }
+
+    public static Specification<Book> comDataDePublicacao() {
+        return (book, query, cb) -> cb.isNotNull(book.get("publicadoEm"));
+    }
+
+    // LIKE 'prefixo%': % e _ digitados pelo cliente valem como texto, não como curinga
+    public static Specification<Book> comIsbnIniciadoPor(String prefixo) {
+        String literal = prefixo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return (book, query, cb) -> cb.like(book.get("isbn"), literal + "%", ESCAPE);
+    }
+
+    // Keyset: livros depois da posição (valor do campo, id) do último entregue, na ordem "campo, id" da direção
+    // informada. O >= (ou <=) redundante é o que o banco usa como início da leitura no índice; o OR só descarta
+    // os empates no valor já entregues
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static Specification<Book> depoisDe(String atributo, Sort.Direction direcao, Comparable valor, long ultimoId) {
+        return (book, query, cb) -> {
+            Path<Long> id = book.get("id");
+            Predicate depoisDoId = direcao.isAscending() ? cb.gt(id, ultimoId) : cb.lt(id, ultimoId);
+            if ("id".equals(atributo)) {
+                return depoisDoId;
+            }
+
+            Path<Comparable> campo = book.get(atributo);
+            return direcao.isAscending()
+                    ? cb.and(cb.greaterThanOrEqualTo(campo, valor), cb.or(cb.greaterThan(campo, valor), depoisDoId))
+                    : cb.and(cb.lessThanOrEqualTo(campo, valor), cb.or(cb.lessThan(campo, valor), depoisDoId));
+        };
+    }
+}
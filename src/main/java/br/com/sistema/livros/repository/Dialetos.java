@@ -0,0 +1,17 @@
+package br.com.sistema.livros.repository;
+
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import jakarta.persistence.EntityManager;
+
+// Identifica o banco em uso pelos fragmentos com SQL nativo específico de cada banco
+final class Dialetos {
+
+    private Dialetos() {
+    }
+
+    static boolean isPostgresql(EntityManager entityManager) {
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        return sessionFactory.getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+}
@@ -0,0 +1,258 @@
+package br.com.sistema.livros.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import br.com.sistema.livros.config.LivrosProperties;
+import br.com.sistema.livros.dto.BookAsyncStatusDTO;
+import br.com.sistema.livros.dto.BookAsyncStatusDTO.Status;
+import br.com.sistema.livros.dto.BookBatchResultDTO;
+import br.com.sistema.livros.dto.BookRequestDTO;
+import br.com.sistema.livros.exception.EntityNotFoundException;
+import br.com.sistema.livros.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cadastro assíncrono: o POST só entra numa fila limitada em memória e responde 202; um gravador
+ * (uma thread) junta os pedidos em lotes e grava cada lote numa transação pelo BookBatchService,
+ * com a mesma checagem de ISBN em conjunto e INSERTs em batch do cadastro em lote.
+ *
+ * Cada pedido é identificado pela Idempotency-Key do cliente: repetir a chave devolve o mesmo pedido
+ * em vez de enfileirar outro, então uma nova tentativa nunca grava o livro duas vezes. ISBNs repetidos
+ * entre chaves diferentes ficam com status DUPLICADO, como no lote. Fila e chaves vivem só na memória
+ * desta instância: pedidos ainda pendentes se perdem se a aplicação cair.
+ *
+ * Pedidos pendentes ficam num mapa limitado pela capacidade da fila e nunca são descartados antes de gravados;
+ * só o resultado de um pedido concluído vai para o cache limitado por maximo-chaves e retencao.
+ */
+@Service
+public class BookAsyncService implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BookAsyncService.class);
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    // Com a fila cheia, sugere ao cliente tentar de novo depois deste tempo (segundos)
+    private static final long RETRY_AFTER_FILA_CHEIA = 1;
+
+    private final BookBatchService batchService;
+    private final LivrosProperties.Fila properties;
+    private final BlockingQueue<Pedido> fila;
+    private final ConcurrentHashMap<String, Pedido> pendentes;
+    private final Cache<String, Pedido> concluidos;
+    private final ExecutorService gravador;
+    private final Counter rejeitados;
+    private final DistributionSummary tamanhoDosLotes;
+
+    private volatile boolean encerrando;
+
+    public BookAsyncService(BookBatchService batchService, LivrosProperties properties, MeterRegistry meterRegistry) {
+        this.batchService = batchService;
+        this.properties = properties.getFila();
+        this.fila = new ArrayBlockingQueue<>(this.properties.getCapacidade());
+        this.pendentes = new ConcurrentHashMap<>();
+        this.concluidos = Caffeine.newBuilder()
+                .expireAfterWrite(this.properties.getRetencao())
+                .maximumSize(this.properties.getMaximoChaves())
+                .build();
+        this.gravador = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("livros-fila-gravador").daemon().factory());
+
+        Gauge.builder("livros.fila.tamanho", fila, BlockingQueue::size)
+                .description("Pedidos de cadastro assíncrono aguardando gravação")
+                .register(meterRegistry);
+        this.rejeitados = Counter.builder("livros.fila.rejeitados")
+                .description("Pedidos recusados com 429 por fila cheia")
+                .register(meterRegistry);
+        this.tamanhoDosLotes = DistributionSummary.builder("livros.fila.lote")
+                .description("Livros gravados por transação pelo gravador da fila")
+                .register(meterRegistry);
+    }
+
+
+    // Enfileira o pedido da chave, ou devolve o pedido já existente se a chave se repetir com o mesmo livro
+    public BookAsyncStatusDTO enfileirar(String chave, BookRequestDTO request) {
+        validarChave(chave);
+
+        Pedido novo = new Pedido(chave, request);
+        Pedido existente = pendentes.putIfAbsent(chave, novo);
+        if (existente == null) {
+            // Um pedido concluído entra nos concluídos antes de sair dos pendentes: se a chave não estava
+            // pendente e já foi gravada, o resultado está aqui
+            existente = concluidos.getIfPresent(chave);
+            if (existente != null) {
+                pendentes.remove(chave, novo);
+            }
+        }
+        if (existente != null) {
+            if (!existente.mesmoLivro(request)) {
+                throw new IllegalArgumentException("Idempotency-Key já usada com outro livro: " + chave);
+            }
+            return existente.status;
+        }
+
+        if (encerrando || pendentes.size() > properties.getCapacidade() || !fila.offer(novo)) {
+            // A chave é liberada para o cliente poder repetir o mesmo pedido mais tarde
+            pendentes.remove(chave, novo);
+            rejeitados.increment();
+            throw new TooManyRequestsException("Fila de cadastro cheia, tente novamente em instantes", RETRY_AFTER_FILA_CHEIA);
+        }
+        return novo.status;
+    }
+
+    // Status atual do pedido da chave (pendentes antes: quem sai de lá já está nos concluídos)
+    public BookAsyncStatusDTO consultar(String chave) {
+        Pedido pedido = pendentes.get(chave);
+        if (pedido == null) {
+            pedido = concluidos.getIfPresent(chave);
+        }
+        if (pedido == null) {
+            throw new EntityNotFoundException("Pedido não encontrado para a Idempotency-Key: " + chave);
+        }
+        return pedido.status;
+    }
+
+    private void validarChave(String chave) {
+        if (chave == null || chave.isBlank()) {
+            throw new IllegalArgumentException("Informe o header Idempotency-Key");
+        }
+        if (chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new IllegalArgumentException("Idempotency-Key deve ter no máximo " + TAMANHO_MAXIMO_CHAVE + " caracteres");
+        }
+    }
+
+    // Inicia o gravador depois de criados os beans
+    @Override
+    public void afterSingletonsInstantiated() {
+        gravador.execute(this::gravarEnquantoAtivo);
+    }
+
+    // Junta até tamanhoLote pedidos (esperando no máximo esperaLote pelos que faltam) e grava o lote
+    private void gravarEnquantoAtivo() {
+        int tamanhoLote = properties.getTamanhoLote();
+        long esperaLote = properties.getEsperaLote().toNanos();
+        List<Pedido> lote = new ArrayList<>(tamanhoLote);
+
+        while (!encerrando || !fila.isEmpty()) {
+            try {
+                Pedido primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+
+                long limite = System.nanoTime() + esperaLote;
+                while (lote.size() < tamanhoLote) {
+                    fila.drainTo(lote, tamanhoLote - lote.size());
+                    long restante = limite - System.nanoTime();
+                    if (lote.size() >= tamanhoLote || restante <= 0) {
+                        break;
+                    }
+                    Pedido proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+                    if (proximo == null) {
+                        break;
+                    }
+                    lote.add(proximo);
+                }
+
+                gravar(lote);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Erro inesperado no gravador da fila de cadastro", ex);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void gravar(List<Pedido> lote) {
+        List<BookRequestDTO> requests = new ArrayList<>(lote.size());
+        for (Pedido pedido : lote) {
+            requests.add(pedido.request);
+        }
+
+        List<BookBatchResultDTO> resultados;
+        try {
+            resultados = batchService.criarEmLote(requests);
+        } catch (RuntimeException ex) {
+            // O lote inteiro foi desfeito (ex.: ISBN gravado por outra requisição entre a checagem e o INSERT):
+            // cada pedido é gravado sozinho para que um só não derrube os demais
+            if (lote.size() > 1) {
+                for (Pedido pedido : lote) {
+                    gravar(List.of(pedido));
+                }
+            } else {
+                Pedido pedido = lote.get(0);
+                log.warn("Falha ao gravar o pedido {} da fila de cadastro", pedido.chave, ex);
+                concluir(pedido, Status.ERRO, null, "Não foi possível gravar o livro; envie o pedido com outra Idempotency-Key");
+            }
+            return;
+        }
+
+        tamanhoDosLotes.record(lote.size());
+        for (int i = 0; i < lote.size(); i++) {
+            BookBatchResultDTO resultado = resultados.get(i);
+            concluir(lote.get(i), Status.valueOf(resultado.getStatus().name()), resultado.getId(), resultado.getMensagem());
+        }
+    }
+
+    // Guarda o resultado nos concluídos antes de liberar a vaga nos pendentes (a chave nunca fica sem pedido)
+    private void concluir(Pedido pedido, Status status, Long id, String mensagem) {
+        pedido.concluir(status, id, mensagem);
+        concluidos.put(pedido.chave, pedido);
+        pendentes.remove(pedido.chave, pedido);
+    }
+
+    // Para de aceitar pedidos e grava o que já estava na fila antes de encerrar
+    @Override
+    public void destroy() throws InterruptedException {
+        encerrando = true;
+        gravador.shutdown();
+        if (!gravador.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Fila de cadastro encerrada com {} pedidos pendentes", fila.size());
+            gravador.shutdownNow();
+        }
+    }
+
+    // Um pedido de cadastro e seu status (trocado por inteiro a cada mudança, lido sem trava pelo GET)
+    private static final class Pedido {
+
+        private final String chave;
+        private final BookRequestDTO request;
+        private volatile BookAsyncStatusDTO status;
+
+        Pedido(String chave, BookRequestDTO request) {
+            this.chave = chave;
+            this.request = request;
+            this.status = new BookAsyncStatusDTO(chave, Status.PENDENTE, null, request.getIsbn(), null);
+        }
+
+        void concluir(Status novoStatus, Long id, String mensagem) {
+            status = new BookAsyncStatusDTO(chave, novoStatus, id, request.getIsbn(), mensagem);
+        }
+
+        boolean mesmoLivro(BookRequestDTO outro) {
+            return Objects.equals(request.getTitulo(), outro.getTitulo())
+                    && Objects.equals(request.getAutor(), outro.getAutor())
+                    && Objects.equals(request.getIsbn(), outro.getIsbn())
+                    && Objects.equals(request.getPublicadoEm(), outro.getPublicadoEm());
+        }
+    }
+}
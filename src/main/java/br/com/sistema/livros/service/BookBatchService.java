@@ -0,0 +1,159 @@
+package br.com.sistema.livros.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import br.com.sistema.livros.config.LivrosProperties;
+import br.com.sistema.livros.dto.BookBatchResultDTO;
+import br.com.sistema.livros.dto.BookBatchResultDTO.Status;
+import br.com.sistema.livros.dto.BookRequestDTO;
+import br.com.sistema.livros.mapper.BookMapper;
+import br.com.sistema.livros.model.Book;
+import br.com.sistema.livros.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Cadastro de muitos livros em uma única transação.
+ * A checagem de ISBN duplicado é feita em conjunto (IN com blocos de ISBNs, só para os que o filtro
+ * de Bloom de BookIsbnFilterService não descarta) e os INSERTs
+ * saem em batch JDBC, graças aos IDs reservados em blocos pela sequência books_seq.
+ */
+@Service
+public class BookBatchService {
+
+    // Quantidade de ISBNs por consulta IN (fica bem abaixo do limite de parâmetros do driver)
+    private static final int ISBNS_POR_CONSULTA = 1000;
+
+    // A cada N livros o contexto de persistência é descarregado e limpo para não acumular no heap
+    private static final int LIVROS_POR_FLUSH = 500;
+
+    private final BookRepository repository;
+    private final BookMapper mapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final LivrosProperties properties;
+    private final ApplicationEventPublisher eventos;
+    private final BookIsbnFilterService filtroIsbns;
+
+    public BookBatchService(BookRepository repository, BookMapper mapper, Validator validator,
+            EntityManager entityManager, LivrosProperties properties, ApplicationEventPublisher eventos,
+            BookIsbnFilterService filtroIsbns) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.properties = properties;
+        this.eventos = eventos;
+        this.filtroIsbns = filtroIsbns;
+    }
+
+
+    // Cria os livros válidos e devolve um resultado por item, na mesma ordem da requisição
+    @Transactional
+    public List<BookBatchResultDTO> criarEmLote(List<BookRequestDTO> requests) {
+
+        int tamanhoMaximo = properties.getLote().getTamanhoMaximo();
+        if (requests.size() > tamanhoMaximo) {
+            throw new IllegalArgumentException("Lote deve ter no máximo " + tamanhoMaximo + " livros");
+        }
+
+        BookBatchResultDTO[] resultados = new BookBatchResultDTO[requests.size()];
+
+        // 1) Validação item a item (Bean Validation) e ISBNs repetidos dentro do próprio lote
+        Map<String, Integer> candidatos = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BookRequestDTO dto = requests.get(i);
+            String erro = validar(dto);
+            if (erro != null) {
+                resultados[i] = new BookBatchResultDTO(i, Status.INVALIDO, null, dto == null ? null : dto.getIsbn(), erro);
+            } else if (candidatos.putIfAbsent(dto.getIsbn(), i) != null) {
+                resultados[i] = new BookBatchResultDTO(i, Status.DUPLICADO, null, dto.getIsbn(), "ISBN repetido no lote: " + dto.getIsbn());
+            }
+        }
+
+        // 2) ISBNs que já existem no banco (só os que o filtro de ISBNs não descarta vão à consulta)
+        Set<String> existentes = buscarIsbnsExistentes(filtroIsbns.talvezExistentes(candidatos.keySet()));
+
+        // 3) Persistência dos demais, em ordem, com flush/clear periódico
+        List<Book> pendentes = new ArrayList<>(LIVROS_POR_FLUSH);
+        List<Integer> indicesPendentes = new ArrayList<>(LIVROS_POR_FLUSH);
+        for (int i = 0; i < requests.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+
+            BookRequestDTO dto = requests.get(i);
+            if (existentes.contains(dto.getIsbn())) {
+                resultados[i] = new BookBatchResultDTO(i, Status.DUPLICADO, null, dto.getIsbn(), "ISBN já cadastrado: " + dto.getIsbn());
+                continue;
+            }
+
+            Book book = mapper.toEntity(dto);
+            entityManager.persist(book);
+            pendentes.add(book);
+            indicesPendentes.add(i);
+
+            if (pendentes.size() == LIVROS_POR_FLUSH) {
+                descarregar(pendentes, indicesPendentes, resultados);
+            }
+        }
+        descarregar(pendentes, indicesPendentes, resultados);
+
+        return List.of(resultados);
+    }
+
+    // Retorna a primeira mensagem de erro de validação, ou null se o item for válido
+    private String validar(BookRequestDTO dto) {
+        if (dto == null) {
+            return "Item do lote não pode ser nulo";
+        }
+
+        Set<ConstraintViolation<BookRequestDTO>> violacoes = validator.validate(dto);
+        return violacoes.stream()
+                .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                .sorted()
+                .findFirst()
+                .orElse(null);
+    }
+
+    private Set<String> buscarIsbnsExistentes(List<String> isbns) {
+        if (isbns.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        Set<String> existentes = new HashSet<>();
+        for (int inicio = 0; inicio < isbns.size(); inicio += ISBNS_POR_CONSULTA) {
+            int fim = Math.min(inicio + ISBNS_POR_CONSULTA, isbns.size());
+            existentes.addAll(repository.findIsbnsExistentes(isbns.subList(inicio, fim)));
+        }
+        filtroIsbns.registrarFalsosPositivos(isbns.size() - existentes.size());
+        return existentes;
+    }
+
+    // Envia os INSERTs pendentes (em batch) e libera as entidades do contexto de persistência
+    private void descarregar(List<Book> pendentes, List<Integer> indices, BookBatchResultDTO[] resultados) {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+
+        entityManager.flush();
+        for (int j = 0; j < pendentes.size(); j++) {
+            Book book = pendentes.get(j);
+            int indice = indices.get(j);
+            resultados[indice] = new BookBatchResultDTO(indice, Status.CRIADO, book.getId(), book.getIsbn(), null);
+            eventos.publishEvent(BookChangedEvent.criado(book.getId(), mapper.toResponse(book)));
+        }
+        entityManager.clear();
+        pendentes.clear();
+        indices.clear();
+    }
+}
@@ -0,0 +1,207 @@
+package br.com.sistema.livros.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import br.com.sistema.livros.config.LivrosProperties;
+import br.com.sistema.livros.dto.BookChangeDTO;
+import br.com.sistema.livros.dto.BookChangePageDTO;
+import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.exception.GoneException;
+import br.com.sistema.livros.model.BookChange;
+import br.com.sistema.livros.repository.BookChangeRepository;
+
+/**
+ * Outbox e feed de alterações dos livros.
+ *
+ * Cada BookChangedEvent vira uma linha em book_changes na mesma transação que alterou o livro: as linhas
+ * da transação são juntadas e gravadas num único batch logo antes do commit, então um commit desfeito
+ * não deixa alteração no feed e uma alteração confirmada nunca fica fora dele. O feed entrega as linhas
+ * em ordem de seq a partir do "since" do consumidor, que sincroniza em O(alterações) em vez de reler a tabela.
+ */
+@Service
+public class BookChangeService implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BookChangeService.class);
+
+    private final BookChangeRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final LivrosProperties.Mudancas properties;
+    private final ScheduledExecutorService limpeza;
+
+    public BookChangeService(BookChangeRepository repository, PlatformTransactionManager transactionManager,
+            LivrosProperties properties) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties.getMudancas();
+        this.limpeza = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("livros-mudancas-limpeza").daemon().factory());
+    }
+
+
+    // Síncrono, dentro da transação que publicou o evento (ao contrário dos ouvintes pós-commit)
+    @EventListener
+    public void aoAlterarLivro(BookChangedEvent evento) {
+        BookChange alteracao = paraAlteracao(evento);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            repository.registrar(List.of(alteracao));
+            return;
+        }
+
+        Pendentes pendentes = (Pendentes) TransactionSynchronizationManager.getResource(this);
+        if (pendentes == null) {
+            pendentes = new Pendentes();
+            TransactionSynchronizationManager.bindResource(this, pendentes);
+            TransactionSynchronizationManager.registerSynchronization(pendentes);
+        }
+        pendentes.alteracoes.add(alteracao);
+    }
+
+    private static BookChange paraAlteracao(BookChangedEvent evento) {
+        // Na remoção fica o último estado conhecido do livro
+        BookResponseDTO livro = evento.getAtual() != null ? evento.getAtual() : evento.getAnterior();
+        BookChange.Tipo tipo = BookChange.Tipo.valueOf(evento.getTipo().name());
+        if (livro == null) {
+            return new BookChange(tipo, evento.getId(), null, null, null, null, null);
+        }
+        return new BookChange(tipo, evento.getId(), livro.getTitulo(), livro.getAutor(), livro.getIsbn(),
+                livro.getPublicadoEm(), livro.getVersao());
+    }
+
+    // Alterações de uma transação, gravadas juntas no beforeCommit. O seq e o ocorrido_em (relógio do banco, igual
+    // para todas as instâncias) são atribuídos só nesse momento, bem perto do commit: transações longas (ex.: lote
+    // de 50 mil) não seguram um seq menor por muito tempo
+    private final class Pendentes implements TransactionSynchronization {
+
+        private final List<BookChange> alteracoes = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            repository.registrar(alteracoes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BookChangeService.this);
+        }
+    }
+
+
+    /**
+     * Alterações com seq maior que "desde", em ordem. Sem "desde", não devolve alterações, só a posição
+     * atual do feed em "ultimo": o consumidor guarda essa posição, faz a carga completa pela listagem e
+     * segue pelo feed a partir dela (reaplicar uma alteração já vista na carga não muda o resultado).
+     *
+     * Alterações mais novas que o atraso de visibilidade (pelo relógio do banco) ficam para a próxima chamada,
+     * e as seguintes também esperam, mesmo que já visíveis. Isso cobre as transações que confirmam até o atraso
+     * depois de gravar a alteração: uma que demore mais (ex.: um POST /batch grande, gravado numa transação só,
+     * ou uma espera de lock) confirma um seq que o consumidor já pode ter passado, e essa alteração não aparece
+     * para ele. O atraso é um limite de tempo, não uma garantia; ajuste livros.mudancas.atraso-visibilidade
+     * acima da maior transação de escrita esperada.
+     */
+    @Transactional(readOnly = true)
+    public BookChangePageDTO listar(Long desde, Integer tamanho) {
+        double atraso = properties.getAtrasoVisibilidade().toMillis() / 1000.0;
+        if (desde == null) {
+            List<Long> atual = repository.findUltimaSeqVisivel(atraso, Limit.of(1));
+            return new BookChangePageDTO(List.of(), atual.isEmpty() ? 0L : atual.get(0), false);
+        }
+        if (desde < 0) {
+            throw new IllegalArgumentException("Posição do feed (since) não pode ser negativa");
+        }
+
+        int limite = resolverTamanho(tamanho);
+        // Uma a mais que o pedido só para saber se há outra página
+        List<BookChange> linhas = repository.findVisiveisDepoisDe(desde, atraso, Limit.of(limite + 1));
+        verificarRetencao(desde, linhas);
+
+        List<BookChangeDTO> alteracoes = new ArrayList<>(Math.min(linhas.size(), limite));
+        long ultimo = desde;
+        for (BookChange linha : linhas.subList(0, Math.min(linhas.size(), limite))) {
+            alteracoes.add(paraDTO(linha));
+            ultimo = linha.getSeq();
+        }
+        return new BookChangePageDTO(alteracoes, ultimo, linhas.size() > limite);
+    }
+
+    // Valida a posição de um consumidor (ex.: antes de abrir o stream SSE) sem devolver alterações
+    @Transactional(readOnly = true)
+    public void verificarPosicao(long desde) {
+        if (desde < 0) {
+            throw new IllegalArgumentException("Posição do feed (since) não pode ser negativa");
+        }
+        verificarRetencao(desde, repository.findBySeqGreaterThanOrderBySeqAsc(desde, Limit.of(1)));
+    }
+
+    // Um buraco entre "desde" e a primeira alteração retida significa que alterações já foram removidas pela
+    // retenção (ou, raramente, que só houve commits desfeitos ali): o consumidor precisa refazer a carga completa
+    private void verificarRetencao(long desde, List<BookChange> linhas) {
+        if (linhas.isEmpty() || linhas.get(0).getSeq() == desde + 1) {
+            return;
+        }
+        Long primeira = repository.findPrimeiraSeq();
+        if (primeira != null && desde < primeira - 1) {
+            throw new GoneException("Alterações anteriores à posição " + (primeira - 1) + " não estão mais disponíveis; "
+                    + "refaça a carga completa pela listagem e continue pelo feed a partir da posição atual");
+        }
+    }
+
+    private int resolverTamanho(Integer tamanho) {
+        if (tamanho == null) {
+            return properties.getTamanhoPadrao();
+        }
+        if (tamanho < 1) {
+            throw new IllegalArgumentException("Quantidade de alterações deve ser maior que zero");
+        }
+        return Math.min(tamanho, properties.getTamanhoMaximo());
+    }
+
+    private static BookChangeDTO paraDTO(BookChange linha) {
+        BookResponseDTO livro = new BookResponseDTO(linha.getLivroId(), linha.getTitulo(), linha.getAutor(),
+                linha.getIsbn(), linha.getPublicadoEm());
+        return new BookChangeDTO(linha.getSeq(), BookChangeDTO.Tipo.valueOf(linha.getTipo().name()), linha.getLivroId(),
+                livro, linha.getOcorridoEm());
+    }
+
+
+    // Agenda a limpeza do outbox depois de criados os beans
+    @Override
+    public void afterSingletonsInstantiated() {
+        limpeza.scheduleWithFixedDelay(this::removerExpiradas, 1, 60, TimeUnit.MINUTES);
+    }
+
+    // Remove as alterações fora do período de retenção
+    public int removerExpiradas() {
+        try {
+            Duration retencao = properties.getRetencao();
+            Integer removidas = transactionTemplate.execute(status -> repository.removerAnterioresA(retencao.toSeconds()));
+            if (removidas != null && removidas > 0) {
+                log.info("{} alterações removidas do outbox (mais antigas que {})", removidas, retencao);
+            }
+            return removidas != null ? removidas : 0;
+        } catch (RuntimeException ex) {
+            // Falha na limpeza não pode cancelar o agendamento: tenta de novo na próxima execução
+            log.warn("Falha ao remover alterações expiradas do outbox", ex);
+            return 0;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        limpeza.shutdownNow();
+    }
+}
@@ -0,0 +1,165 @@
+package br.com.sistema.livros.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import br.com.sistema.livros.config.LivrosProperties;
+import br.com.sistema.livros.dto.BookChangeDTO;
+import br.com.sistema.livros.dto.BookChangePageDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Stream SSE do feed de alterações (GET /api/v1/books/changes/stream).
+ *
+ * Uma thread consulta o feed a cada intervaloStream e entrega as novidades a cada assinante, com o seq como
+ * id do evento: ao reconectar, o navegador manda Last-Event-ID e o stream continua de onde parou. Assinantes
+ * na mesma posição (o caso comum: todos em dia) compartilham uma única consulta por rodada.
+ */
+@Service
+public class BookChangeStreamService implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BookChangeStreamService.class);
+
+    // Sem novidades por este tempo, manda um comentário para a conexão não ser fechada por proxies ociosos
+    private static final long HEARTBEAT_NANOS = TimeUnit.SECONDS.toNanos(15);
+
+    private final BookChangeService changeService;
+    private final LivrosProperties.Mudancas properties;
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService publicador;
+
+    public BookChangeStreamService(BookChangeService changeService, LivrosProperties properties, MeterRegistry meterRegistry) {
+        this.changeService = changeService;
+        this.properties = properties.getMudancas();
+        this.publicador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("livros-mudancas-stream").daemon().factory());
+
+        Gauge.builder("livros.mudancas.assinantes", assinantes, Set::size)
+                .description("Conexões SSE abertas no stream de alterações")
+                .register(meterRegistry);
+    }
+
+
+    // Abre um stream a partir de "desde" (ou da posição atual do feed, sem "desde")
+    public SseEmitter assinar(Long desde) {
+        long posicao;
+        if (desde != null) {
+            changeService.verificarPosicao(desde);
+            posicao = desde;
+        } else {
+            posicao = changeService.listar(null, null).getUltimo();
+        }
+
+        SseEmitter emitter = criarEmitter(properties.getDuracaoStream().toMillis());
+        Assinante assinante = new Assinante(emitter, posicao, System.nanoTime());
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(erro -> assinantes.remove(assinante));
+        assinantes.add(assinante);
+        return emitter;
+    }
+
+    // Ponto de extensão para os testes, que capturam os eventos enviados
+    SseEmitter criarEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    // Inicia a publicação depois de criados os beans
+    @Override
+    public void afterSingletonsInstantiated() {
+        long intervalo = properties.getIntervaloStream().toMillis();
+        publicador.scheduleWithFixedDelay(this::publicar, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    void publicar() {
+        publicar(System.nanoTime());
+    }
+
+    // Uma rodada: busca as novidades de cada posição distinta e entrega aos assinantes nela
+    void publicar(long agora) {
+        if (assinantes.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<Assinante>> porPosicao = new HashMap<>();
+        for (Assinante assinante : assinantes) {
+            porPosicao.computeIfAbsent(assinante.posicao, posicao -> new ArrayList<>()).add(assinante);
+        }
+
+        for (Map.Entry<Long, List<Assinante>> grupo : porPosicao.entrySet()) {
+            BookChangePageDTO pagina;
+            try {
+                pagina = changeService.listar(grupo.getKey(), properties.getTamanhoMaximo());
+            } catch (RuntimeException ex) {
+                // Ex.: posição que saiu da retenção durante uma desconexão longa; o cliente reabre o stream e recebe 410
+                log.warn("Encerrando {} streams de alterações na posição {}", grupo.getValue().size(), grupo.getKey(), ex);
+                grupo.getValue().forEach(assinante -> assinante.encerrar(ex));
+                continue;
+            }
+            for (Assinante assinante : grupo.getValue()) {
+                assinante.enviar(pagina, agora);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        publicador.shutdownNow();
+        assinantes.forEach(assinante -> assinante.emitter.complete());
+        assinantes.clear();
+    }
+
+    // Uma conexão SSE e a posição do feed até onde ela já recebeu (lida e escrita só pela thread do publicador)
+    private final class Assinante {
+
+        private final SseEmitter emitter;
+        private long posicao;
+        private long ultimoEnvio;
+
+        Assinante(SseEmitter emitter, long posicao, long agora) {
+            this.emitter = emitter;
+            this.posicao = posicao;
+            this.ultimoEnvio = agora;
+        }
+
+        void enviar(BookChangePageDTO pagina, long agora) {
+            try {
+                for (BookChangeDTO alteracao : pagina.getAlteracoes()) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(alteracao.getSeq()))
+                            .data(alteracao, MediaType.APPLICATION_JSON));
+                }
+                if (!pagina.getAlteracoes().isEmpty()) {
+                    ultimoEnvio = agora;
+                } else if (agora - ultimoEnvio >= HEARTBEAT_NANOS) {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                    ultimoEnvio = agora;
+                }
+                posicao = pagina.getUltimo();
+            } catch (IOException | IllegalStateException ex) {
+                // Cliente desconectou (ou o emitter já foi concluído): sai da lista
+                assinantes.remove(this);
+                emitter.completeWithError(ex);
+            }
+        }
+
+        void encerrar(Throwable erro) {
+            assinantes.remove(this);
+            emitter.completeWithError(erro);
+        }
+    }
+}
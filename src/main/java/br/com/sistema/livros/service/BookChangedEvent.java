@@ -0,0 +1,59 @@
+package br.com.sistema.livros.service;
+
+import br.com.sistema.livros.dto.BookResponseDTO;
+
+/**
+ * Publicado (via ApplicationEventPublisher) sempre que um livro é criado, alterado ou removido.
+ * Leva o estado anterior e o atual para que os ouvintes possam atualizar estruturas derivadas
+ * de forma incremental, sem consultar o banco de novo.
+ */
+public class BookChangedEvent {
+
+    public enum Tipo {
+        CRIADO,
+        ATUALIZADO,
+        REMOVIDO
+    }
+
+    private final Tipo tipo;
+    private final Long id;
+    private final BookResponseDTO anterior;
+    private final BookResponseDTO atual;
+
+    private BookChangedEvent(Tipo tipo, Long id, BookResponseDTO anterior, BookResponseDTO atual) {
+        this.tipo = tipo;
+        this.id = id;
+        this.anterior = anterior;
+        this.atual = atual;
+    }
+
+    public static BookChangedEvent criado(Long id, BookResponseDTO atual) {
+        return new BookChangedEvent(Tipo.CRIADO, id, null, atual);
+    }
+
+    public static BookChangedEvent atualizado(Long id, BookResponseDTO anterior, BookResponseDTO atual) {
+        return new BookChangedEvent(Tipo.ATUALIZADO, id, anterior, atual);
+    }
+
+    public static BookChangedEvent removido(Long id, BookResponseDTO anterior) {
+        return new BookChangedEvent(Tipo.REMOVIDO, id, anterior, null);
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    // Estado antes da alteração (null quando o livro foi criado)
+    public BookResponseDTO getAnterior() {
+        return anterior;
+    }
+
+    // Estado depois da alteração (null quando o livro foi removido)
+    public BookResponseDTO getAtual() {
+        return atual;
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.sistema.livros.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Base64;
+import br.com.sistema.livros.dto.BookResponseDTO;
+
+/**
+ * Codifica e decodifica o cursor opaco da listagem paginada.
+ * O cursor guarda a posição do último livro entregue (campo da ordenação e ID); a próxima página começa logo
+ * depois dela. Na ordenação padrão (ID crescente) o cursor continua sendo só "id:<último ID>".
+ */
+final class BookCursor {
+
+    private BookCursor() {
+    }
+
+    // Posição do último livro entregue; valor é null na ordenação por ID
+    record Posicao(long id, Comparable<?> valor) {
+    }
+
+    // "<campo>[-desc]:<id>[:<valor>]": o valor vai por último, pode conter ':'
+    static String codificar(ConsultaLivros consulta, BookResponseDTO ultimo) {
+        String valor = chave(consulta) + ":" + ultimo.getId();
+        String campo = consulta.campo().valor(ultimo);
+        if (campo != null) {
+            valor += ":" + campo;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Retorna a posição contida no cursor, ou null quando não há cursor (primeira página).
+    // Um cursor de outra ordenação é inválido: a posição não faria sentido na ordem pedida
+    static Posicao decodificar(String cursor, ConsultaLivros consulta) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = valor.split(":", 3);
+            boolean comValor = consulta.campo() != ConsultaLivros.Campo.ID;
+            if (!partes[0].equals(chave(consulta)) || partes.length != (comValor ? 3 : 2)) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+            long id = Long.parseLong(partes[1]);
+            return new Posicao(id, comValor ? consulta.campo().converter(partes[2]) : null);
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            // NumberFormatException também é uma IllegalArgumentException; DateTimeException vem da data no cursor
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+
+    private static String chave(ConsultaLivros consulta) {
+        return consulta.direcao().isAscending() ? consulta.campo().nome() : consulta.campo().nome() + "-desc";
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.sistema.livros.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.mapper.BookMapper;
+import br.com.sistema.livros.model.Book;
+import br.com.sistema.livros.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Exporta o catálogo completo em streaming (NDJSON ou CSV).
+ * Os livros são lidos por um cursor do banco e desanexados do contexto de persistência
+ * logo após serem escritos, então o uso de heap não cresce com o tamanho da tabela.
+ */
+@Service
+public class BookExportService {
+
+    private static final String CABECALHO_CSV = "id,titulo,autor,isbn,publicadoEm";
+
+    private final BookRepository repository;
+    private final BookMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    public BookExportService(BookRepository repository, BookMapper mapper, ObjectMapper objectMapper, EntityManager entityManager) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+    }
+
+
+    // Um objeto JSON por linha (application/x-ndjson)
+    @Transactional(readOnly = true)
+    public void exportarNdjson(OutputStream out) throws IOException {
+        // Sem flush por registro: o Jackson mantém o próprio buffer e escreve em blocos
+        ObjectWriter writer = objectMapper.writerFor(BookResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (Stream<Book> books = repository.streamTodos();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                Book book = iterator.next();
+                writer.writeValue(generator, mapper.toResponse(book));
+                generator.writeRaw('\n');
+                entityManager.detach(book);
+            }
+            generator.flush();
+        }
+    }
+
+
+    // CSV com cabeçalho (text/csv), campos escapados conforme RFC 4180
+    @Transactional(readOnly = true)
+    public void exportarCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CABECALHO_CSV);
+        writer.write("\r\n");
+
+        try (Stream<Book> books = repository.streamTodos()) {
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                Book book = iterator.next();
+                writer.write(String.valueOf(book.getId()));
+                writer.write(',');
+                escreverCampoCsv(writer, book.getTitulo());
+                writer.write(',');
+                escreverCampoCsv(writer, book.getAutor());
+                writer.write(',');
+                escreverCampoCsv(writer, book.getIsbn());
+                writer.write(',');
+                if (book.getPublicadoEm() != null) {
+                    writer.write(book.getPublicadoEm().toString());
+                }
+                writer.write("\r\n");
+                entityManager.detach(book);
+            }
+        }
+        writer.flush();
+    }
+
+    private void escreverCampoCsv(Writer writer, String valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+
+        boolean precisaAspas = valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0
+                || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0;
+        if (!precisaAspas) {
+            writer.write(valor);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(valor.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
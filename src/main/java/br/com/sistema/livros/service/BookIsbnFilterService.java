@@ -0,0 +1,204 @@
+package br.com.sistema.livros.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import br.com.sistema.livros.config.LivrosProperties;
+import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.repository.BookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+
+/**
+ * Pré-checagem de ISBNs cadastrados por um filtro de Bloom em memória.
+ *
+ * Na checagem de duplicados do lote quase todos os ISBNs são novos: o filtro descarta esses sem ir ao banco,
+ * e só os "talvez existentes" seguem para a consulta IN. Um falso positivo custa só essa consulta; um falso
+ * negativo não pode acontecer, e mesmo assim a restrição UNIQUE continua sendo a garantia final.
+ *
+ * O filtro é carregado na inicialização (streaming dos ISBNs da tabela) e acompanha os BookChangedEvent.
+ * Como não há remoção, ISBNs removidos ou trocados continuam no filtro; quando a taxa estimada de falsos
+ * positivos passa do dobro da configurada, um filtro novo, dimensionado para o dobro dos cadastrados, é
+ * montado em segundo plano e publicado de uma vez.
+ */
+@Service
+public class BookIsbnFilterService implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BookIsbnFilterService.class);
+
+    private final BookRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final LivrosProperties.FiltroIsbns properties;
+    private final ExecutorService reconstrutor;
+    private final AtomicBoolean reconstruindo = new AtomicBoolean();
+    private final Counter descartados;
+    private final Counter consultados;
+    private final Counter falsosPositivos;
+
+    // null até a primeira carga: enquanto isso, todo ISBN é "talvez existente"
+    private volatile FiltroBloom filtro;
+
+    // Filtro sendo montado numa reconstrução: recebe os ISBNs novos junto com o atual
+    private volatile FiltroBloom emConstrucao;
+
+    public BookIsbnFilterService(BookRepository repository, PlatformTransactionManager transactionManager,
+            LivrosProperties properties, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.properties = properties.getFiltroIsbns();
+        this.reconstrutor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("isbns-filtro-reconstrucao").daemon().factory());
+
+        this.descartados = Counter.builder("livros.isbns.filtro.consultas")
+                .description("ISBNs checados pelo filtro de Bloom, por resultado")
+                .tag("resultado", "ausente")
+                .register(meterRegistry);
+        this.consultados = Counter.builder("livros.isbns.filtro.consultas")
+                .description("ISBNs checados pelo filtro de Bloom, por resultado")
+                .tag("resultado", "talvez")
+                .register(meterRegistry);
+        this.falsosPositivos = Counter.builder("livros.isbns.filtro.falsos-positivos")
+                .description("ISBNs que o filtro deu como talvez existentes e o banco não tinha")
+                .register(meterRegistry);
+        Gauge.builder("livros.isbns.filtro.taxa-estimada", this, BookIsbnFilterService::taxaEstimada)
+                .description("Taxa estimada de falsos positivos do filtro de ISBNs")
+                .register(meterRegistry);
+        Gauge.builder("livros.isbns.filtro.memoria", this, BookIsbnFilterService::bytes)
+                .description("Heap ocupado pelos bits do filtro de ISBNs")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+    }
+
+
+    // ISBNs que podem já estar cadastrados (os demais com certeza não estão), na ordem recebida
+    public List<String> talvezExistentes(Collection<String> isbns) {
+        FiltroBloom atual = filtro;
+        if (atual == null || !properties.isHabilitado()) {
+            return new ArrayList<>(isbns);
+        }
+
+        List<String> talvez = new ArrayList<>();
+        for (String isbn : isbns) {
+            if (atual.talvezContenha(isbn)) {
+                talvez.add(isbn);
+            }
+        }
+        consultados.increment(talvez.size());
+        descartados.increment(isbns.size() - talvez.size());
+        return talvez;
+    }
+
+    // Quantos dos "talvez existentes" o banco confirmou que não existem
+    public void registrarFalsosPositivos(int quantidade) {
+        if (quantidade > 0) {
+            falsosPositivos.increment(quantidade);
+        }
+    }
+
+    // Ainda dentro da transação: outro lote que cheque o ISBN antes deste commit já o encontra no filtro
+    @EventListener
+    public void aoAlterarLivro(BookChangedEvent evento) {
+        adicionar(evento.getAtual());
+    }
+
+    // De novo após o commit: se uma reconstrução leu a tabela antes deste commit, o ISBN entra no filtro novo
+    @TransactionalEventListener
+    public void aposConfirmarAlteracao(BookChangedEvent evento) {
+        adicionar(evento.getAtual());
+    }
+
+    private void adicionar(BookResponseDTO livro) {
+        if (livro == null || livro.getIsbn() == null) {
+            return;
+        }
+        // emConstrucao é lido antes de filtro: se já voltou a null, a troca já aconteceu e filtro é o novo
+        FiltroBloom novo = emConstrucao;
+        FiltroBloom atual = filtro;
+        if (novo != null) {
+            novo.adicionar(livro.getIsbn());
+        }
+        if (atual == null) {
+            return;
+        }
+        atual.adicionar(livro.getIsbn());
+
+        if (atual.taxaEstimada() > 2 * properties.getTaxaFalsosPositivos() && reconstruindo.compareAndSet(false, true)) {
+            reconstrutor.execute(this::reconstruir);
+        }
+    }
+
+
+    // Carga inicial: roda depois de criados os beans e antes do servidor começar a atender
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (properties.isHabilitado()) {
+            carregar();
+        }
+    }
+
+    private void reconstruir() {
+        try {
+            carregar();
+        } catch (RuntimeException ex) {
+            // O filtro atual continua valendo (só com mais falsos positivos); a próxima inclusão tenta de novo
+            log.warn("Falha ao reconstruir o filtro de ISBNs", ex);
+        } finally {
+            reconstruindo.set(false);
+        }
+    }
+
+    // Monta um filtro novo a partir da tabela e o publica no lugar do atual
+    void carregar() {
+        long cadastrados = repository.count();
+        FiltroBloom novo = new FiltroBloom(Math.max(properties.getCapacidadeMinima(), cadastrados * 2), properties.getTaxaFalsosPositivos());
+
+        // Publicado antes da leitura: ISBNs incluídos a partir daqui entram nele mesmo que a leitura não os veja
+        emConstrucao = novo;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> isbns = repository.streamIsbns()) {
+                    Iterator<String> iterator = isbns.iterator();
+                    while (iterator.hasNext()) {
+                        novo.adicionar(iterator.next());
+                    }
+                }
+            });
+            filtro = novo;
+        } finally {
+            emConstrucao = null;
+        }
+        log.info("Filtro de ISBNs carregado: {} KB, {} funções de hash, taxa estimada de falsos positivos {}",
+                novo.bytes() / 1024, novo.funcoes(), String.format("%.4f", novo.taxaEstimada()));
+    }
+
+    private double taxaEstimada() {
+        FiltroBloom atual = filtro;
+        return atual != null ? atual.taxaEstimada() : 0;
+    }
+
+    private double bytes() {
+        FiltroBloom atual = filtro;
+        return atual != null ? atual.bytes() : 0;
+    }
+
+    @Override
+    public void destroy() {
+        reconstrutor.shutdownNow();
+    }
+}
@@ -1,95 +1,378 @@
 package br.com.sistema.livros.service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import br.com.sistema.livros.config.CacheConfig;
+import br.com.sistema.livros.config.LivrosProperties;
+import br.com.sistema.livros.config.RoteamentoLeitura;
+import br.com.sistema.livros.dto.BookFiltroDTO;
+import br.com.sistema.livros.dto.BookLookupRequestDTO;
+import br.com.sistema.livros.dto.BookLookupResultDTO;
+import br.com.sistema.livros.dto.BookPageDTO;
+import br.com.sistema.livros.dto.BookPatchDTO;
 import br.com.sistema.livros.dto.BookRequestDTO;
 import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.dto.BookVersionDTO;
 import br.com.sistema.livros.exception.EntityNotFoundException;
+import br.com.sistema.livros.exception.PreconditionFailedException;
 import br.com.sistema.livros.mapper.BookMapper;
 import br.com.sistema.livros.model.Book;
 import br.com.sistema.livros.repository.BookRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 
+// Cada método público gera o timer livros.service{class, method} com histograma de percentis
 @Service
+@Timed(value = "livros.service", histogram = true)
 public class BookService {
 
     private final BookRepository repository;
     private final BookMapper mapper;
+    private final LivrosProperties properties;
+    private final ApplicationEventPublisher eventos;
+
+    // Leituras por ID e da listagem: chamadas idênticas simultâneas compartilham uma única consulta.
+    // A transação (somente leitura) é aberta só por quem executa; quem espera não segura conexão do pool
+    private final TransactionTemplate leitura;
+    private final AtomicLong geracao = new AtomicLong();
+    private final LeiturasEmAndamento<Long, Optional<BookResponseDTO>> leiturasPorId;
+    private final LeiturasEmAndamento<Pagina, BookPageDTO> leiturasDePagina;
+
+    // Livros alterados há pouco são lidos no primário durante a janela de leitura própria: lido de uma réplica
+    // atrasada, o livro voltaria ao cache por ID na versão antiga. Vale só nesta instância, como o próprio cache
+    private final Cache<Long, Boolean> alteradosRecentemente;
 
     // Injeção de dependências via construtor
-    public BookService(BookRepository repository, BookMapper mapper) {
+    public BookService(BookRepository repository, BookMapper mapper, LivrosProperties properties, ApplicationEventPublisher eventos,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
         this.repository = repository;
         this.mapper = mapper;
+        this.properties = properties;
+        this.eventos = eventos;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.leiturasPorId = new LeiturasEmAndamento<>("getById", geracao::get, meterRegistry);
+        this.leiturasDePagina = new LeiturasEmAndamento<>("listarTodos", geracao::get, meterRegistry);
+        this.alteradosRecentemente = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getReplicas().getJanelaLeituraPropria())
+                .maximumSize(properties.getReplicas().getClientesMaximos())
+                .build();
     }
 
 
-    // Cria um novo livro - Valida se o ISBN já existe antes de salvar
+    // Cria um novo livro - ISBN duplicado é barrado pela restrição UNIQUE do banco (sem consulta prévia)
     @Transactional
     public BookResponseDTO criarLivro(BookRequestDTO dto) {
-        
-    	// Validação: ISBN deve ser único
-        if (repository.existsByIsbn(dto.getIsbn())) {
-            throw new IllegalArgumentException("ISBN já cadastrado: " + dto.getIsbn());
-        }
 
         // Converte DTO para entidade
         Book book = mapper.toEntity(dto);
         
-        // Salva no banco
-        Book savedBook = repository.save(book);
+        // Salva no banco (o flush envia o INSERT já aqui, para traduzir a violação de ISBN)
+        Book savedBook = salvar(book);
         
         // Converte entidade para DTO de resposta
-        return mapper.toResponse(savedBook);
+        BookResponseDTO response = mapper.toResponse(savedBook);
+        eventos.publishEvent(BookChangedEvent.criado(savedBook.getId(), response));
+        return response;
     }
 
     
-    // Atualiza um livro existente
+    // Atualiza um livro existente (remove a entrada do cache após o commit)
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.LIVROS_POR_ID, key = "#id")
     public BookResponseDTO atualizarLivro(Long id, BookRequestDTO dto) {
+        return atualizarLivro(id, dto, null);
+    }
+
+
+    // Atualiza um livro existente, exigindo a versão informada pelo cliente (If-Match) quando não for nula
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.LIVROS_POR_ID, key = "#id")
+    public BookResponseDTO atualizarLivro(Long id, BookRequestDTO dto, Long versaoEsperada) {
        
     	// Busca o livro ou lança exceção se não existir
         Book book = repository.findById(id).orElseThrow(() -> new EntityNotFoundException("Livro não encontrado com ID: " + id));
+        verificarVersao(book, versaoEsperada);
+        BookResponseDTO anterior = mapper.toResponse(book);
 
-        // Validação: se o ISBN mudou, verifica se já existe outro livro com esse ISBN
-        if (!book.getIsbn().equals(dto.getIsbn()) && repository.existsByIsbn(dto.getIsbn())) {
-            throw new IllegalArgumentException("ISBN já cadastrado: " + dto.getIsbn());
-        }
-
-        // Atualiza os campos
+        // Atualiza os campos (ISBN repetido é barrado pela restrição UNIQUE no flush)
         book.setTitulo(dto.getTitulo());
         book.setAutor(dto.getAutor());
         book.setIsbn(dto.getIsbn());
         book.setPublicadoEm(dto.getPublicadoEm());
 
-        // Salva as alterações
-        Book updatedBook = repository.save(book);
-        
-        return mapper.toResponse(updatedBook);
+        return salvarAlteracao(id, book, anterior);
+    }
+
+
+    // Atualização parcial (PATCH): só os campos informados mudam
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.LIVROS_POR_ID, key = "#id")
+    public BookResponseDTO atualizarParcialmente(Long id, BookPatchDTO dto, Long versaoEsperada) {
+        if (dto.isVazio()) {
+            throw new IllegalArgumentException("Informe ao menos um campo para atualizar");
+        }
+
+        Book book = repository.findById(id).orElseThrow(() -> new EntityNotFoundException("Livro não encontrado com ID: " + id));
+        verificarVersao(book, versaoEsperada);
+        BookResponseDTO anterior = mapper.toResponse(book);
+
+        if (dto.getTitulo() != null) {
+            book.setTitulo(dto.getTitulo());
+        }
+        if (dto.getAutor() != null) {
+            book.setAutor(dto.getAutor());
+        }
+        if (dto.getIsbn() != null) {
+            book.setIsbn(dto.getIsbn());
+        }
+        if (dto.getPublicadoEm() != null) {
+            book.setPublicadoEm(dto.getPublicadoEm());
+        }
+
+        return salvarAlteracao(id, book, anterior);
+    }
+
+
+    // Envia o UPDATE (o flush já incrementa a versão devolvida no ETag) e avisa quem acompanha as alterações
+    private BookResponseDTO salvarAlteracao(Long id, Book book, BookResponseDTO anterior) {
+        Book updatedBook = salvar(book);
+        BookResponseDTO response = mapper.toResponse(updatedBook);
+        eventos.publishEvent(BookChangedEvent.atualizado(id, anterior, response));
+        return response;
+    }
+
+
+    // saveAndFlush traduzindo a violação da restrição UNIQUE do ISBN para o erro de validação (400)
+    private Book salvar(Book book) {
+        try {
+            return repository.saveAndFlush(book);
+        } catch (DataIntegrityViolationException ex) {
+            if (isViolacaoDeUnicidade(ex)) {
+                throw new IllegalArgumentException("ISBN já cadastrado: " + book.getIsbn());
+            }
+            throw ex;
+        }
+    }
+
+    // A única restrição UNIQUE da tabela, além da PK gerada pela sequência, é a do ISBN.
+    // Nem todo dialeto classifica o tipo da restrição: o SQLState 23505 (unique_violation) vale no PostgreSQL e no H2
+    private static boolean isViolacaoDeUnicidade(DataIntegrityViolationException ex) {
+        return ex.getCause() instanceof ConstraintViolationException violacao
+                && (violacao.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE
+                        || "23505".equals(violacao.getSQLState()));
+    }
+
+
+    // Compara a versão atual com a esperada pelo cliente (null = sem pré-condição)
+    private void verificarVersao(Book book, Long versaoEsperada) {
+        if (versaoEsperada != null && !versaoEsperada.equals(book.getVersao())) {
+            throw new PreconditionFailedException("Versão " + versaoEsperada + " do livro " + book.getId()
+                    + " não é mais a atual (versão atual: " + book.getVersao() + ")");
+        }
     }
 
     
-    // Busca um livro por ID
+    // Busca um livro por ID - leitura via cache (sync: chamadas simultâneas para o mesmo ID fazem uma única consulta).
+    // Na falta do cache, a projeção monta o DTO direto da consulta, sem entidade nem BookMapper; a coalescência
+    // cobre também o cache desligado ou sem espaço
+    @Cacheable(cacheNames = CacheConfig.LIVROS_POR_ID, key = "#id", sync = true)
     public BookResponseDTO getById(Long id) {
-        Book book = repository.findById(id).orElseThrow(() -> new EntityNotFoundException("Livro não encontrado com ID: " + id));
-        return mapper.toResponse(book);
+        Supplier<Optional<BookResponseDTO>> consulta = () -> repository.findResponseById(id);
+        Optional<BookResponseDTO> livro = alteradosRecentemente.getIfPresent(id) != null
+                ? lerNoPrimario(consulta)
+                : lerCoalescido(leiturasPorId, id, consulta);
+        return livro.orElseThrow(() -> new EntityNotFoundException("Livro não encontrado com ID: " + id));
+    }
+
+
+
+    // Versão atual de um livro, para responder requisições condicionais sem carregar a entidade
+    public BookVersionDTO getVersao(Long id) {
+        Supplier<Optional<BookVersionDTO>> consulta = () -> repository.findVersaoById(id);
+        Optional<BookVersionDTO> versao = alteradosRecentemente.getIfPresent(id) != null ? lerNoPrimario(consulta) : ler(consulta);
+        return versao.orElseThrow(() -> new EntityNotFoundException("Livro não encontrado com ID: " + id));
     }
 
     
-    // Lista todos os livros
-    public List<BookResponseDTO> listarTodos() {
-        return repository.findAll().stream().map(mapper::toResponse).collect(Collectors.toList());
+    // Lista os livros em páginas ordenadas por ID, a partir do cursor informado (projeção direto em DTO).
+    // Pedidos simultâneos da mesma página (mesmo cursor e tamanho) compartilham a consulta
+    public BookPageDTO listarTodos(String cursor, Integer tamanho) {
+        return listarTodos(cursor, tamanho, new BookFiltroDTO());
+    }
+
+    // Listagem com filtros e ordenação (Specifications montadas conforme o filtro), paginada por keyset no campo
+    // da ordenação. Sem filtros e por ID crescente, segue pela consulta fixa do índice da PK
+    public BookPageDTO listarTodos(String cursor, Integer tamanho, BookFiltroDTO filtro) {
+        int limite = resolverTamanho(tamanho);
+        ConsultaLivros consulta = ConsultaLivros.de(filtro);
+        BookCursor.Posicao posicao = BookCursor.decodificar(cursor, consulta);
+        return lerCoalescido(leiturasDePagina, new Pagina(consulta, posicao, limite), () -> carregarPagina(consulta, posicao, limite));
+    }
+
+    private BookPageDTO carregarPagina(ConsultaLivros consulta, BookCursor.Posicao posicao, int limite) {
+        // Busca um registro a mais só para saber se existe próxima página
+        Limit limit = Limit.of(limite + 1);
+        List<BookResponseDTO> conteudo = consulta.isPadrao()
+                ? repository.findResponsesAPartirDe(posicao != null ? posicao.id() : 0L, limit)
+                : repository.findResponses(consulta.especificacao(posicao), consulta.ordem(), limit);
+        boolean temProxima = conteudo.size() > limite;
+        if (temProxima) {
+            conteudo = conteudo.subList(0, limite);
+        }
+
+        String proximo = temProxima ? BookCursor.codificar(consulta, conteudo.get(conteudo.size() - 1)) : null;
+        return new BookPageDTO(conteudo, proximo);
+    }
+
+
+    // Busca textual em título e autor, sem diferenciar acentos e maiúsculas
+    public List<BookResponseDTO> buscar(String texto, Integer tamanho) {
+        List<String> termos = TermosBusca.termos(texto);
+        if (termos.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um termo de busca");
+        }
+
+        int limite = resolverTamanho(tamanho);
+        return ler(() -> repository.buscarPorTermos(termos, limite).stream()
+                .map(mapper::toResponse)
+                .collect(Collectors.toList()));
+    }
+
+    // Resolve vários IDs e ISBNs com uma consulta IN por tipo de chave (chaves repetidas vão uma vez só ao banco).
+    // Um resultado por chave, na ordem enviada (primeiro os IDs, depois os ISBNs), com NAO_ENCONTRADO no lugar
+    // dos ausentes
+    public List<BookLookupResultDTO> buscarVarios(BookLookupRequestDTO dto) {
+        List<Long> ids = dto.getIds() != null ? dto.getIds() : List.of();
+        List<String> isbns = dto.getIsbns() != null ? dto.getIsbns() : List.of();
+        if (ids.isEmpty() && isbns.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um ID ou ISBN");
+        }
+        int maximo = properties.getLote().getConsultaMaxima();
+        if (ids.size() + isbns.size() > maximo) {
+            throw new IllegalArgumentException("Consulta acima do tamanho máximo: " + maximo + " chaves");
+        }
+        if (ids.stream().anyMatch(Objects::isNull) || isbns.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("IDs e ISBNs não podem ser nulos");
+        }
+
+        List<BookResponseDTO> encontradosPorId = ids.isEmpty() ? List.of() : ler(() -> repository.findResponsesByIdIn(Set.copyOf(ids)));
+        List<BookResponseDTO> encontradosPorIsbn = isbns.isEmpty() ? List.of() : ler(() -> repository.findResponsesByIsbnIn(Set.copyOf(isbns)));
+        Map<Long, BookResponseDTO> porId = encontradosPorId.stream()
+                .collect(Collectors.toMap(BookResponseDTO::getId, Function.identity()));
+        Map<String, BookResponseDTO> porIsbn = encontradosPorIsbn.stream()
+                .collect(Collectors.toMap(BookResponseDTO::getIsbn, Function.identity()));
+
+        List<BookLookupResultDTO> resultados = new ArrayList<>(ids.size() + isbns.size());
+        for (Long id : ids) {
+            resultados.add(resultado(BookLookupResultDTO.Tipo.ID, String.valueOf(id), porId.get(id)));
+        }
+        for (String isbn : isbns) {
+            resultados.add(resultado(BookLookupResultDTO.Tipo.ISBN, isbn, porIsbn.get(isbn)));
+        }
+        return resultados;
+    }
+
+    private static BookLookupResultDTO resultado(BookLookupResultDTO.Tipo tipo, String chave, BookResponseDTO livro) {
+        BookLookupResultDTO.Status status = livro != null ? BookLookupResultDTO.Status.ENCONTRADO : BookLookupResultDTO.Status.NAO_ENCONTRADO;
+        return new BookLookupResultDTO(tipo, chave, status, livro);
+    }
+
+    // Leitura somente de consulta, numa réplica quando houver (ReplicasConfig); o escopo é aberto antes da transação,
+    // que é quem pede a conexão
+    private <T> T ler(Supplier<T> consulta) {
+        return RoteamentoLeitura.naReplica(() -> leitura.execute(status -> consulta.get()));
+    }
+
+    private <T> T lerNoPrimario(Supplier<T> consulta) {
+        return RoteamentoLeitura.noPrimario(() -> leitura.execute(status -> consulta.get()));
+    }
+
+    // Quem precisa do primário (janela de leitura própria) não aproveita uma consulta que pode ter ido à réplica
+    private <K, V> V lerCoalescido(LeiturasEmAndamento<K, V> leituras, K chave, Supplier<V> consulta) {
+        if (RoteamentoLeitura.primarioExigido()) {
+            return ler(consulta);
+        }
+        return leituras.executar(chave, () -> ler(consulta));
+    }
+
+    // Ainda na transação da escrita: o livro já é lido no primário antes de o cache por ID ser limpo no commit
+    @EventListener
+    public void aoAlterarLivro(BookChangedEvent evento) {
+        alteradosRecentemente.put(evento.getId(), Boolean.TRUE);
+    }
+
+    // Alteração confirmada: leituras em andamento começaram antes dela e não são mais aproveitadas por novas chamadas
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aposAlterarLivro(BookChangedEvent evento) {
+        geracao.incrementAndGet();
+    }
+
+    // Aplica o tamanho padrão e o limite máximo configurados
+    private int resolverTamanho(Integer tamanho) {
+        LivrosProperties.Paginacao paginacao = properties.getPaginacao();
+        if (tamanho == null) {
+            return paginacao.getTamanhoPadrao();
+        }
+        if (tamanho < 1) {
+            throw new IllegalArgumentException("Tamanho da página deve ser maior que zero");
+        }
+        return Math.min(tamanho, paginacao.getTamanhoMaximo());
     }
 
     
-    // Deleta um livro por ID
+    // Deleta um livro por ID (remove a entrada do cache após o commit)
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.LIVROS_POR_ID, key = "#id")
     public void deletar(Long id) {
-        
-    	// Verifica se existe antes de deletar
-        if (!repository.existsById(id)) {
-            throw new EntityNotFoundException("Livro não encontrado com ID: " + id);
-        }       
-        repository.deleteById(id);
+        deletar(id, null);
+    }
+
+
+    // Deleta um livro por ID, exigindo a versão informada pelo cliente (If-Match) quando não for nula
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.LIVROS_POR_ID, key = "#id")
+    public void deletar(Long id, Long versaoEsperada) {
+
+        // Um único comando: DELETE condicionado à versão (se informada) devolvendo a linha removida para o evento
+        Book book = repository.removerRetornando(id, versaoEsperada).orElse(null);
+        if (book == null) {
+            // Nada foi removido: só agora descobre se o livro não existe ou se a versão mudou
+            BookVersionDTO atual = repository.findVersaoById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Livro não encontrado com ID: " + id));
+            // Sem If-Match não há versão do cliente a citar: a linha mudou entre o DELETE e a consulta acima
+            String mensagem = versaoEsperada != null
+                    ? "Versão " + versaoEsperada + " do livro " + id + " não é mais a atual"
+                    : "Livro " + id + " foi alterado por outra requisição durante a exclusão";
+            throw new PreconditionFailedException(mensagem + " (versão atual: " + atual.getVersao() + ")");
+        }
+        eventos.publishEvent(BookChangedEvent.removido(id, mapper.toResponse(book)));
+    }
+
+    // Chave da coalescência da listagem
+    private record Pagina(ConsultaLivros consulta, BookCursor.Posicao posicao, int limite) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package br.com.sistema.livros.service;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import br.com.sistema.livros.config.LivrosProperties;
+import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.dto.BookSuggestionDTO;
+import br.com.sistema.livros.dto.BookSuggestionDTO.Campo;
+import br.com.sistema.livros.model.Book;
+import br.com.sistema.livros.repository.BookRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Autocompletar de títulos e autores, respondido só a partir da memória.
+ * O índice é carregado do banco na inicialização (antes do servidor HTTP aceitar requisições)
+ * e depois acompanha os BookChangedEvent de cada transação confirmada.
+ */
+@Service
+public class BookSuggestionService implements SmartInitializingSingleton {
+
+    private final BookRepository repository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final LivrosProperties properties;
+    private final IndiceSugestoes indice;
+
+    public BookSuggestionService(BookRepository repository, EntityManager entityManager,
+            PlatformTransactionManager transactionManager, LivrosProperties properties, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.properties = properties;
+        this.indice = new IndiceSugestoes(properties.getSugestoes().getTamanhoMaximo());
+
+        Gauge.builder("livros.sugestoes.memoria", indice, IndiceSugestoes::bytesEstimados)
+                .description("Heap estimado ocupado pelo índice de sugestões")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+        Gauge.builder("livros.sugestoes.textos", indice, IndiceSugestoes::textos)
+                .description("Títulos e autores distintos no índice de sugestões")
+                .register(meterRegistry);
+    }
+
+
+    // Até "tamanho" títulos/autores que têm uma palavra começando pelo prefixo (sem diferenciar acentos)
+    public List<BookSuggestionDTO> sugerir(String prefixo, Integer tamanho) {
+        if (IndiceSugestoes.canonizarConsulta(prefixo).isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos uma letra ou número no prefixo");
+        }
+        return indice.sugerir(prefixo, resolverTamanho(tamanho));
+    }
+
+    private int resolverTamanho(Integer tamanho) {
+        LivrosProperties.Sugestoes sugestoes = properties.getSugestoes();
+        if (tamanho == null) {
+            return sugestoes.getTamanhoPadrao();
+        }
+        if (tamanho < 1) {
+            throw new IllegalArgumentException("Quantidade de sugestões deve ser maior que zero");
+        }
+        return Math.min(tamanho, sugestoes.getTamanhoMaximo());
+    }
+
+
+    // Carga inicial: roda depois de criados os beans e antes do servidor começar a atender
+    @Override
+    public void afterSingletonsInstantiated() {
+        carregar();
+    }
+
+    // Lê todos os livros por cursor (sem acumular entidades no contexto de persistência) e monta o índice
+    public void carregar() {
+        IndiceSugestoes.Carga carga = indice.iniciarCarga();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Book> books = repository.streamTodos()) {
+                Iterator<Book> iterator = books.iterator();
+                while (iterator.hasNext()) {
+                    Book book = iterator.next();
+                    carga.adicionar(Campo.TITULO, book.getTitulo());
+                    carga.adicionar(Campo.AUTOR, book.getAutor());
+                    entityManager.detach(book);
+                }
+            }
+        });
+        carga.concluir();
+    }
+
+    // Só depois do commit: uma transação desfeita não deixa sugestões para livros que não existem
+    @TransactionalEventListener
+    public void aoAlterarLivro(BookChangedEvent evento) {
+        BookResponseDTO anterior = evento.getAnterior();
+        if (anterior != null) {
+            indice.remover(Campo.TITULO, anterior.getTitulo());
+            indice.remover(Campo.AUTOR, anterior.getAutor());
+        }
+
+        BookResponseDTO atual = evento.getAtual();
+        if (atual != null) {
+            indice.adicionar(Campo.TITULO, atual.getTitulo());
+            indice.adicionar(Campo.AUTOR, atual.getAutor());
+        }
+    }
+}
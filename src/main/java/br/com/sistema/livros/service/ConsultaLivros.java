@@ -0,0 +1,122 @@
+package br.com.sistema.livros.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import br.com.sistema.livros.dto.BookFiltroDTO;
+import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.model.Book;
+import br.com.sistema.livros.repository.BookSpecifications;
+
+/**
+ * Filtros e ordenação da listagem, já validados a partir do BookFiltroDTO.
+ * Também é parte da chave da coalescência de páginas: consultas iguais têm valores iguais.
+ */
+record ConsultaLivros(String autor, LocalDate publicadoDe, LocalDate publicadoAte, String isbnPrefixo,
+        Campo campo, Sort.Direction direcao) {
+
+    // Sem filtros, por ID crescente: a listagem de sempre
+    static final ConsultaLivros PADRAO = new ConsultaLivros(null, null, null, null, Campo.ID, Sort.Direction.ASC);
+
+    // Campos aceitos em ordenarPor; o nome é também o atributo da entidade
+    enum Campo {
+        ID("id"),
+        TITULO("titulo"),
+        AUTOR("autor"),
+        PUBLICADO_EM("publicadoEm");
+
+        private final String nome;
+
+        Campo(String nome) {
+            this.nome = nome;
+        }
+
+        String nome() {
+            return nome;
+        }
+
+        static Campo de(String nome) {
+            for (Campo campo : values()) {
+                if (campo.nome.equalsIgnoreCase(nome)) {
+                    return campo;
+                }
+            }
+            throw new IllegalArgumentException("Ordenação inválida: " + nome + " (use id, titulo, autor ou publicadoEm)");
+        }
+
+        // Valor do campo no livro, como texto (vai para o cursor); null para o ID, que já está no cursor
+        String valor(BookResponseDTO livro) {
+            return switch (this) {
+                case ID -> null;
+                case TITULO -> livro.getTitulo();
+                case AUTOR -> livro.getAutor();
+                case PUBLICADO_EM -> livro.getPublicadoEm().toString();
+            };
+        }
+
+        // Volta do texto do cursor para o tipo do atributo
+        Comparable<?> converter(String valor) {
+            return this == PUBLICADO_EM ? LocalDate.parse(valor) : valor;
+        }
+    }
+
+    static ConsultaLivros de(BookFiltroDTO filtro) {
+        if (filtro.getPublicadoDe() != null && filtro.getPublicadoAte() != null
+                && filtro.getPublicadoDe().isAfter(filtro.getPublicadoAte())) {
+            throw new IllegalArgumentException("publicadoDe deve ser anterior ou igual a publicadoAte");
+        }
+        Campo campo = vazio(filtro.getOrdenarPor()) ? Campo.ID : Campo.de(filtro.getOrdenarPor().trim());
+        Sort.Direction direcao = vazio(filtro.getDirecao()) ? Sort.Direction.ASC
+                : Sort.Direction.fromOptionalString(filtro.getDirecao().trim())
+                        .orElseThrow(() -> new IllegalArgumentException("Direção inválida: " + filtro.getDirecao() + " (use asc ou desc)"));
+
+        return new ConsultaLivros(aparado(filtro.getAutor()), filtro.getPublicadoDe(), filtro.getPublicadoAte(),
+                aparado(filtro.getIsbnPrefixo()), campo, direcao);
+    }
+
+    // Filtro de texto sem os espaços das pontas ("?autor=%20Machado"); só espaços vale como não informado
+    private static String aparado(String valor) {
+        return vazio(valor) ? null : valor.trim();
+    }
+
+    private static boolean vazio(String valor) {
+        return valor == null || valor.isBlank();
+    }
+
+    boolean isPadrao() {
+        return equals(PADRAO);
+    }
+
+    // Filtros + posição do cursor (null na primeira página). Ordenar por data deixa de fora os livros antigos
+    // sem data de publicação: o keyset precisa de um valor em cada linha
+    Specification<Book> especificacao(BookCursor.Posicao posicao) {
+        List<Specification<Book>> condicoes = new ArrayList<>();
+        if (autor != null) {
+            condicoes.add(BookSpecifications.doAutor(autor));
+        }
+        if (publicadoDe != null) {
+            condicoes.add(BookSpecifications.publicadosDesde(publicadoDe));
+        }
+        if (publicadoAte != null) {
+            condicoes.add(BookSpecifications.publicadosAte(publicadoAte));
+        }
+        if (isbnPrefixo != null) {
+            condicoes.add(BookSpecifications.comIsbnIniciadoPor(isbnPrefixo));
+        }
+        if (campo == Campo.PUBLICADO_EM) {
+            condicoes.add(BookSpecifications.comDataDePublicacao());
+        }
+        if (posicao != null) {
+            condicoes.add(BookSpecifications.depoisDe(campo.nome(), direcao, posicao.valor(), posicao.id()));
+        }
+        return Specification.allOf(condicoes);
+    }
+
+    // O ID desempata os valores repetidos, na mesma direção (uma única leitura do índice "campo, id")
+    Sort ordem() {
+        Sort porId = Sort.by(direcao, "id");
+        return campo == Campo.ID ? porId : Sort.by(direcao, campo.nome()).and(porId);
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.sistema.livros.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom de textos (ISBNs): responde "com certeza não existe" ou "talvez exista".
+ *
+ * O tamanho (bits e funções de hash) é calculado para a capacidade e a taxa de falsos positivos pedidas.
+ * As k posições de cada texto saem de dois hashes de 64 bits combinados (h1 + i * h2), e os bits vivem num
+ * AtomicLongArray: inclusões e consultas concorrentes não usam trava. Não há remoção; um texto removido
+ * continua ocupando seus bits até o filtro ser reconstruído.
+ */
+final class FiltroBloom {
+
+    private static final long FNV_INICIO = 0xcbf29ce484222325L;
+    private static final long FNV_PRIMO = 0x100000001b3L;
+
+    private final AtomicLongArray palavras;
+    private final long bits;
+    private final int funcoes;
+
+    // Bits ligados, para estimar a taxa de falsos positivos sem percorrer o array
+    private final LongAdder ligados = new LongAdder();
+
+    FiltroBloom(long capacidade, double taxaFalsosPositivos) {
+        if (capacidade < 1 || taxaFalsosPositivos <= 0 || taxaFalsosPositivos >= 1) {
+            throw new IllegalArgumentException("Capacidade deve ser positiva e a taxa de falsos positivos estar entre 0 e 1");
+        }
+        // m = -n ln(p) / ln(2)^2 e k = (m / n) ln(2), arredondando m para palavras inteiras de 64 bits
+        double ln2 = Math.log(2);
+        long bitsIdeais = (long) Math.ceil(-capacidade * Math.log(taxaFalsosPositivos) / (ln2 * ln2));
+        int quantidadePalavras = Math.toIntExact(Math.max(1, (bitsIdeais + 63) / 64));
+        this.palavras = new AtomicLongArray(quantidadePalavras);
+        this.bits = quantidadePalavras * 64L;
+        this.funcoes = (int) Math.max(1, Math.round((double) bits / capacidade * ln2));
+    }
+
+    void adicionar(String texto) {
+        long h1 = hash(texto);
+        long h2 = misturar(h1 ^ 0x9e3779b97f4a7c15L);
+        for (int i = 0; i < funcoes; i++) {
+            long posicao = Long.remainderUnsigned(h1 + i * h2, bits);
+            int indice = (int) (posicao >>> 6);
+            long mascara = 1L << posicao;
+            // Só escreve (CAS) quando o bit ainda está desligado: textos repetidos não disputam a linha de cache
+            if ((palavras.get(indice) & mascara) == 0
+                    && (palavras.getAndAccumulate(indice, mascara, (atual, bit) -> atual | bit) & mascara) == 0) {
+                ligados.increment();
+            }
+        }
+    }
+
+    boolean talvezContenha(String texto) {
+        long h1 = hash(texto);
+        long h2 = misturar(h1 ^ 0x9e3779b97f4a7c15L);
+        for (int i = 0; i < funcoes; i++) {
+            long posicao = Long.remainderUnsigned(h1 + i * h2, bits);
+            if ((palavras.get((int) (posicao >>> 6)) & (1L << posicao)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Probabilidade de um texto nunca incluído responder "talvez": (fração de bits ligados)^k
+    double taxaEstimada() {
+        return Math.pow((double) ligados.sum() / bits, funcoes);
+    }
+
+    long bytes() {
+        return palavras.length() * (long) Long.BYTES;
+    }
+
+    int funcoes() {
+        return funcoes;
+    }
+
+    // FNV-1a sobre os caracteres (sem alocar bytes), com a mistura final do MurmurHash3 para espalhar os bits
+    private static long hash(String texto) {
+        long h = FNV_INICIO;
+        for (int i = 0; i < texto.length(); i++) {
+            h ^= texto.charAt(i);
+            h *= FNV_PRIMO;
+        }
+        return misturar(h);
+    }
+
+    private static long misturar(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
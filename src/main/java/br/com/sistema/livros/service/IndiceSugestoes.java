@@ -0,0 +1,591 @@
+package br.com.sistema.livros.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import br.com.sistema.livros.dto.BookSuggestionDTO;
+import br.com.sistema.livros.dto.BookSuggestionDTO.Campo;
+
+/**
+ * Índice de prefixos em memória para o autocompletar de títulos e autores.
+ *
+ * Cada texto distinto (ex.: um título) é guardado uma única vez, com a quantidade de livros que o usam.
+ * Cada início de palavra da forma canônica (minúsculas, sem acentos, pontuação vira um espaço) é uma entrada
+ * (texto, posição) numa árvore de prefixos, então "sert" encontra "Grande Sertão: Veredas" descendo s-e-r-t.
+ * As entradas não copiam o texto: o caminho na árvore é lido direto da forma canônica.
+ *
+ * Cada nó já guarda os melhores textos de tudo o que está abaixo dele (até maximoSugestoes), então uma
+ * consulta desce até o nó do prefixo e lê no máximo "limite" textos, sem depender de quantos combinam.
+ * Um nó começa como um balde de poucas entradas e só se divide por caractere quando passa de LIMITE_BALDE;
+ * uma consulta que termina antes num balde confere as entradas dele uma a uma.
+ *
+ * Há duas árvores: a do início do texto e a das demais palavras, porque quem começa pelo prefixo vem antes.
+ *
+ * Leituras não bloqueiam (campos voláteis com arrays imutáveis); as escritas, uma por livro alterado,
+ * são serializadas e refazem os melhores só nos nós do caminho de cada palavra do texto.
+ */
+final class IndiceSugestoes {
+
+    private static final int MAXIMO_TEXTO = 1024;
+
+    // Entradas que um nó guarda numa lista simples antes de se dividir por caractere
+    private static final int LIMITE_BALDE = 16;
+
+    private static final char SEPARADOR = ' ';
+
+    // Estimativas de heap por objeto, para a métrica de memória
+    private static final int BYTES_NO = 64;
+    private static final int BYTES_ENTRADA = 32;
+    private static final int BYTES_REFERENCIA = 8;
+
+    // Forma canônica dos caracteres latinos mais comuns, pré-calculada: 'Ã' -> 'a', ':' -> ' '
+    private static final char[] DOBRA = new char[0x250];
+
+    static {
+        for (char c = 0; c < DOBRA.length; c++) {
+            char base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0);
+            char minuscula = Character.toLowerCase(base);
+            DOBRA[c] = Character.isLetterOrDigit(minuscula) ? minuscula : SEPARADOR;
+        }
+    }
+
+    private static final Entrada[] SEM_ENTRADAS = new Entrada[0];
+    private static final Texto[] SEM_TEXTOS = new Texto[0];
+
+    // Quantos textos cada nó guarda pronto: o maior "limite" que uma consulta pode pedir
+    private final int maximoSugestoes;
+
+    private volatile Estado estado;
+
+    IndiceSugestoes(int maximoSugestoes) {
+        if (maximoSugestoes < 1) {
+            throw new IllegalArgumentException("O índice de sugestões precisa guardar ao menos um texto por prefixo");
+        }
+        this.maximoSugestoes = maximoSugestoes;
+        this.estado = new Estado(maximoSugestoes, false);
+    }
+
+
+    // ========== CONSULTA ==========
+
+    // Até "limite" sugestões para o prefixo: primeiro as que começam pelo prefixo, depois as mais usadas
+    List<BookSuggestionDTO> sugerir(String prefixo, int limite) {
+        String consulta = canonizarConsulta(prefixo);
+        if (consulta.isEmpty()) {
+            return List.of();
+        }
+
+        Estado atual = estado;
+        int quantidade = Math.min(limite, maximoSugestoes);
+        List<BookSuggestionDTO> sugestoes = new ArrayList<>(quantidade);
+        for (Texto texto : atual.inicios.buscar(consulta)) {
+            if (sugestoes.size() == quantidade) {
+                return sugestoes;
+            }
+            adicionarSugestao(sugestoes, texto);
+        }
+        // Quem também começa pelo prefixo já entrou acima, pela outra árvore
+        for (Texto texto : atual.palavras.buscar(consulta)) {
+            if (sugestoes.size() == quantidade) {
+                break;
+            }
+            if (!texto.canonico.startsWith(consulta)) {
+                adicionarSugestao(sugestoes, texto);
+            }
+        }
+        return sugestoes;
+    }
+
+    private static void adicionarSugestao(List<BookSuggestionDTO> sugestoes, Texto texto) {
+        int livros = texto.livros.get();
+        if (livros > 0) { // Zerado por uma escrita em andamento
+            sugestoes.add(new BookSuggestionDTO(texto.original, texto.campo, livros));
+        }
+    }
+
+    // Quantidade de textos distintos indexados
+    int textos() {
+        return estado.textos.values().stream().mapToInt(Map::size).sum();
+    }
+
+    // Estimativa do heap ocupado pelo índice, em bytes
+    long bytesEstimados() {
+        return estado.bytes.get();
+    }
+
+
+    // ========== ATUALIZAÇÃO ==========
+
+    void adicionar(Campo campo, String texto) {
+        atualizar(campo, texto, 1);
+    }
+
+    void remover(Campo campo, String texto) {
+        atualizar(campo, texto, -1);
+    }
+
+    private synchronized void atualizar(Campo campo, String texto, int delta) {
+        if (texto != null) {
+            estado.somar(campo, limitar(texto), delta);
+        }
+    }
+
+    // Substitui todo o conteúdo do índice pelos textos da carga
+    Carga iniciarCarga() {
+        return new Carga();
+    }
+
+    // Monta um índice novo sem refazer os melhores a cada texto: eles são calculados uma vez só, no fim
+    final class Carga {
+
+        private final Estado novo = new Estado(maximoSugestoes, true);
+
+        private Carga() {
+        }
+
+        void adicionar(Campo campo, String texto) {
+            if (texto != null) {
+                novo.somar(campo, limitar(texto), 1);
+            }
+        }
+
+        void concluir() {
+            novo.concluirCarga();
+            synchronized (IndiceSugestoes.this) {
+                estado = novo;
+            }
+        }
+    }
+
+
+    // ========== FORMA CANÔNICA ==========
+
+    static char dobrar(char c) {
+        if (c < DOBRA.length) {
+            return DOBRA[c];
+        }
+        return Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : SEPARADOR;
+    }
+
+    // "Grande Sertão: Veredas!" -> "grande sertao veredas" (uma sequência de separadores vale um único espaço)
+    static String canonizar(String texto) {
+        StringBuilder canonico = new StringBuilder(texto.length());
+        boolean separadorPendente = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = dobrar(texto.charAt(i));
+            if (c == SEPARADOR) {
+                separadorPendente = canonico.length() > 0;
+                continue;
+            }
+            if (separadorPendente) {
+                canonico.append(SEPARADOR);
+                separadorPendente = false;
+            }
+            canonico.append(c);
+        }
+        return canonico.toString();
+    }
+
+    // Como canonizar, mas mantém um espaço final digitado pelo usuário ("dom " não deve sugerir "Domingo")
+    static String canonizarConsulta(String prefixo) {
+        if (prefixo == null) {
+            return "";
+        }
+        String canonico = canonizar(limitar(prefixo));
+        boolean terminaComSeparador = !prefixo.isEmpty() && dobrar(prefixo.charAt(prefixo.length() - 1)) == SEPARADOR;
+        return canonico.isEmpty() || !terminaComSeparador ? canonico : canonico + SEPARADOR;
+    }
+
+    private static String limitar(String texto) {
+        return texto.length() > MAXIMO_TEXTO ? texto.substring(0, MAXIMO_TEXTO) : texto;
+    }
+
+    // Posição de cada início de palavra da forma canônica
+    private static List<Integer> iniciosDePalavra(String canonico) {
+        List<Integer> inicios = new ArrayList<>();
+        for (int i = 0; i < canonico.length(); i++) {
+            if (i == 0 || canonico.charAt(i - 1) == SEPARADOR) {
+                inicios.add(i);
+            }
+        }
+        return inicios;
+    }
+
+
+    // ========== ESTRUTURAS ==========
+
+    // Textos por campo e forma canônica, e as duas árvores de prefixos
+    private static final class Estado {
+
+        final Map<Campo, ConcurrentHashMap<String, Texto>> textos = new EnumMap<>(Campo.class);
+        final AtomicLong bytes = new AtomicLong();
+        final int maximoSugestoes;
+        final Arvore inicios;
+        final Arvore palavras;
+
+        // Durante a carga os melhores de cada nó só são calculados em concluirCarga
+        boolean carregando;
+
+        Estado(int maximoSugestoes, boolean carregando) {
+            this.maximoSugestoes = maximoSugestoes;
+            this.carregando = carregando;
+            for (Campo campo : Campo.values()) {
+                textos.put(campo, new ConcurrentHashMap<>());
+            }
+            this.inicios = new Arvore();
+            this.palavras = new Arvore();
+        }
+
+        // Chamado por uma escrita de cada vez: o texto entra no primeiro livro e sai quando a contagem zera
+        void somar(Campo campo, String original, int delta) {
+            String canonico = canonizar(original);
+            if (canonico.isEmpty()) {
+                return; // Texto sem letras nem números
+            }
+            Texto texto = textos.get(campo).get(canonico);
+            if (texto == null) {
+                if (delta > 0) {
+                    incluir(new Texto(original, canonico, campo, delta));
+                }
+                return;
+            }
+            if (texto.livros.addAndGet(delta) <= 0) {
+                excluir(texto);
+            } else if (!carregando) {
+                for (int inicio : iniciosDePalavra(canonico)) {
+                    arvore(inicio).recalcular(arvore(inicio).caminho(new Entrada(texto, inicio)));
+                }
+            }
+        }
+
+        void concluirCarga() {
+            inicios.recalcularTudo(inicios.raiz);
+            palavras.recalcularTudo(palavras.raiz);
+            carregando = false;
+        }
+
+        private void incluir(Texto texto) {
+            textos.get(texto.campo).put(texto.canonico, texto);
+            bytes.addAndGet(texto.bytes());
+            for (int inicio : iniciosDePalavra(texto.canonico)) {
+                arvore(inicio).incluir(new Entrada(texto, inicio));
+            }
+        }
+
+        private void excluir(Texto texto) {
+            textos.get(texto.campo).remove(texto.canonico, texto);
+            bytes.addAndGet(-texto.bytes());
+            for (int inicio : iniciosDePalavra(texto.canonico)) {
+                arvore(inicio).excluir(new Entrada(texto, inicio));
+            }
+        }
+
+        private Arvore arvore(int inicio) {
+            return inicio == 0 ? inicios : palavras;
+        }
+
+        // Árvore de prefixos: cada nó é um balde de entradas ou se divide em filhos por caractere
+        final class Arvore {
+
+            final No raiz = new No(SEM_ENTRADAS);
+
+            Arvore() {
+                bytes.addAndGet(BYTES_NO);
+            }
+
+            // Textos com alguma entrada começando pela consulta, do melhor para o pior
+            List<Texto> buscar(String consulta) {
+                No no = raiz;
+                for (int profundidade = 0; profundidade < consulta.length(); profundidade++) {
+                    Entrada[] balde = no.balde;
+                    if (balde != null) {
+                        return filtrar(balde, consulta);
+                    }
+                    no = no.filhos.buscar(consulta.charAt(profundidade));
+                    if (no == null) {
+                        return List.of();
+                    }
+                }
+                return Arrays.asList(no.melhores);
+            }
+
+            // Balde alcançado antes do fim da consulta: no máximo LIMITE_BALDE entradas conferidas
+            private List<Texto> filtrar(Entrada[] balde, String consulta) {
+                Set<Texto> encontrados = new HashSet<>();
+                for (Entrada entrada : balde) {
+                    if (entrada.texto.canonico.startsWith(consulta, entrada.inicio)) {
+                        encontrados.add(entrada.texto);
+                    }
+                }
+                List<Texto> ordenados = new ArrayList<>(encontrados);
+                ordenados.sort(Texto.RANKING);
+                return ordenados;
+            }
+
+            void incluir(Entrada entrada) {
+                List<No> caminho = new ArrayList<>();
+                No no = raiz;
+                for (int profundidade = 0; ; profundidade++) {
+                    caminho.add(no);
+                    Entrada[] balde = no.balde;
+                    if (balde != null) {
+                        no.balde = acrescentar(balde, entrada);
+                        if (balde.length + 1 > LIMITE_BALDE) {
+                            dividir(no, profundidade);
+                        }
+                        break;
+                    }
+                    if (entrada.tamanho() == profundidade) {
+                        no.terminais = acrescentar(no.terminais, entrada);
+                        break;
+                    }
+                    char caractere = entrada.caractere(profundidade);
+                    No filho = no.filhos.buscar(caractere);
+                    if (filho == null) {
+                        filho = new No(SEM_ENTRADAS);
+                        bytes.addAndGet(BYTES_NO);
+                        no.filhos = no.filhos.com(caractere, filho);
+                    }
+                    no = filho;
+                }
+                bytes.addAndGet(BYTES_ENTRADA);
+                if (!carregando) {
+                    recalcular(caminho);
+                }
+            }
+
+            void excluir(Entrada entrada) {
+                List<No> caminho = caminho(entrada);
+                No ultimo = caminho.get(caminho.size() - 1);
+                if (ultimo.balde != null) {
+                    ultimo.balde = retirar(ultimo.balde, entrada);
+                } else {
+                    ultimo.terminais = retirar(ultimo.terminais, entrada);
+                }
+                bytes.addAndGet(-BYTES_ENTRADA);
+
+                // Nós que ficaram vazios saem da árvore (a raiz fica)
+                for (int i = caminho.size() - 1; i > 0 && caminho.get(i).vazio(); i--) {
+                    No pai = caminho.get(i - 1);
+                    pai.filhos = pai.filhos.sem(entrada.caractere(i - 1));
+                    bytes.addAndGet(-BYTES_NO - (long) BYTES_REFERENCIA * caminho.remove(i).melhores.length);
+                }
+                recalcular(caminho);
+            }
+
+            // Nós da raiz até o que guarda a entrada (balde ou terminal)
+            List<No> caminho(Entrada entrada) {
+                List<No> caminho = new ArrayList<>();
+                No no = raiz;
+                for (int profundidade = 0; ; profundidade++) {
+                    caminho.add(no);
+                    if (no.balde != null || entrada.tamanho() == profundidade) {
+                        return caminho;
+                    }
+                    no = no.filhos.buscar(entrada.caractere(profundidade));
+                }
+            }
+
+            // O balde passou do limite: as entradas descem para filhos por caractere (e os filhos cheios, também)
+            private void dividir(No no, int profundidade) {
+                List<Entrada> terminais = new ArrayList<>();
+                TreeMap<Character, List<Entrada>> grupos = new TreeMap<>();
+                for (Entrada entrada : no.balde) {
+                    if (entrada.tamanho() == profundidade) {
+                        terminais.add(entrada);
+                    } else {
+                        grupos.computeIfAbsent(entrada.caractere(profundidade), c -> new ArrayList<>()).add(entrada);
+                    }
+                }
+
+                char[] letras = new char[grupos.size()];
+                No[] nos = new No[grupos.size()];
+                int i = 0;
+                for (Map.Entry<Character, List<Entrada>> grupo : grupos.entrySet()) {
+                    No filho = new No(grupo.getValue().toArray(SEM_ENTRADAS));
+                    bytes.addAndGet(BYTES_NO);
+                    if (filho.balde.length > LIMITE_BALDE) {
+                        dividir(filho, profundidade + 1);
+                    }
+                    if (!carregando) {
+                        recalcular(filho);
+                    }
+                    letras[i] = grupo.getKey();
+                    nos[i++] = filho;
+                }
+
+                // Quem lê o balde antigo ainda vê um conteúdo completo; o balde só some depois dos filhos prontos
+                no.terminais = terminais.toArray(SEM_ENTRADAS);
+                no.filhos = new Filhos(letras, nos);
+                no.balde = null;
+            }
+
+            void recalcular(List<No> caminho) {
+                for (int i = caminho.size() - 1; i >= 0; i--) {
+                    recalcular(caminho.get(i));
+                }
+            }
+
+            // Depois da carga: filhos antes dos pais
+            void recalcularTudo(No no) {
+                if (no.balde == null) {
+                    for (No filho : no.filhos.nos) {
+                        recalcularTudo(filho);
+                    }
+                }
+                recalcular(no);
+            }
+
+            // Melhores do nó: das entradas do balde, ou das terminais mais os melhores de cada filho
+            private void recalcular(No no) {
+                Set<Texto> candidatos = new HashSet<>();
+                Entrada[] balde = no.balde;
+                if (balde != null) {
+                    for (Entrada entrada : balde) {
+                        candidatos.add(entrada.texto);
+                    }
+                } else {
+                    for (Entrada entrada : no.terminais) {
+                        candidatos.add(entrada.texto);
+                    }
+                    for (No filho : no.filhos.nos) {
+                        candidatos.addAll(Arrays.asList(filho.melhores));
+                    }
+                }
+
+                Texto[] melhores = candidatos.toArray(SEM_TEXTOS);
+                Arrays.sort(melhores, Texto.RANKING);
+                if (melhores.length > maximoSugestoes) {
+                    melhores = Arrays.copyOf(melhores, maximoSugestoes);
+                }
+                bytes.addAndGet((long) BYTES_REFERENCIA * (melhores.length - no.melhores.length));
+                no.melhores = melhores;
+            }
+        }
+    }
+
+    // Um nó da árvore: enquanto "balde" não é nulo, as entradas ficam nele; depois, em "terminais" e "filhos"
+    private static final class No {
+
+        volatile Entrada[] balde;
+        volatile Entrada[] terminais = SEM_ENTRADAS;
+        volatile Filhos filhos = Filhos.NENHUM;
+        volatile Texto[] melhores = SEM_TEXTOS;
+
+        No(Entrada[] balde) {
+            this.balde = balde;
+        }
+
+        boolean vazio() {
+            Entrada[] atual = balde;
+            if (atual != null) {
+                return atual.length == 0;
+            }
+            return terminais.length == 0 && filhos.nos.length == 0;
+        }
+    }
+
+    // Filhos de um nó ordenados pelo caractere; imutável, trocado inteiro a cada inclusão ou exclusão
+    private static final class Filhos {
+
+        static final Filhos NENHUM = new Filhos(new char[0], new No[0]);
+
+        final char[] letras;
+        final No[] nos;
+
+        Filhos(char[] letras, No[] nos) {
+            this.letras = letras;
+            this.nos = nos;
+        }
+
+        No buscar(char letra) {
+            int posicao = Arrays.binarySearch(letras, letra);
+            return posicao >= 0 ? nos[posicao] : null;
+        }
+
+        Filhos com(char letra, No no) {
+            int posicao = -Arrays.binarySearch(letras, letra) - 1;
+            char[] novasLetras = new char[letras.length + 1];
+            No[] novosNos = new No[nos.length + 1];
+            System.arraycopy(letras, 0, novasLetras, 0, posicao);
+            System.arraycopy(nos, 0, novosNos, 0, posicao);
+            novasLetras[posicao] = letra;
+            novosNos[posicao] = no;
+            System.arraycopy(letras, posicao, novasLetras, posicao + 1, letras.length - posicao);
+            System.arraycopy(nos, posicao, novosNos, posicao + 1, nos.length - posicao);
+            return new Filhos(novasLetras, novosNos);
+        }
+
+        Filhos sem(char letra) {
+            int posicao = Arrays.binarySearch(letras, letra);
+            char[] novasLetras = new char[letras.length - 1];
+            No[] novosNos = new No[nos.length - 1];
+            System.arraycopy(letras, 0, novasLetras, 0, posicao);
+            System.arraycopy(nos, 0, novosNos, 0, posicao);
+            System.arraycopy(letras, posicao + 1, novasLetras, posicao, letras.length - posicao - 1);
+            System.arraycopy(nos, posicao + 1, novosNos, posicao, nos.length - posicao - 1);
+            return new Filhos(novasLetras, novosNos);
+        }
+    }
+
+    private static Entrada[] acrescentar(Entrada[] entradas, Entrada entrada) {
+        Entrada[] novas = Arrays.copyOf(entradas, entradas.length + 1);
+        novas[entradas.length] = entrada;
+        return novas;
+    }
+
+    private static Entrada[] retirar(Entrada[] entradas, Entrada entrada) {
+        return Arrays.stream(entradas).filter(atual -> !atual.equals(entrada)).toArray(Entrada[]::new);
+    }
+
+    // Um início de palavra de um texto: o caminho na árvore é a forma canônica a partir de "inicio"
+    private record Entrada(Texto texto, int inicio) {
+
+        int tamanho() {
+            return texto.canonico.length() - inicio;
+        }
+
+        char caractere(int profundidade) {
+            return texto.canonico.charAt(inicio + profundidade);
+        }
+    }
+
+    private static final class Texto {
+
+        // Os textos usados por mais livros primeiro; empate em ordem alfabética
+        static final Comparator<Texto> RANKING = (a, b) -> {
+            int livros = Integer.compare(b.livros.get(), a.livros.get());
+            return livros != 0 ? livros : a.original.compareTo(b.original);
+        };
+
+        final String original;
+        final String canonico;
+        final Campo campo;
+        final AtomicInteger livros;
+
+        Texto(String original, String canonico, Campo campo, int livros) {
+            this.original = original;
+            this.canonico = canonico;
+            this.campo = campo;
+            this.livros = new AtomicInteger(livros);
+        }
+
+        long bytes() {
+            return 64 + bytesDe(original) + (canonico.equals(original) ? 0 : bytesDe(canonico));
+        }
+
+        private static long bytesDe(String texto) {
+            return 40 + 2L * texto.length();
+        }
+    }
+}
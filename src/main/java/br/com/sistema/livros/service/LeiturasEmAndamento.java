@@ -0,0 +1,90 @@
+package br.com.sistema.livros.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalescência de leituras idênticas simultâneas ("single-flight").
+ *
+ * A primeira chamada de uma chave executa a carga; as que chegam enquanto ela está em andamento esperam e
+ * recebem o mesmo resultado (ou a mesma exceção), sem ir ao banco. Nada é guardado depois que a carga termina:
+ * a próxima chamada executa de novo, então isto não é um cache.
+ *
+ * Para não entregar dado antigo, cada carga anota a geração em que começou (incrementada a cada alteração
+ * confirmada); quem chega depois de uma alteração não aproveita uma carga anterior a ela e executa a sua.
+ */
+final class LeiturasEmAndamento<K, V> {
+
+    private final ConcurrentHashMap<K, Carga<V>> emAndamento = new ConcurrentHashMap<>();
+    private final LongSupplier geracao;
+    private final Counter executadas;
+    private final Counter compartilhadas;
+
+    LeiturasEmAndamento(String operacao, LongSupplier geracao, MeterRegistry meterRegistry) {
+        this.geracao = geracao;
+        this.executadas = Counter.builder("livros.leituras.coalescencia")
+                .description("Leituras do BookService, executadas no banco ou compartilhadas com uma idêntica em andamento")
+                .tag("operacao", operacao)
+                .tag("resultado", "executada")
+                .register(meterRegistry);
+        this.compartilhadas = Counter.builder("livros.leituras.coalescencia")
+                .description("Leituras do BookService, executadas no banco ou compartilhadas com uma idêntica em andamento")
+                .tag("operacao", operacao)
+                .tag("resultado", "compartilhada")
+                .register(meterRegistry);
+    }
+
+    V executar(K chave, Supplier<V> carga) {
+        long atual = geracao.getAsLong();
+        Carga<V> minha = new Carga<>(atual);
+        // Uma carga de geração anterior continua para quem já a espera, mas sai do mapa para as novas chamadas
+        Carga<V> vigente = emAndamento.compute(chave, (k, existente) -> existente != null && existente.geracao == atual ? existente : minha);
+
+        if (vigente != minha) {
+            compartilhadas.increment();
+            return vigente.aguardar();
+        }
+
+        executadas.increment();
+        try {
+            V valor = carga.get();
+            minha.resultado.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error ex) {
+            minha.resultado.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            emAndamento.remove(chave, minha);
+        }
+    }
+
+    private static final class Carga<V> {
+
+        private final long geracao;
+        private final CompletableFuture<V> resultado = new CompletableFuture<>();
+
+        private Carga(long geracao) {
+            this.geracao = geracao;
+        }
+
+        private V aguardar() {
+            try {
+                return resultado.join();
+            } catch (CompletionException ex) {
+                // Mesma exceção da chamada que executou (EntityNotFoundException, falha de banco...)
+                if (ex.getCause() instanceof RuntimeException causa) {
+                    throw causa;
+                }
+                if (ex.getCause() instanceof Error erro) {
+                    throw erro;
+                }
+                throw ex;
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.sistema.livros.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Normalização de texto usada nas buscas: minúsculas, sem acentos e quebrada em termos de letras e dígitos
+ * (de qualquer alfabeto).
+ * É a mesma transformação aplicada pelo banco (unaccent + to_tsvector 'simple'), então
+ * "Sertão" e "sertao" produzem o mesmo termo.
+ */
+final class TermosBusca {
+
+    // Limite de termos por consulta, para não gerar consultas arbitrariamente grandes
+    static final int MAXIMO_TERMOS = 8;
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    // Letras e dígitos de qualquer alfabeto (\p{Alnum} sozinho é só ASCII: "ø" e o cirílico virariam separadores)
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Letras que não se decompõem em letra + acento, transliteradas como no unaccent.rules do PostgreSQL
+    private static final Map<Character, String> TRANSLITERACOES = Map.ofEntries(
+            Map.entry('ø', "o"), Map.entry('ß', "ss"), Map.entry('æ', "ae"), Map.entry('œ', "oe"),
+            Map.entry('ł', "l"), Map.entry('đ', "d"), Map.entry('ð', "d"), Map.entry('þ', "th"),
+            Map.entry('ħ', "h"), Map.entry('ı', "i"), Map.entry('ŧ', "t"));
+
+    private TermosBusca() {
+    }
+
+    // "Grande Sertão: Veredas" -> "grande sertao: veredas"
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        // O unaccent não mexe no "й" (é letra própria do cirílico, não "и" acentuado): a decomposição é desfeita
+        String decomposto = Normalizer.normalize(texto, Normalizer.Form.NFD).replace("и\u0306", "й").replace("И\u0306", "Й");
+        String semAcentos = ACENTOS.matcher(decomposto).replaceAll("");
+        String minusculas = semAcentos.toLowerCase(Locale.ROOT);
+        StringBuilder resultado = new StringBuilder(minusculas.length());
+        for (int i = 0; i < minusculas.length(); i++) {
+            char letra = minusculas.charAt(i);
+            String transliterada = TRANSLITERACOES.get(letra);
+            if (transliterada != null) {
+                resultado.append(transliterada);
+            } else {
+                resultado.append(letra);
+            }
+        }
+        return resultado.toString();
+    }
+
+    // "Grande Sertão: Veredas" -> [grande, sertao, veredas]
+    static List<String> termos(String texto) {
+        List<String> termos = new ArrayList<>();
+        for (String termo : SEPARADORES.split(normalizar(texto))) {
+            if (!termo.isEmpty() && !termos.contains(termo)) {
+                termos.add(termo);
+            }
+            if (termos.size() == MAXIMO_TERMOS) {
+                break;
+            }
+        }
+        return termos;
+    }
+}
@@ -0,0 +1,5 @@
+-- Controle de concorrência otimista (@Version) e data da última alteração (ETag / Last-Modified).
+-- updated_at fica nulo nas linhas existentes (evita reescrever a tabela inteira);
+-- enquanto for nulo, a aplicação usa created_at como data da última alteração.
+ALTER TABLE books ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE books ADD COLUMN updated_at TIMESTAMP;
@@ -0,0 +1,17 @@
+-- Outbox das alterações de livros: uma linha por criação/alteração/remoção, gravada na mesma transação.
+-- seq é a posição no feed (GET /api/v1/books/changes?since=...); os campos do livro guardam o estado
+-- depois da alteração (o anterior, na remoção), para o consumidor não precisar buscar cada livro.
+CREATE TABLE book_changes (
+    seq BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tipo VARCHAR(10) NOT NULL,
+    livro_id BIGINT NOT NULL,
+    titulo VARCHAR(200),
+    autor VARCHAR(100),
+    isbn VARCHAR(20),
+    publicado_em DATE,
+    versao BIGINT,
+    ocorrido_em TIMESTAMP NOT NULL
+);
+
+-- Limpeza das alterações fora do período de retenção
+CREATE INDEX idx_book_changes_ocorrido_em ON book_changes (ocorrido_em);
@@ -0,0 +1,211 @@
+package br.com.sistema.livros.carga;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntPredicate;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Gerador de carga HTTP usado pelos testes de carga: N clientes (virtual threads) sorteiam operações por peso
+ * e registram a latência de cada uma em um histograma HdrHistogram (resolução de 1 µs, 3 dígitos significativos).
+ *
+ * Sem taxa definida, cada cliente manda a próxima requisição assim que recebe a resposta (carga fechada).
+ * Com taxa por cliente, as requisições seguem um cronograma fixo e a latência conta a partir do horário
+ * planejado: se o servidor trava, o atraso acumulado aparece nos percentis (sem "coordinated omission").
+ */
+final class GeradorCarga {
+
+    // Uma requisição: devolve o status HTTP, ou NAO_SE_APLICA quando não há o que fazer agora (ex.: nada para excluir)
+    @FunctionalInterface
+    interface Requisicao {
+        int executar(ThreadLocalRandom aleatorio) throws IOException, InterruptedException;
+    }
+
+    static final int NAO_SE_APLICA = -1;
+
+    // Operação do mix: nome no relatório, peso no sorteio e quais status contam como sucesso
+    record Operacao(String nome, int peso, IntPredicate sucesso, Requisicao requisicao) {
+    }
+
+    private final int clientes;
+    private final double taxaPorCliente;
+    private final List<Operacao> operacoes;
+    private final int pesoTotal;
+
+    GeradorCarga(int clientes, double taxaPorCliente, List<Operacao> operacoes) {
+        this.clientes = clientes;
+        this.taxaPorCliente = taxaPorCliente;
+        this.operacoes = List.copyOf(operacoes);
+        this.pesoTotal = operacoes.stream().mapToInt(Operacao::peso).sum();
+        if (pesoTotal <= 0) {
+            throw new IllegalArgumentException("Informe ao menos uma operação com peso maior que zero");
+        }
+    }
+
+    // Roda o mix pelo tempo pedido e devolve os histogramas de cada operação
+    Resultado executar(Duration duracao) throws InterruptedException, ExecutionException {
+        Map<String, Recorder> latencias = new LinkedHashMap<>();
+        Map<String, AtomicLong> erros = new LinkedHashMap<>();
+        for (Operacao operacao : operacoes) {
+            latencias.put(operacao.nome(), new Recorder(3));
+            erros.put(operacao.nome(), new AtomicLong());
+        }
+
+        long inicio = System.nanoTime();
+        long fim = inicio + duracao.toNanos();
+        long intervalo = taxaPorCliente > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / taxaPorCliente) : 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> emExecucao = new ArrayList<>();
+            for (int c = 0; c < clientes; c++) {
+                // Clientes com taxa começam espalhados dentro do primeiro intervalo, não todos no mesmo instante
+                long primeiro = intervalo > 0 ? inicio + ThreadLocalRandom.current().nextLong(intervalo) : inicio;
+                emExecucao.add(executor.submit(() -> {
+                    cliente(primeiro, fim, intervalo, latencias, erros);
+                    return null;
+                }));
+            }
+            for (Future<?> cliente : emExecucao) {
+                cliente.get();
+            }
+        }
+
+        long decorrido = System.nanoTime() - inicio;
+        Map<String, Histogram> histogramas = new LinkedHashMap<>();
+        Map<String, Long> errosPorOperacao = new LinkedHashMap<>();
+        latencias.forEach((nome, recorder) -> histogramas.put(nome, recorder.getIntervalHistogram()));
+        erros.forEach((nome, contador) -> errosPorOperacao.put(nome, contador.get()));
+        return new Resultado(Duration.ofNanos(decorrido), histogramas, errosPorOperacao);
+    }
+
+    private void cliente(long primeiro, long fim, long intervalo, Map<String, Recorder> latencias,
+            Map<String, AtomicLong> erros) throws InterruptedException {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        long planejado = primeiro;
+
+        while (planejado < fim) {
+            if (intervalo > 0) {
+                long espera = planejado - System.nanoTime();
+                if (espera > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+            } else {
+                planejado = System.nanoTime();
+            }
+
+            Operacao operacao = sortear(aleatorio);
+            int status;
+            try {
+                status = operacao.requisicao().executar(aleatorio);
+            } catch (IOException ex) {
+                status = 0;
+            }
+            if (status == NAO_SE_APLICA) {
+                continue; // Sorteia outra operação no mesmo horário
+            }
+
+            long latencia = System.nanoTime() - planejado;
+            latencias.get(operacao.nome()).recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencia)));
+            if (!operacao.sucesso().test(status)) {
+                erros.get(operacao.nome()).incrementAndGet();
+            }
+            planejado += intervalo;
+        }
+    }
+
+    private Operacao sortear(ThreadLocalRandom aleatorio) {
+        int sorteio = aleatorio.nextInt(pesoTotal);
+        for (Operacao operacao : operacoes) {
+            sorteio -= operacao.peso();
+            if (sorteio < 0) {
+                return operacao;
+            }
+        }
+        return operacoes.get(operacoes.size() - 1);
+    }
+
+
+    // Latências em µs por operação, erros e o tempo total medido
+    static final class Resultado {
+
+        static final String CABECALHO = String.format(Locale.ROOT, "%-12s %10s %10s %8s %10s %10s %10s %10s",
+                "operação", "requisições", "req/s", "erros", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        private final Duration duracao;
+        private final Map<String, Histogram> histogramas;
+        private final Map<String, Long> erros;
+
+        private Resultado(Duration duracao, Map<String, Histogram> histogramas, Map<String, Long> erros) {
+            this.duracao = duracao;
+            this.histogramas = histogramas;
+            this.erros = erros;
+        }
+
+        // Todas as operações somadas
+        Histogram total() {
+            Histogram total = new Histogram(3);
+            histogramas.values().forEach(total::add);
+            return total;
+        }
+
+        long erros() {
+            return erros.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        double requisicoesPorSegundo() {
+            return total().getTotalCount() / (duracao.toNanos() / 1e9);
+        }
+
+        // Uma linha por operação e uma de total, no formato do CABECALHO
+        List<String> linhas(String rotuloTotal) {
+            List<String> linhas = new ArrayList<>();
+            if (histogramas.size() > 1) {
+                histogramas.forEach((nome, histograma) -> linhas.add(linha(nome, histograma, erros.get(nome))));
+            }
+            linhas.add(linha(rotuloTotal, total(), erros()));
+            return linhas;
+        }
+
+        private String linha(String nome, Histogram histograma, long errosDaOperacao) {
+            return String.format(Locale.ROOT, "%-12s %10d %10.1f %8d %10.2f %10.2f %10.2f %10.2f",
+                    nome, histograma.getTotalCount(), histograma.getTotalCount() / (duracao.toNanos() / 1e9),
+                    errosDaOperacao, ms(histograma, 50), ms(histograma, 99), ms(histograma, 99.9),
+                    histograma.getMaxValue() / 1000.0);
+        }
+
+        private static double ms(Histogram histograma, double percentil) {
+            return histograma.getValueAtPercentile(percentil) / 1000.0;
+        }
+
+        // Distribuição completa de cada operação (formato .hgrm, abre no HdrHistogram plotter), em ms
+        void gravarDistribuicoes(Path diretorio, String prefixo) throws IOException {
+            Files.createDirectories(diretorio);
+            Map<String, Histogram> todos = new LinkedHashMap<>(histogramas);
+            todos.put("total", total());
+            for (Map.Entry<String, Histogram> entrada : todos.entrySet()) {
+                Path arquivo = diretorio.resolve(prefixo + "-" + entrada.getKey() + ".hgrm");
+                try (PrintStream saida = new PrintStream(Files.newOutputStream(arquivo), false, "UTF-8")) {
+                    entrada.getValue().outputPercentileDistribution(saida, 1000.0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package br.com.sistema.livros.carga;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.sistema.livros.Startup;
+
+/**
+ * Teste de carga de ponta a ponta do BookController: mix de listagem, leitura, busca, criação, atualização
+ * e exclusão, com p50/p99/p99.9 por operação (HdrHistogram). Fica fora do "mvn test"; rode com:
+ *
+ *   mvn test -Pcarga -Dtest=MixCargaTest -Dcarga.clientes=50 -Dcarga.segundos=60
+ *
+ * Por padrão sobe a aplicação no próprio processo sobre o H2 em memória. Para o PostgreSQL local, passe as
+ * propriedades da aplicação (ex.: -Dspring.profiles.active=prod com PGHOST/PGPORT/... no ambiente), ou aponte
+ * para uma aplicação já em execução com -Dcarga.url=http://localhost:8080.
+ *
+ * Propriedades (-D):
+ *   carga.clientes    clientes simultâneos (50)
+ *   carga.segundos    duração da medição (30)
+ *   carga.aquecimento duração do aquecimento, descartado (10)
+ *   carga.livros      livros criados antes da medição (5000)
+ *   carga.taxa        requisições/s por cliente; 0 = cada cliente envia assim que recebe a resposta (0)
+ *   carga.mix         pesos das operações (listar:40,obter:30,buscar:10,criar:10,atualizar:7,excluir:3)
+ *   carga.limite      liga o controle de admissão (livros.limite.*) na aplicação iniciada aqui; com ele, 429/503
+ *                     contam como erro (false)
+ *
+ * O relatório vai para target/carga/mix.txt e a distribuição completa de cada operação para target/carga/mix-*.hgrm.
+ */
+@Tag("carga")
+class MixCargaTest {
+
+    private static final String URL = System.getProperty("carga.url");
+    private static final int CLIENTES = Integer.getInteger("carga.clientes", 50);
+    private static final Duration DURACAO = Duration.ofSeconds(Long.getLong("carga.segundos", 30));
+    private static final Duration AQUECIMENTO = Duration.ofSeconds(Long.getLong("carga.aquecimento", 10));
+    private static final int LIVROS = Integer.getInteger("carga.livros", 5_000);
+    private static final double TAXA = Double.parseDouble(System.getProperty("carga.taxa", "0"));
+    private static final boolean LIMITE = Boolean.getBoolean("carga.limite");
+    private static final String MIX = System.getProperty("carga.mix",
+            "listar:40,obter:30,buscar:10,criar:10,atualizar:7,excluir:3");
+
+    // Tamanho de cada POST /batch na preparação
+    private static final int LOTE = 1_000;
+
+    private static final String[] BUSCAS = { "memorias", "machado", "dom casm", "sertao veredas", "rosa", "livro 1" };
+    private static final String[] AUTORES = { "Machado de Assis", "Guimarães Rosa", "Clarice Lispector",
+            "Graciliano Ramos", "Jorge Amado", "Cecília Meireles", "Rachel de Queiroz", "Lima Barreto" };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // ISBNs únicos por execução, para rodar mais de uma vez contra o mesmo banco
+    private final long execucao = (System.currentTimeMillis() / 1000) % 100_000;
+    private final AtomicLong sequenciaIsbn = new AtomicLong();
+
+    // Livros criados na preparação (lidos, listados e atualizados) e os criados durante a carga (os únicos excluídos)
+    private final List<Long> preparados = new ArrayList<>();
+    private final List<String> isbnsPreparados = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Long> criados = new ConcurrentLinkedQueue<>();
+
+
+    @Test
+    void deveMedirMixDeOperacoesDoController() throws Exception {
+        ConfigurableApplicationContext contexto = URL == null ? iniciarAplicacao() : null;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            String base = (URL != null ? URL : "http://localhost:" + porta(contexto)) + "/api/v1/books";
+            HttpClient http = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(10)).build();
+
+            popular(http, base);
+            GeradorCarga gerador = new GeradorCarga(CLIENTES, TAXA, operacoes(http, base));
+            gerador.executar(AQUECIMENTO);
+            GeradorCarga.Resultado resultado = gerador.executar(DURACAO);
+
+            String relatorio = relatorio(resultado, contexto);
+            Path diretorio = Path.of("target", "carga");
+            Files.createDirectories(diretorio);
+            Files.writeString(diretorio.resolve("mix.txt"), relatorio);
+            resultado.gravarDistribuicoes(diretorio, "mix");
+
+            assertTrue(resultado.total().getTotalCount() > 0);
+            assertEquals(0, resultado.erros(), "Nenhuma requisição deveria falhar");
+        } finally {
+            if (contexto != null) {
+                contexto.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext iniciarAplicacao() {
+        return new SpringApplicationBuilder(Startup.class)
+                .properties("server.port=0", "logging.level.root=WARN", "livros.limite.habilitado=" + LIMITE)
+                .run();
+    }
+
+    private static int porta(ConfigurableApplicationContext contexto) {
+        return ((ServletWebServerApplicationContext) contexto).getWebServer().getPort();
+    }
+
+
+    // Operações do mix, com os pesos de carga.mix
+    private List<GeradorCarga.Operacao> operacoes(HttpClient http, String base) {
+        List<GeradorCarga.Operacao> operacoes = new ArrayList<>();
+        for (String item : MIX.split(",")) {
+            String[] partes = item.trim().split(":");
+            int peso = Integer.parseInt(partes[1].trim());
+            operacoes.add(switch (partes[0].trim()) {
+                case "listar" -> new GeradorCarga.Operacao("listar", peso, status(200), aleatorio ->
+                        enviar(http, get(base + "?tamanho=20&cursor=" + cursor(preparado(aleatorio)))));
+                case "obter" -> new GeradorCarga.Operacao("obter", peso, status(200), aleatorio ->
+                        enviar(http, get(base + "/" + preparado(aleatorio))));
+                case "buscar" -> new GeradorCarga.Operacao("buscar", peso, status(200), aleatorio ->
+                        enviar(http, get(base + "/search?q=" + BUSCAS[aleatorio.nextInt(BUSCAS.length)].replace(" ", "%20"))));
+                case "criar" -> new GeradorCarga.Operacao("criar", peso, status(201), aleatorio -> criar(http, base, aleatorio));
+                // 409: dois clientes atualizaram o mesmo livro ao mesmo tempo (conflito de versão é resposta válida)
+                case "atualizar" -> new GeradorCarga.Operacao("atualizar", peso, status(200, 409), aleatorio -> {
+                    int indice = aleatorio.nextInt(preparados.size());
+                    String corpo = livro("Memórias Póstumas de Brás Cubas - revisão " + aleatorio.nextInt(1_000),
+                            AUTORES[indice % AUTORES.length], isbnsPreparados.get(indice));
+                    return enviar(http, json(base + "/" + preparados.get(indice)).PUT(HttpRequest.BodyPublishers.ofString(corpo)));
+                });
+                case "excluir" -> new GeradorCarga.Operacao("excluir", peso, status(204), aleatorio -> {
+                    Long id = criados.poll();
+                    return id == null ? GeradorCarga.NAO_SE_APLICA : enviar(http, HttpRequest.newBuilder(URI.create(base + "/" + id)).DELETE());
+                });
+                default -> throw new IllegalArgumentException("Operação desconhecida em carga.mix: " + partes[0]);
+            });
+        }
+        return operacoes;
+    }
+
+    private int criar(HttpClient http, String base, ThreadLocalRandom aleatorio) throws IOException, InterruptedException {
+        String corpo = livro("Dom Casmurro - edição " + aleatorio.nextInt(1_000),
+                AUTORES[aleatorio.nextInt(AUTORES.length)], proximoIsbn());
+        HttpResponse<String> resposta = http.send(json(base).POST(HttpRequest.BodyPublishers.ofString(corpo)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (resposta.statusCode() == 201) {
+            criados.add(objectMapper.readTree(resposta.body()).get("id").asLong());
+        }
+        return resposta.statusCode();
+    }
+
+    // Cria LIVROS livros em lotes e guarda IDs e ISBNs para as operações de leitura e atualização
+    private void popular(HttpClient http, String base) throws IOException, InterruptedException {
+        for (int inicio = 0; inicio < LIVROS; inicio += LOTE) {
+            List<String> isbns = new ArrayList<>();
+            StringBuilder lote = new StringBuilder("[");
+            for (int i = inicio; i < Math.min(LIVROS, inicio + LOTE); i++) {
+                String isbn = proximoIsbn();
+                isbns.add(isbn);
+                lote.append(i == inicio ? "" : ",").append(livro(
+                        "Memórias Póstumas de Brás Cubas - vol. " + i, AUTORES[i % AUTORES.length], isbn));
+            }
+            lote.append(']');
+
+            HttpResponse<String> resposta = http.send(json(base + "/batch")
+                    .POST(HttpRequest.BodyPublishers.ofString(lote.toString())).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, resposta.statusCode(), resposta.body());
+            for (JsonNode item : objectMapper.readTree(resposta.body())) {
+                if ("CRIADO".equals(item.get("status").asText())) {
+                    preparados.add(item.get("id").asLong());
+                    isbnsPreparados.add(isbns.get(item.get("indice").asInt()));
+                }
+            }
+        }
+        assertTrue(!preparados.isEmpty(), "Nenhum livro foi criado na preparação");
+    }
+
+    private String relatorio(GeradorCarga.Resultado resultado, ConfigurableApplicationContext contexto) throws Exception {
+        StringBuilder relatorio = new StringBuilder(String.format(Locale.ROOT,
+                "Mix de carga em %s%nAlvo: %s%nCarga: %d clientes, %s, %ds (após %ds de aquecimento), %d livros%nMix: %s%n%n%s%n",
+                LocalDateTime.now().withNano(0), alvo(contexto), CLIENTES,
+                TAXA > 0 ? String.format(Locale.ROOT, "%.1f req/s por cliente", TAXA) : "sem limite de taxa",
+                DURACAO.toSeconds(), AQUECIMENTO.toSeconds(), LIVROS, MIX, GeradorCarga.Resultado.CABECALHO));
+        resultado.linhas("total").forEach(linha -> relatorio.append(linha).append(System.lineSeparator()));
+        return relatorio.toString();
+    }
+
+    // Banco e modo de threads da aplicação medida (quando sobe neste processo)
+    private static String alvo(ConfigurableApplicationContext contexto) throws Exception {
+        if (contexto == null) {
+            return URL;
+        }
+        try (Connection conexao = contexto.getBean(DataSource.class).getConnection()) {
+            return String.format(Locale.ROOT, "aplicação local, %s %s, virtual threads: %s",
+                    conexao.getMetaData().getDatabaseProductName(), conexao.getMetaData().getDatabaseProductVersion(),
+                    contexto.getEnvironment().getProperty("spring.threads.virtual.enabled", "false"));
+        }
+    }
+
+
+    private long preparado(ThreadLocalRandom aleatorio) {
+        return preparados.get(aleatorio.nextInt(preparados.size()));
+    }
+
+    private String proximoIsbn() {
+        return String.format(Locale.ROOT, "9%05d%09d", execucao, sequenciaIsbn.incrementAndGet());
+    }
+
+    private static String livro(String titulo, String autor, String isbn) {
+        return String.format(Locale.ROOT,
+                "{\"titulo\":\"%s\",\"autor\":\"%s\",\"isbn\":\"%s\",\"publicadoEm\":\"1881-01-01\"}", titulo, autor, isbn);
+    }
+
+    private static IntPredicate status(int... aceitos) {
+        return status -> {
+            for (int aceito : aceitos) {
+                if (status == aceito) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private static HttpRequest.Builder get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri));
+    }
+
+    private static HttpRequest.Builder json(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).header("Content-Type", "application/json");
+    }
+
+    private static int enviar(HttpClient http, HttpRequest.Builder requisicao) throws IOException, InterruptedException {
+        return http.send(requisicao.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    // Mesmo formato de BookCursor ("id:<n>" em base64url sem padding)
+    private static String cursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(("id:" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
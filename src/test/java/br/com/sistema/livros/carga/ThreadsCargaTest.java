@@ -0,0 +1,126 @@
+package br.com.sistema.livros.carga;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntPredicate;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.sistema.livros.Startup;
+
+/**
+ * Teste de carga: mesma aplicação, mesmo banco e mesma carga, com threads de plataforma e com virtual threads.
+ * Fica fora do "mvn test"; rode com:
+ *
+ *   mvn test -Pcarga -Dcarga.clientes=400 -Dcarga.segundos=30
+ *
+ * Por padrão usa o H2 em memória. Para medir contra o PostgreSQL, passe as mesmas propriedades da aplicação
+ * (ex.: -Dspring.profiles.active=prod com PGHOST/PGPORT/... no ambiente). O relatório fica em target/carga.
+ */
+@Tag("carga")
+class ThreadsCargaTest {
+
+    private static final int CLIENTES = Integer.getInteger("carga.clientes", 400);
+    private static final Duration DURACAO = Duration.ofSeconds(Long.getLong("carga.segundos", 20));
+    private static final Duration AQUECIMENTO = Duration.ofSeconds(Long.getLong("carga.aquecimento", 5));
+    private static final int LIVROS = Integer.getInteger("carga.livros", 5_000);
+
+    private static final String[] BUSCAS = { "senhor", "machado", "principe", "livro 1", "autor 2", "sertao" };
+
+
+    @Test
+    void deveCompararThreadsDePlataformaComVirtualThreads() throws Exception {
+        GeradorCarga.Resultado plataforma = medir(false);
+        GeradorCarga.Resultado virtuais = medir(true);
+
+        StringBuilder relatorio = new StringBuilder(String.format(Locale.ROOT,
+                "Carga: %d clientes, %ds (após %ds de aquecimento), %d livros%n%s%n",
+                CLIENTES, DURACAO.toSeconds(), AQUECIMENTO.toSeconds(), LIVROS, GeradorCarga.Resultado.CABECALHO));
+        plataforma.linhas("plataforma").forEach(linha -> relatorio.append(linha).append(System.lineSeparator()));
+        virtuais.linhas("virtual").forEach(linha -> relatorio.append(linha).append(System.lineSeparator()));
+
+        Path arquivo = Path.of("target", "carga", "threads.txt");
+        Files.createDirectories(arquivo.getParent());
+        Files.writeString(arquivo, relatorio);
+
+        assertEquals(0, plataforma.erros() + virtuais.erros(), "Nenhuma requisição deveria falhar");
+    }
+
+    // Sobe a aplicação no modo pedido, popula o banco, aquece e mede (sem o controle de admissão,
+    // que recusaria parte da carga de um único IP e mascararia a diferença entre os modos)
+    private GeradorCarga.Resultado medir(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(Startup.class)
+                .properties("server.port=0", "spring.threads.virtual.enabled=" + virtualThreads, "logging.level.root=WARN",
+                        "livros.limite.habilitado=false")
+                .run()) {
+
+            int porta = ((ServletWebServerApplicationContext) contexto).getWebServer().getPort();
+            String base = "http://localhost:" + porta + "/api/v1/books";
+
+            try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient http = HttpClient.newBuilder().executor(clientes).build();
+                popular(http, base);
+                disparar(http, base, AQUECIMENTO);
+                return disparar(http, base, DURACAO);
+            }
+        }
+    }
+
+    private void popular(HttpClient http, String base) throws IOException, InterruptedException {
+        StringBuilder lote = new StringBuilder("[");
+        for (int i = 0; i < LIVROS; i++) {
+            lote.append(i == 0 ? "" : ",").append(String.format(Locale.ROOT,
+                    "{\"titulo\":\"Livro %d\",\"autor\":\"Autor %d\",\"isbn\":\"979%010d\",\"publicadoEm\":\"2020-01-01\"}", i, i % 500, i));
+        }
+        lote.append(']');
+        HttpResponse<String> resposta = http.send(HttpRequest.newBuilder(URI.create(base + "/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(lote.toString()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, resposta.statusCode());
+    }
+
+    // Cada cliente repete requisições (listagem paginada e busca textual, ambas vão ao banco) até o fim do tempo
+    private GeradorCarga.Resultado disparar(HttpClient http, String base, Duration duracao)
+            throws InterruptedException, ExecutionException {
+        IntPredicate ok = status -> status == 200;
+        GeradorCarga gerador = new GeradorCarga(CLIENTES, 0, List.of(
+                new GeradorCarga.Operacao("listar", 7, ok, aleatorio ->
+                        get(http, base + "?tamanho=20&cursor=" + cursor(aleatorio.nextInt(LIVROS)))),
+                new GeradorCarga.Operacao("buscar", 3, ok, aleatorio ->
+                        get(http, base + "/search?q=" + BUSCAS[aleatorio.nextInt(BUSCAS.length)].replace(" ", "%20")))));
+
+        GeradorCarga.Resultado resultado = gerador.executar(duracao);
+        assertTrue(resultado.total().getTotalCount() > 0);
+        return resultado;
+    }
+
+    private static int get(HttpClient http, String uri) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(uri)).build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    // Mesmo formato de BookCursor ("id:<n>" em base64url sem padding)
+    private static String cursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(("id:" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.sistema.livros.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConexoesLimitadasDataSourceTest {
+
+    private DataSource pool;
+    private Connection conexaoDoPool;
+    private ConexoesLimitadasDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = mock(DataSource.class);
+        conexaoDoPool = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(conexaoDoPool);
+
+        // Uma conexão por vez, esperando no máximo 50 ms
+        dataSource = new ConexoesLimitadasDataSource(pool, 1, 50);
+    }
+
+
+    @Test
+    void deveRecusarConexaoAlemDoLimiteAposAEspera() throws SQLException {
+        // ARRANGE
+        dataSource.getConnection();
+
+        // ACT + ASSERT
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        assertEquals(1, dataSource.getEmUso());
+    }
+
+    @Test
+    void deveLiberarOLimiteUmaUnicaVezAoFechar() throws SQLException {
+        // ARRANGE
+        Connection conexao = dataSource.getConnection();
+
+        // ACT
+        conexao.close();
+        conexao.close(); // Fechar de novo não pode liberar uma permissão a mais
+
+        // ASSERT
+        verify(conexaoDoPool, times(1)).close();
+        assertEquals(0, dataSource.getEmUso());
+        dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+    }
+
+    @Test
+    void deveDevolverOLimiteQuandoOPoolFalhar() throws SQLException {
+        // ARRANGE
+        when(pool.getConnection()).thenThrow(new SQLException("banco fora do ar"));
+
+        // ACT + ASSERT
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(0, dataSource.getEmUso());
+    }
+
+    @Test
+    void deveRepassarDemaisChamadasParaAConexaoDoPool() throws SQLException {
+        // ARRANGE
+        when(conexaoDoPool.getAutoCommit()).thenReturn(false);
+
+        // ACT + ASSERT
+        assertEquals(false, dataSource.getConnection().getAutoCommit());
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.sistema.livros.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class LeituraPropriaFilterTest {
+
+    private LeituraPropriaFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        filtro = new LeituraPropriaFilter(new LivrosProperties().getReplicas());
+    }
+
+    // Executa a requisição do cliente (IP) e diz se ela foi obrigada a usar o primário
+    private boolean noPrimario(String metodo, String caminho, String ip, int status) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, caminho);
+        request.setRemoteAddr(ip);
+        return noPrimario(request, status);
+    }
+
+    private boolean noPrimario(MockHttpServletRequest request, int status) throws Exception {
+        boolean[] primario = new boolean[1];
+        filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                primario[0] = RoteamentoLeitura.primarioExigido();
+                resp.setStatus(status);
+            }
+        }));
+        return primario[0];
+    }
+
+
+    @Test
+    void deveLerDoPrimarioDepoisDeUmaEscritaDoMesmoCliente() throws Exception {
+        // ACT + ASSERT
+        assertFalse(noPrimario("GET", "/api/v1/books/1", "10.0.0.1", 200));
+        assertTrue(noPrimario("PUT", "/api/v1/books/1", "10.0.0.1", 200));   // A escrita abre a janela
+        assertTrue(noPrimario("GET", "/api/v1/books/1", "10.0.0.1", 200));   // Dentro da janela: primário
+        assertFalse(noPrimario("GET", "/api/v1/books/1", "10.0.0.2", 200));  // Outro cliente continua nas réplicas
+    }
+
+    @Test
+    void naoDeveAbrirAJanelaComPreflightNemComBuscaEmLote() throws Exception {
+        // ACT
+        noPrimario("OPTIONS", "/api/v1/books/1", "10.0.0.1", 200);
+        noPrimario("POST", "/api/v1/books/lookup", "10.0.0.1", 200);
+
+        // ASSERT
+        assertFalse(noPrimario("GET", "/api/v1/books/1", "10.0.0.1", 200));
+    }
+
+    @Test
+    void naoDeveAbrirAJanelaComEscritaRecusada() throws Exception {
+        // ACT
+        noPrimario("POST", "/api/v1/books", "10.0.0.1", 400);
+
+        // ASSERT
+        assertFalse(noPrimario("GET", "/api/v1/books/1", "10.0.0.1", 200));
+    }
+
+    @Test
+    void deveIdentificarOClientePeloHeaderQuandoInformado() throws Exception {
+        // ARRANGE
+        MockHttpServletRequest escrita = new MockHttpServletRequest("DELETE", "/api/v1/books/1");
+        escrita.setRemoteAddr("10.0.0.1");
+        escrita.addHeader("X-API-Key", "cliente-a");
+        noPrimario(escrita, 204);
+
+        // ACT + ASSERT
+        MockHttpServletRequest leitura = new MockHttpServletRequest("GET", "/api/v1/books/1");
+        leitura.setRemoteAddr("10.0.0.9");
+        leitura.addHeader("X-API-Key", "cliente-a");
+        assertTrue(noPrimario(leitura, 200));                                // Mesma chave, de outro IP
+        assertFalse(noPrimario("GET", "/api/v1/books/1", "10.0.0.1", 200));  // Mesmo IP, sem a chave: outro cliente
+    }
+}
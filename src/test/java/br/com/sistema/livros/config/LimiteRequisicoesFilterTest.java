@@ -0,0 +1,247 @@
+package br.com.sistema.livros.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+
+class LimiteRequisicoesFilterTest {
+
+    private LivrosProperties.Limite properties;
+    private SimpleMeterRegistry registry;
+    private AtomicInteger aguardandoConexao;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LivrosProperties().getLimite();
+        properties.setTaxaPorCliente(1);   // Um token por segundo: nenhum é reposto durante o teste
+        properties.setRajada(3);
+        registry = new SimpleMeterRegistry();
+        aguardandoConexao = new AtomicInteger();
+    }
+
+    private LimiteRequisicoesFilter criarFiltro(LimitesPorRota limites) {
+        return new LimiteRequisicoesFilter(properties, limites, new ObjectMapper().registerModule(new JavaTimeModule()), registry);
+    }
+
+    private static MockHttpServletResponse executar(LimiteRequisicoesFilter filtro, String ip) throws Exception {
+        return executar(filtro, ip, new MockHttpServletRequest("GET", "/api/v1/books/1"));
+    }
+
+    private static MockHttpServletResponse executar(LimiteRequisicoesFilter filtro, String ip, MockHttpServletRequest request)
+            throws Exception {
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static String rota(String metodo, String caminho) {
+        return LimiteRequisicoesFilter.rota(new MockHttpServletRequest(metodo, caminho));
+    }
+
+    private interface Acao {
+        void executar() throws Exception;
+    }
+
+    // Cadeia cujo servlet executa a ação enquanto a requisição de fora ainda ocupa a vaga
+    private static MockFilterChain durante(Acao acao) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(jakarta.servlet.http.HttpServletRequest req, jakarta.servlet.http.HttpServletResponse resp) {
+                try {
+                    acao.executar();
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        });
+    }
+
+
+    @Test
+    void deveRecusarCom429QuandoOClienteEsgotarARajada() throws Exception {
+        // ARRANGE
+        LimiteRequisicoesFilter filtro = criarFiltro(new LimitesPorRota(properties, aguardandoConexao::get, registry));
+
+        // ACT
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, executar(filtro, "10.0.0.1").getStatus());
+        }
+        MockHttpServletResponse recusada = executar(filtro, "10.0.0.1");
+
+        // ASSERT
+        assertEquals(429, recusada.getStatus());
+        assertEquals("1", recusada.getHeader("Retry-After"));
+        assertTrue(recusada.getContentAsString().contains("Limite de requisições do cliente excedido"));
+        assertEquals(200, executar(filtro, "10.0.0.2").getStatus());   // Cada cliente tem o seu balde
+        assertEquals(1.0, registry.get("livros.limite.rejeitadas").tag("motivo", "taxa").counter().count());
+        assertEquals(4.0, registry.get("livros.limite.admitidas").counter().count());
+    }
+
+    @Test
+    void naoDeveDarBaldeNovoAQuemTrocaDeApiKey() throws Exception {
+        // ARRANGE
+        LimiteRequisicoesFilter filtro = criarFiltro(new LimitesPorRota(properties, aguardandoConexao::get, registry));
+
+        // ACT
+        // A chave não é validada: trocar de X-API-Key a cada requisição não pode renovar a rajada
+        int aceitas = 0;
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/books/1");
+            request.addHeader("X-API-Key", "chave-" + i);
+            if (executar(filtro, "10.0.0.1", request).getStatus() == 200) {
+                aceitas++;
+            }
+        }
+
+        // ASSERT
+        assertEquals(3, aceitas);
+    }
+
+    @Test
+    void deveTerUmBaldePorRota() throws Exception {
+        // ARRANGE
+        LimiteRequisicoesFilter filtro = criarFiltro(new LimitesPorRota(properties, aguardandoConexao::get, registry));
+        for (int i = 0; i < 3; i++) {
+            executar(filtro, "10.0.0.1", new MockHttpServletRequest("GET", "/api/v1/books/" + i));
+        }
+
+        // ACT + ASSERT
+        // Outro ID é a mesma rota (GET /{id}); a busca e o PUT no mesmo ID têm baldes próprios
+        assertEquals(429, executar(filtro, "10.0.0.1", new MockHttpServletRequest("GET", "/api/v1/books/99")).getStatus());
+        assertEquals(200, executar(filtro, "10.0.0.1", new MockHttpServletRequest("GET", "/api/v1/books/search")).getStatus());
+        assertEquals(200, executar(filtro, "10.0.0.1", new MockHttpServletRequest("PUT", "/api/v1/books/1")).getStatus());
+    }
+
+    @Test
+    void deveIdentificarARotaPeloPadraoDoMapeamento() {
+        // ACT + ASSERT
+        assertEquals("GET /api/v1/books", rota("GET", "/api/v1/books"));
+        assertEquals("GET /api/v1/books/{id}", rota("GET", "/api/v1/books/42"));
+        assertEquals("PATCH /api/v1/books/{id}", rota("PATCH", "/api/v1/books/42"));
+        assertEquals("GET /api/v1/books/changes/stream", rota("GET", "/api/v1/books/changes/stream"));
+        assertEquals("GET /api/v1/books/async/{chave}", rota("GET", "/api/v1/books/async/pedido-1"));
+        // Caminhos e métodos inventados caem em poucas rotas, sem um balde por URL
+        assertEquals("GET /api/v1/books/{id}/{id}/**", rota("GET", "/api/v1/books/a/b/c/d"));
+        assertEquals("OUTRO /api/v1/books/{id}", rota("PROPFIND", "/api/v1/books/42"));
+    }
+
+    @Test
+    void deveRecusarCom503QuandoOLimiteDeConcorrenciaEstiverOcupado() throws Exception {
+        // ARRANGE
+        properties.setRajada(100);
+        properties.setConcorrenciaInicial(1);
+        properties.setConcorrenciaMinima(1);
+        LimitesPorRota limites = new LimitesPorRota(properties, aguardandoConexao::get, registry);
+        LimiteRequisicoesFilter filtro = criarFiltro(limites);
+        MockHttpServletResponse[] recusada = new MockHttpServletResponse[1];
+        MockHttpServletResponse[] outraRota = new MockHttpServletResponse[1];
+
+        // ACT
+        // Durante a primeira requisição (que ocupa a única vaga da rota) chega uma segunda na mesma rota
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/v1/books/1"), new MockHttpServletResponse(),
+                durante(() -> {
+                    recusada[0] = executar(filtro, "10.0.0.2");
+                    outraRota[0] = executar(filtro, "10.0.0.2", new MockHttpServletRequest("GET", "/api/v1/books/search"));
+                }));
+
+        // ASSERT
+        assertEquals(503, recusada[0].getStatus());
+        assertEquals("1", recusada[0].getHeader("Retry-After"));
+        assertEquals(200, outraRota[0].getStatus());   // Cada rota tem o seu limite
+        assertEquals(0, limites.daRota("GET /api/v1/books/{id}").getEmAndamento());   // A vaga foi devolvida ao final
+        assertEquals(200, executar(filtro, "10.0.0.2").getStatus());
+    }
+
+    @Test
+    void naoDeveLimitarNemAmostrarAsRotasEmLoteEDeStreaming() throws Exception {
+        // ARRANGE
+        properties.setRajada(100);
+        properties.setConcorrenciaInicial(1);
+        properties.setConcorrenciaMinima(1);
+        properties.setLatenciaAlvo(Duration.ofNanos(1));   // Qualquer requisição amostrada reduziria o limite
+        LimitesPorRota limites = new LimitesPorRota(properties, aguardandoConexao::get, registry);
+        LimiteRequisicoesFilter filtro = criarFiltro(limites);
+        MockHttpServletResponse[] lote = new MockHttpServletResponse[1];
+
+        // ACT
+        // Um export em andamento não ocupa vaga: outro lote entra junto
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/v1/books/export"), new MockHttpServletResponse(),
+                durante(() -> lote[0] = executar(filtro, "10.0.0.2", new MockHttpServletRequest("POST", "/api/v1/books/batch"))));
+
+        // ASSERT
+        assertEquals(200, lote[0].getStatus());
+        assertTrue(LimiteRequisicoesFilter.rotaLonga(rota("POST", "/api/v1/books/async")));
+        assertTrue(LimiteRequisicoesFilter.rotaLonga(rota("GET", "/api/v1/books/changes/stream")));
+        assertFalse(LimiteRequisicoesFilter.rotaLonga(rota("GET", "/api/v1/books/async/pedido-1")));
+        assertTrue(registry.find("livros.limite.concorrencia").gauges().isEmpty());   // Nenhum limite foi criado
+    }
+
+    @Test
+    void deveReduzirSoOLimiteDaRotaLenta() {
+        // ARRANGE
+        properties.setConcorrenciaInicial(10);
+        properties.setLatenciaAlvo(Duration.ofSeconds(1));
+        LimitesPorRota limites = new LimitesPorRota(properties, aguardandoConexao::get, registry);
+        LimiteConcorrencia busca = limites.daRota("GET /api/v1/books/search");
+        LimiteConcorrencia porId = limites.daRota("GET /api/v1/books/{id}");
+
+        // ACT
+        for (int i = 0; i < 20; i++) {
+            assertTrue(busca.tentarAdmitir());
+            busca.concluir(Duration.ofSeconds(2).toNanos());
+        }
+
+        // ASSERT
+        assertEquals(properties.getConcorrenciaMinima(), busca.getLimite());
+        assertEquals(10, porId.getLimite());
+        assertEquals(10.0, registry.get("livros.limite.concorrencia").tag("rota", "GET /api/v1/books/{id}").gauge().value());
+    }
+
+    @Test
+    void deveReduzirOLimiteComFilaNoPoolEAumentarQuandoNormalizar() {
+        // ARRANGE
+        properties.setConcorrenciaInicial(10);
+        properties.setConcorrenciaMinima(2);
+        properties.setLatenciaAlvo(Duration.ofSeconds(1));
+        LimiteConcorrencia concorrencia = new LimiteConcorrencia(properties, aguardandoConexao::get);
+
+        // ACT + ASSERT
+        // Sobrecarga: threads esperando conexão reduzem o limite multiplicativamente, até o mínimo
+        aguardandoConexao.set(3);
+        for (int i = 0; i < 50; i++) {
+            assertTrue(concorrencia.tentarAdmitir());
+            concorrencia.concluir(1_000);
+        }
+        assertEquals(2, concorrencia.getLimite());
+
+        // Normalizou: cresce de 1 em 1, mas só enquanto ao menos metade do limite estiver em uso
+        aguardandoConexao.set(0);
+        assertTrue(concorrencia.tentarAdmitir());
+        assertTrue(concorrencia.tentarAdmitir());
+        assertFalse(concorrencia.tentarAdmitir());
+        concorrencia.concluir(1_000);   // 2 simultâneas com limite 2 -> 3
+        concorrencia.concluir(1_000);   // 1 simultânea com limite 3 -> continua 3
+        assertEquals(3, concorrencia.getLimite());
+
+        // Requisição acima da latência alvo também conta como sobrecarga (3 * 0,9)
+        assertTrue(concorrencia.tentarAdmitir());
+        concorrencia.concluir(Duration.ofSeconds(2).toNanos());
+        assertEquals(2, concorrencia.getLimite());
+    }
+}
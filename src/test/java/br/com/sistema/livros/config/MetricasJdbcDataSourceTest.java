@@ -0,0 +1,99 @@
+package br.com.sistema.livros.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MetricasJdbcDataSourceTest {
+
+    private MetricasJdbcDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:metricas;DB_CLOSE_DELAY=-1");
+        dataSource = new MetricasJdbcDataSource(h2);
+
+        try (Connection conexao = h2.getConnection(); Statement statement = conexao.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS numeros (n INT)");
+            statement.execute("DELETE FROM numeros");
+            statement.execute("INSERT INTO numeros SELECT x FROM SYSTEM_RANGE(1, 5)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        ContadorSql.encerrar();
+    }
+
+
+    @Test
+    void deveContarComandosELinhasDaRequisicao() throws SQLException {
+        // ARRANGE
+        ContadorSql contador = ContadorSql.iniciar();
+
+        // ACT
+        try (Connection conexao = dataSource.getConnection();
+                PreparedStatement statement = conexao.prepareStatement("SELECT n FROM numeros WHERE n > ?")) {
+            statement.setInt(1, 2);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    resultSet.getInt(1);
+                }
+            }
+            conexao.createStatement().executeUpdate("UPDATE numeros SET n = n WHERE n = 1");
+        }
+
+        // ASSERT
+        assertEquals(2, contador.getComandos());
+        assertEquals(3, contador.getLinhas()); // 3, 4 e 5
+        assertTrue(contador.getNanosExecutando() > 0);
+        assertEquals(2, dataSource.getComandos());
+        assertEquals(3, dataSource.getLinhas());
+    }
+
+    @Test
+    void deveContarSoNoTotalForaDeUmaRequisicao() throws SQLException {
+        // ACT
+        try (Connection conexao = dataSource.getConnection(); Statement statement = conexao.createStatement()) {
+            statement.execute("SELECT n FROM numeros");
+            try (ResultSet resultSet = statement.getResultSet()) {
+                while (resultSet.next()) {
+                    resultSet.getInt(1);
+                }
+            }
+        }
+
+        // ASSERT
+        assertEquals(1, dataSource.getComandos());
+        assertEquals(5, dataSource.getLinhas());
+    }
+
+    @Test
+    void deveMedirEsperaPorConexao() throws SQLException {
+        // ARRANGE
+        Timer espera = Timer.builder("livros.banco.conexoes.espera").register(new SimpleMeterRegistry());
+        dataSource.setEsperaConexao(espera);
+        ContadorSql contador = ContadorSql.iniciar();
+
+        // ACT
+        dataSource.getConnection().close();
+
+        // ASSERT
+        assertEquals(1, espera.count());
+        assertTrue(contador.getNanosAguardandoConexao() > 0);
+    }
+}
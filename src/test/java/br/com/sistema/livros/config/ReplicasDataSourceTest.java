@@ -0,0 +1,132 @@
+package br.com.sistema.livros.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReplicasDataSourceTest {
+
+    private DataSource primario;
+    private DataSource replica1;
+    private DataSource replica2;
+    private ReplicasDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primario = mock(DataSource.class);
+        replica1 = mock(DataSource.class);
+        replica2 = mock(DataSource.class);
+        when(primario.getConnection()).thenReturn(mock(Connection.class));
+        when(replica1.getConnection()).thenAnswer(invocacao -> conexaoValida());
+        when(replica2.getConnection()).thenAnswer(invocacao -> conexaoValida());
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica1);
+        replicas.put("replica-2", replica2);
+        dataSource = new ReplicasDataSource(primario, replicas, new LivrosProperties.Replicas());
+        dataSource.verificar(); // As réplicas entram no rodízio depois da primeira verificação
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    private static Connection conexaoValida() throws SQLException {
+        Connection conexao = mock(Connection.class);
+        when(conexao.isValid(2)).thenReturn(true);
+        return conexao;
+    }
+
+    private ReplicasDataSource.Replica replica(int indice) {
+        return dataSource.getReplicas().get(indice);
+    }
+
+
+    @Test
+    void deveUsarOPrimarioForaDeUmaLeituraNaReplica() throws SQLException {
+        // ACT
+        dataSource.getConnection();
+        RoteamentoLeitura.noPrimario(() -> conectar());
+
+        // ASSERT
+        verify(primario, times(2)).getConnection();
+        assertEquals(0, replica(0).getLeituras() + replica(1).getLeituras());
+    }
+
+    @Test
+    void deveEscolherAReplicaComMenosConexoesEmUso() throws SQLException {
+        // ARRANGE
+        // A primeira leitura fica aberta (réplica lenta); as seguintes vão para a outra
+        Connection aberta = RoteamentoLeitura.naReplica(this::conectar);
+        String ocupada = replica(0).getEmUso() == 1 ? "replica-1" : "replica-2";
+
+        // ACT
+        RoteamentoLeitura.naReplica(this::conectar).close();
+        RoteamentoLeitura.naReplica(this::conectar).close();
+
+        // ASSERT
+        ReplicasDataSource.Replica lenta = ocupada.equals("replica-1") ? replica(0) : replica(1);
+        ReplicasDataSource.Replica livre = ocupada.equals("replica-1") ? replica(1) : replica(0);
+        assertEquals(1, lenta.getLeituras());
+        assertEquals(2, livre.getLeituras());
+        aberta.close();
+        aberta.close(); // Fechar de novo não desconta duas vezes
+        assertEquals(0, lenta.getEmUso());
+    }
+
+    @Test
+    void deveTirarDoRodizioAReplicaQueFalhaNaVerificacao() throws SQLException {
+        // ARRANGE
+        when(replica1.getConnection()).thenThrow(new SQLTransientConnectionException("réplica fora do ar"));
+
+        // ACT
+        dataSource.verificar();
+        for (int i = 0; i < 4; i++) {
+            RoteamentoLeitura.naReplica(this::conectar);
+        }
+
+        // ASSERT
+        assertFalse(replica(0).isSaudavel());
+        assertTrue(replica(1).isSaudavel());
+        assertEquals(4, replica(1).getLeituras());
+    }
+
+    @Test
+    void deveLerDoPrimarioQuandoAConexaoComAReplicaFalha() throws SQLException {
+        // ARRANGE
+        when(replica1.getConnection()).thenThrow(new SQLTransientConnectionException("réplica fora do ar"));
+        when(replica2.getConnection()).thenThrow(new SQLTransientConnectionException("réplica fora do ar"));
+
+        // ACT
+        RoteamentoLeitura.naReplica(this::conectar);
+
+        // ASSERT
+        verify(primario).getConnection();
+        assertFalse(replica(0).isSaudavel() && replica(1).isSaudavel()); // A que falhou saiu do rodízio
+    }
+
+    private Connection conectar() {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.sistema.livros.controller;
+
+import br.com.sistema.livros.config.LivrosProperties;
+import br.com.sistema.livros.dto.BookRequestDTO;
+import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.service.BookAsyncService;
+import br.com.sistema.livros.service.BookBatchService;
+import br.com.sistema.livros.service.BookChangeService;
+import br.com.sistema.livros.service.BookChangeStreamService;
+import br.com.sistema.livros.service.BookExportService;
+import br.com.sistema.livros.service.BookService;
+import br.com.sistema.livros.service.BookSuggestionService;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Mesma camada WEB do BookControllerTest, com livros.json.formatos-binarios=false
+@WebMvcTest(controllers = BookController.class, properties = "livros.json.formatos-binarios=false")
+@EnableConfigurationProperties(LivrosProperties.class) // JsonConfig (um WebMvcConfigurer, carregado pelo slice) lê livros.json.*
+class BookControllerSemFormatosBinariosTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BookService service;
+
+    @MockBean
+    private BookExportService exportService;
+
+    @MockBean
+    private BookBatchService batchService;
+
+    @MockBean
+    private BookSuggestionService suggestionService;
+
+    @MockBean
+    private BookAsyncService asyncService;
+
+    @MockBean
+    private BookChangeService changeService;
+
+    @MockBean
+    private BookChangeStreamService changeStreamService;
+
+    private final BookResponseDTO responseDTO = new BookResponseDTO(
+            1L, "Clean Code", "Robert C. Martin", "978-0132350884", LocalDate.of(2008, 8, 1));
+
+    @Test
+    void deveRecusarAcceptCborQuandoDesligado() throws Exception {
+        // ARRANGE
+        when(service.getById(1L)).thenReturn(responseDTO);
+
+        // ACT & ASSERT
+        // Nem o conversor padrão do Spring MVC (biblioteca no classpath) pode responder em CBOR
+        mockMvc.perform(get("/api/v1/books/{id}", 1L).accept("application/cbor"))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void deveRecusarCorpoEmSmileQuandoDesligado() throws Exception {
+        // ARRANGE
+        BookRequestDTO requestDTO = new BookRequestDTO("Clean Code", "Robert C. Martin", "978-0132350884", LocalDate.of(2008, 8, 1));
+        byte[] corpo = SmileMapper.builder().findAndAddModules().build().writeValueAsBytes(requestDTO);
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/v1/books").contentType("application/x-jackson-smile").content(corpo))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    void deveContinuarRespondendoEmJson() throws Exception {
+        // ARRANGE
+        when(service.getById(1L)).thenReturn(responseDTO);
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/v1/books/{id}", 1L).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+}
@@ -1,25 +1,60 @@
 package br.com.sistema.livros.controller;
 
+import br.com.sistema.livros.config.LivrosProperties;
+import br.com.sistema.livros.dto.BookAsyncStatusDTO;
+import br.com.sistema.livros.dto.BookBatchResultDTO;
+import br.com.sistema.livros.dto.BookChangeDTO;
+import br.com.sistema.livros.dto.BookChangePageDTO;
+import br.com.sistema.livros.dto.BookFiltroDTO;
+import br.com.sistema.livros.dto.BookLookupRequestDTO;
+import br.com.sistema.livros.dto.BookLookupResultDTO;
+import br.com.sistema.livros.dto.BookPageDTO;
+import br.com.sistema.livros.dto.BookPatchDTO;
 import br.com.sistema.livros.dto.BookRequestDTO;
 import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.dto.BookSuggestionDTO;
+import br.com.sistema.livros.dto.BookVersionDTO;
 import br.com.sistema.livros.exception.EntityNotFoundException;
+import br.com.sistema.livros.exception.GoneException;
+import br.com.sistema.livros.exception.PreconditionFailedException;
+import br.com.sistema.livros.exception.TooManyRequestsException;
+import br.com.sistema.livros.service.BookAsyncService;
+import br.com.sistema.livros.service.BookBatchService;
+import br.com.sistema.livros.service.BookChangeService;
+import br.com.sistema.livros.service.BookChangeStreamService;
+import br.com.sistema.livros.service.BookExportService;
 import br.com.sistema.livros.service.BookService;
+import br.com.sistema.livros.service.BookSuggestionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -27,6 +62,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 // @WebMvcTest - Testa apenas a camada WEB (Controller)
 // Não carrega toda a aplicação, apenas o controller especificado
 @WebMvcTest(BookController.class)
+@EnableConfigurationProperties(LivrosProperties.class) // JsonConfig (um WebMvcConfigurer, carregado pelo slice) lê livros.json.*
 class BookControllerTest {
 
     // MockMvc - Simula requisições HTTP para o controller
@@ -42,6 +78,24 @@ class BookControllerTest {
     @MockBean
     private BookService service;
 
+    @MockBean
+    private BookExportService exportService;
+
+    @MockBean
+    private BookBatchService batchService;
+
+    @MockBean
+    private BookSuggestionService suggestionService;
+
+    @MockBean
+    private BookAsyncService asyncService;
+
+    @MockBean
+    private BookChangeService changeService;
+
+    @MockBean
+    private BookChangeStreamService changeStreamService;
+
     private BookRequestDTO requestDTO;
     private BookResponseDTO responseDTO;
 
@@ -79,8 +133,8 @@ class BookControllerTest {
         );
         List<BookResponseDTO> books = Arrays.asList(responseDTO, responseDTO2);
 
-        // Configura o mock: quando chamar listarTodos(), retorna a lista
-        when(service.listarTodos()).thenReturn(books);
+        // Configura o mock: quando chamar listarTodos(), retorna a página (sem próxima página)
+        when(service.listarTodos(isNull(), isNull(), any(BookFiltroDTO.class))).thenReturn(new BookPageDTO(books, null));
 
         // ACT & ASSERT
         // Faz uma requisição GET e verifica a resposta
@@ -90,16 +144,17 @@ class BookControllerTest {
                 .andExpect(jsonPath("$", hasSize(2)))  // Array com 2 elementos
                 .andExpect(jsonPath("$[0].id").value(1))  // Primeiro livro tem ID 1
                 .andExpect(jsonPath("$[0].titulo").value("Clean Code"))
-                .andExpect(jsonPath("$[1].id").value(2));  // Segundo livro tem ID 2
+                .andExpect(jsonPath("$[1].id").value(2))  // Segundo livro tem ID 2
+                .andExpect(header().doesNotExist("Link"));  // Última página: sem link para a próxima
 
         // Verifica se o método do service foi chamado
-        verify(service, times(1)).listarTodos();
+        verify(service, times(1)).listarTodos(isNull(), isNull(), any(BookFiltroDTO.class));
     }
 
     @Test
     void deveRetornarListaVaziaQuandoNaoHouverLivros() throws Exception {
         // ARRANGE
-        when(service.listarTodos()).thenReturn(Arrays.asList());
+        when(service.listarTodos(isNull(), isNull(), any(BookFiltroDTO.class))).thenReturn(new BookPageDTO(Arrays.asList(), null));
 
         // ACT & ASSERT
         mockMvc.perform(get("/api/v1/books"))
@@ -107,6 +162,101 @@ class BookControllerTest {
                 .andExpect(jsonPath("$", hasSize(0)));  // Array vazio
     }
 
+    @Test
+    void deveInformarProximaPaginaNoHeaderLink() throws Exception {
+        // ARRANGE
+        // O service devolve um cursor quando ainda existem livros depois desta página
+        when(service.listarTodos(isNull(), eq(1), any(BookFiltroDTO.class))).thenReturn(new BookPageDTO(List.of(responseDTO), "aWQ6MQ"));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/v1/books?tamanho=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string("Link", containsString("cursor=aWQ6MQ")))
+                .andExpect(header().string("Link", containsString("tamanho=1")))
+                .andExpect(header().string("Link", containsString("rel=\"next\"")));
+    }
+
+    @Test
+    void deveRetornar400QuandoCursorInvalido() throws Exception {
+        // ARRANGE
+        when(service.listarTodos(eq("xyz"), isNull(), any(BookFiltroDTO.class))).thenThrow(new IllegalArgumentException("Cursor inválido: xyz"));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/v1/books").param("cursor", "xyz"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor inválido: xyz"));
+    }
+
+    @Test
+    void deveRepassarFiltrosEOrdenacaoAoService() throws Exception {
+        // ARRANGE
+        when(service.listarTodos(isNull(), isNull(), any(BookFiltroDTO.class))).thenReturn(new BookPageDTO(List.of(responseDTO), "cursor"));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/v1/books?autor=Robert C. Martin&publicadoDe=2000-01-01&publicadoAte=2010-12-31"
+                        + "&isbnPrefixo=978&ordenarPor=titulo&direcao=desc"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Link", containsString("autor=Robert")))  // A próxima página mantém os filtros
+                .andExpect(header().string("Link", containsString("ordenarPor=titulo")));
+
+        verify(service).listarTodos(isNull(), isNull(), argThat(filtro -> "Robert C. Martin".equals(filtro.getAutor())
+                && LocalDate.of(2000, 1, 1).equals(filtro.getPublicadoDe())
+                && LocalDate.of(2010, 12, 31).equals(filtro.getPublicadoAte())
+                && "978".equals(filtro.getIsbnPrefixo())
+                && "titulo".equals(filtro.getOrdenarPor())
+                && "desc".equals(filtro.getDirecao())));
+    }
+
+    @Test
+    void deveRetornar400QuandoDataDoFiltroForInvalida() throws Exception {
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/v1/books").param("publicadoDe", "01/02/2000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Valor inválido para o parâmetro publicadoDe: 01/02/2000"));
+
+        verifyNoInteractions(service);
+    }
+
+    // ========== TESTES BUSCA ==========
+
+    @Test
+    void deveBuscarLivrosPorTexto() throws Exception {
+        // ARRANGE
+        when(service.buscar("clean", null)).thenReturn(List.of(responseDTO));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/v1/books/search").param("q", "clean"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].titulo").value("Clean Code"));
+    }
+
+    @Test
+    void deveRetornar400QuandoBuscaSemTermos() throws Exception {
+        // ARRANGE
+        when(service.buscar("!!", null)).thenThrow(new IllegalArgumentException("Informe ao menos um termo de busca"));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/v1/books/search").param("q", "!!"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Informe ao menos um termo de busca"));
+    }
+
+    @Test
+    void deveSugerirTitulosEAutoresPeloPrefixo() throws Exception {
+        // ARRANGE
+        when(suggestionService.sugerir("sert", null)).thenReturn(List.of(
+                new BookSuggestionDTO("Grande Sertão: Veredas", BookSuggestionDTO.Campo.TITULO, 1)));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/v1/books/suggest").param("prefix", "sert"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].texto").value("Grande Sertão: Veredas"))
+                .andExpect(jsonPath("$[0].campo").value("TITULO"))
+                .andExpect(jsonPath("$[0].livros").value(1));
+    }
+
     // ========== TESTES GET BY ID ==========
 
     @Test
@@ -140,6 +290,138 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.message").value("Livro não encontrado com ID: 999"));
     }
 
+    // ========== TESTES REQUISIÇÕES CONDICIONAIS ==========
+
+    @Test
+    void deveRetornarETagELastModifiedAoBuscarPorId() throws Exception {
+        // ARRANGE
+        responseDTO.setVersao(3L);
+        responseDTO.setAtualizadoEm(LocalDateTime.of(2024, 5, 10, 12, 0));
+        when(service.getById(1L)).thenReturn(responseDTO);
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/v1/books/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(jsonPath("$.versao").doesNotExist());  // Versão só vai no header
+    }
+
+    @Test
+    void deveRetornar304QuandoETagForOAtual() throws Exception {
+        // ARRANGE
+        when(service.getVersao(1L)).thenReturn(new BookVersionDTO(3L, LocalDateTime.of(2024, 5, 10, 12, 0)));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/v1/books/{id}", 1L).header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Só a versão foi consultada; o livro não foi carregado
+        verify(service, never()).getById(1L);
+    }
+
+    @Test
+    void deveRetornarLivroQuandoETagEstiverDesatualizado() throws Exception {
+        // ARRANGE
+        responseDTO.setVersao(4L);
+        when(service.getVersao(1L)).thenReturn(new BookVersionDTO(4L, LocalDateTime.of(2024, 5, 10, 12, 0)));
+        when(service.getById(1L)).thenReturn(responseDTO);
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/v1/books/{id}", 1L).header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    void deveRetornar304QuandoPaginaNaoMudou() throws Exception {
+        // ARRANGE
+        responseDTO.setVersao(0L);
+        when(service.listarTodos(isNull(), isNull(), any(BookFiltroDTO.class))).thenReturn(new BookPageDTO(List.of(responseDTO), null));
+        String etag = mockMvc.perform(get("/api/v1/books"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/v1/books").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void deveRepassarVersaoDoIfMatchAoAtualizar() throws Exception {
+        // ARRANGE
+        when(service.atualizarLivro(eq(1L), any(BookRequestDTO.class), eq(2L)))
+                .thenThrow(new PreconditionFailedException("Versão 2 do livro 1 não é mais a atual (versão atual: 3)"));
+
+        // ACT & ASSERT
+        mockMvc.perform(put("/api/v1/books/{id}", 1L)
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
+    }
+
+    @Test
+    void deveRetornar412QuandoIfMatchForInvalido() throws Exception {
+        // ACT & ASSERT
+        mockMvc.perform(delete("/api/v1/books/{id}", 1L).header("If-Match", "W/\"2\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(service, never()).deletar(any(), any());
+    }
+
+    // ========== TESTES FORMATOS BINÁRIOS ==========
+
+    @Test
+    void deveResponderEmCborQuandoPedido() throws Exception {
+        // ARRANGE
+        when(service.getById(1L)).thenReturn(responseDTO);
+        ObjectMapper cbor = CBORMapper.builder().findAndAddModules().build();
+
+        // ACT
+        MvcResult result = mockMvc.perform(get("/api/v1/books/{id}", 1L).accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                .andReturn();
+
+        // ASSERT
+        BookResponseDTO lido = cbor.readValue(result.getResponse().getContentAsByteArray(), BookResponseDTO.class);
+        assertEquals("Clean Code", lido.getTitulo());
+        assertEquals(LocalDate.of(2008, 8, 1), lido.getPublicadoEm());
+        // ObjectMapper do Boot: data ISO, não o array [2008, 8, 1] do conversor padrão do Spring MVC
+        assertEquals("2008-08-01", cbor.readTree(result.getResponse().getContentAsByteArray()).get("publicadoEm").asText());
+    }
+
+    @Test
+    void deveAceitarCorpoEmSmile() throws Exception {
+        // ARRANGE
+        when(service.criarLivro(any(BookRequestDTO.class))).thenReturn(responseDTO);
+        ObjectMapper smile = SmileMapper.builder().findAndAddModules().build();
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/v1/books")
+                        .contentType("application/x-jackson-smile")
+                        .content(smile.writeValueAsBytes(requestDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON)) // Sem Accept, a resposta continua em JSON
+                .andExpect(jsonPath("$.isbn").value("978-0132350884"));
+    }
+
+    @Test
+    void deveUsarETagFracoNaPagina() throws Exception {
+        // ARRANGE
+        when(service.listarTodos(isNull(), isNull(), any(BookFiltroDTO.class))).thenReturn(new BookPageDTO(List.of(responseDTO), null));
+
+        // ACT & ASSERT
+        // Fraco: a mesma página sai em vários formatos e com ou sem gzip
+        mockMvc.perform(get("/api/v1/books"))
+                .andExpect(header().string("ETag", startsWith("W/\"")));
+    }
+
     // ========== TESTES POST ==========
 
     @Test
@@ -195,6 +477,90 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.message").value("ISBN já cadastrado: 978-0132350884"));
     }
 
+    @Test
+    void deveCriarLivrosEmLoteComResultadoPorItem() throws Exception {
+        // ARRANGE
+        List<BookBatchResultDTO> resultados = List.of(
+                new BookBatchResultDTO(0, BookBatchResultDTO.Status.CRIADO, 1L, "978-0132350884", null),
+                new BookBatchResultDTO(1, BookBatchResultDTO.Status.DUPLICADO, null, "978-0132350884", "ISBN repetido no lote: 978-0132350884"));
+        when(batchService.criarEmLote(anyList())).thenReturn(resultados);
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/v1/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(requestDTO, requestDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status").value("CRIADO"))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].status").value("DUPLICADO"));
+    }
+
+    @Test
+    void deveBuscarVariosComMarcadorDeNaoEncontrado() throws Exception {
+        // ARRANGE
+        when(service.buscarVarios(any(BookLookupRequestDTO.class))).thenReturn(List.of(
+                new BookLookupResultDTO(BookLookupResultDTO.Tipo.ID, "1", BookLookupResultDTO.Status.ENCONTRADO, responseDTO),
+                new BookLookupResultDTO(BookLookupResultDTO.Tipo.ISBN, "978-0000000000", BookLookupResultDTO.Status.NAO_ENCONTRADO, null)));
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/v1/books/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1],\"isbns\":[\"978-0000000000\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status").value("ENCONTRADO"))
+                .andExpect(jsonPath("$[0].livro.titulo").value("Clean Code"))
+                .andExpect(jsonPath("$[1].tipo").value("ISBN"))
+                .andExpect(jsonPath("$[1].status").value("NAO_ENCONTRADO"));
+    }
+
+    // ========== TESTES POST ASSÍNCRONO ==========
+
+    @Test
+    void deveAceitarCadastroAssincronoComUrlDeStatus() throws Exception {
+        // ARRANGE
+        when(asyncService.enfileirar(eq("chave-1"), any(BookRequestDTO.class)))
+                .thenReturn(new BookAsyncStatusDTO("chave-1", BookAsyncStatusDTO.Status.PENDENTE, null, "978-0132350884", null));
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/v1/books/async")
+                        .header("Idempotency-Key", "chave-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isAccepted())  // Status 202
+                .andExpect(header().string("Location", "http://localhost/api/v1/books/async/chave-1"))
+                .andExpect(jsonPath("$.status").value("PENDENTE"));
+    }
+
+    @Test
+    void deveRetornar429ComRetryAfterQuandoFilaCheia() throws Exception {
+        // ARRANGE
+        when(asyncService.enfileirar(any(), any(BookRequestDTO.class)))
+                .thenThrow(new TooManyRequestsException("Fila de cadastro cheia, tente novamente em instantes", 1));
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/v1/books/async")
+                        .header("Idempotency-Key", "chave-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void deveConsultarStatusDoCadastroAssincrono() throws Exception {
+        // ARRANGE
+        when(asyncService.consultar("chave-1"))
+                .thenReturn(new BookAsyncStatusDTO("chave-1", BookAsyncStatusDTO.Status.CRIADO, 7L, "978-0132350884", null));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/v1/books/async/{chave}", "chave-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CRIADO"))
+                .andExpect(jsonPath("$.id").value(7));
+    }
+
     // ========== TESTES PUT ==========
 
     @Test
@@ -208,7 +574,7 @@ class BookControllerTest {
                 LocalDate.of(2008, 8, 1)
         );
 
-        when(service.atualizarLivro(eq(1L), any(BookRequestDTO.class))).thenReturn(updatedResponse);
+        when(service.atualizarLivro(eq(1L), any(BookRequestDTO.class), isNull())).thenReturn(updatedResponse);
 
         // ACT & ASSERT
         mockMvc.perform(put("/api/v1/books/{id}", 1L)
@@ -218,13 +584,13 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.titulo").value("Clean Code - Segunda Edição"));
 
-        verify(service, times(1)).atualizarLivro(eq(1L), any(BookRequestDTO.class));
+        verify(service, times(1)).atualizarLivro(eq(1L), any(BookRequestDTO.class), isNull());
     }
 
     @Test
     void deveRetornar404AoAtualizarLivroInexistente() throws Exception {
         // ARRANGE
-        when(service.atualizarLivro(eq(999L), any(BookRequestDTO.class)))
+        when(service.atualizarLivro(eq(999L), any(BookRequestDTO.class), isNull()))
                 .thenThrow(new EntityNotFoundException("Livro não encontrado com ID: 999"));
 
         // ACT & ASSERT
@@ -234,19 +600,51 @@ class BookControllerTest {
                 .andExpect(status().isNotFound());  // Status 404
     }
 
+    // ========== TESTES PATCH ==========
+
+    @Test
+    void deveAtualizarParcialmenteComIfMatch() throws Exception {
+        // ARRANGE
+        BookResponseDTO updatedResponse = new BookResponseDTO(1L, "Clean Code - Segunda Edição", "Robert C. Martin",
+                "978-0132350884", LocalDate.of(2008, 8, 1));
+        updatedResponse.setVersao(3L);
+        when(service.atualizarParcialmente(eq(1L), any(BookPatchDTO.class), eq(2L))).thenReturn(updatedResponse);
+
+        // ACT & ASSERT
+        mockMvc.perform(patch("/api/v1/books/{id}", 1L)
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Clean Code - Segunda Edição\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.titulo").value("Clean Code - Segunda Edição"));
+    }
+
+    @Test
+    void deveValidarCamposInformadosNoPatch() throws Exception {
+        // ACT & ASSERT
+        // Título presente, mas curto demais: a validação vale para os campos enviados
+        mockMvc.perform(patch("/api/v1/books/{id}", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"ab\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).atualizarParcialmente(any(), any(), any());
+    }
+
     // ========== TESTES DELETE ==========
 
     @Test
     void deveDeletarLivro() throws Exception {
         // ARRANGE
         // O método deletar não retorna nada, apenas executa
-        doNothing().when(service).deletar(1L);
+        doNothing().when(service).deletar(1L, null);
 
         // ACT & ASSERT
         mockMvc.perform(delete("/api/v1/books/{id}", 1L))
                 .andExpect(status().isNoContent());  // Status 204
 
-        verify(service, times(1)).deletar(1L);
+        verify(service, times(1)).deletar(1L, null);
     }
 
     @Test
@@ -254,10 +652,95 @@ class BookControllerTest {
         // ARRANGE
         // doThrow - usado para métodos void que lançam exceção
         doThrow(new EntityNotFoundException("Livro não encontrado com ID: 999"))
-                .when(service).deletar(999L);
+                .when(service).deletar(999L, null);
 
         // ACT & ASSERT
         mockMvc.perform(delete("/api/v1/books/{id}", 999L))
                 .andExpect(status().isNotFound());  // Status 404
     }
-}
\ No newline at end of file
+
+    // ========== TESTES EXPORT ==========
+
+    @Test
+    void deveExportarEmNdjsonPorPadrao() throws Exception {
+        // ARRANGE
+        // O mock escreve uma linha, como o service real faria para cada livro
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportarNdjson(any(OutputStream.class));
+
+        // ACT
+        // A resposta é escrita de forma assíncrona (StreamingResponseBody)
+        MvcResult result = mockMvc.perform(get("/api/v1/books/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // ASSERT
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n"));
+
+        verify(exportService, never()).exportarCsv(any(OutputStream.class));
+    }
+
+    @Test
+    void deveExportarEmCsvQuandoSolicitado() throws Exception {
+        // ACT
+        MvcResult result = mockMvc.perform(get("/api/v1/books/export").accept("text/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // ASSERT
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", containsString("livros.csv")));
+
+        verify(exportService, times(1)).exportarCsv(any(OutputStream.class));
+    }
+
+    // ========== TESTES FEED DE ALTERAÇÕES ==========
+
+    @Test
+    void deveListarAlteracoesAPartirDoSince() throws Exception {
+        // ARRANGE
+        BookChangeDTO alteracao = new BookChangeDTO(6L, BookChangeDTO.Tipo.ATUALIZADO, 1L, responseDTO, LocalDateTime.of(2024, 1, 1, 10, 0));
+        when(changeService.listar(5L, null)).thenReturn(new BookChangePageDTO(List.of(alteracao), 6L, false));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/v1/books/changes").param("since", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alteracoes", hasSize(1)))
+                .andExpect(jsonPath("$.alteracoes[0].tipo").value("ATUALIZADO"))
+                .andExpect(jsonPath("$.alteracoes[0].livro.titulo").value("Clean Code"))
+                .andExpect(jsonPath("$.ultimo").value(6))
+                .andExpect(jsonPath("$.temMais").value(false));
+    }
+
+    @Test
+    void deveRetornar410ComSinceForaDaRetencao() throws Exception {
+        // ARRANGE
+        when(changeService.listar(1L, null)).thenThrow(new GoneException("Alterações anteriores à posição 50 não estão mais disponíveis"));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/v1/books/changes").param("since", "1"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.status").value(410));
+    }
+
+    @Test
+    void deveRetomarOStreamPeloLastEventId() throws Exception {
+        // ARRANGE
+        when(changeStreamService.assinar(7L)).thenReturn(new SseEmitter());
+
+        // ACT & ASSERT
+        // O Last-Event-ID da reconexão tem prioridade sobre o since da URL original
+        mockMvc.perform(get("/api/v1/books/changes/stream").param("since", "1").header("Last-Event-ID", "7"))
+                .andExpect(request().asyncStarted());
+
+        verify(changeStreamService, times(1)).assinar(7L);
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.sistema.livros.dto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import br.com.sistema.livros.config.JsonConfig;
+import br.com.sistema.livros.config.LivrosProperties;
+
+// O JSON do serializador dedicado (+ Blackbird) tem que ser idêntico, byte a byte, ao do Jackson padrão do Boot
+class BookResponseSerializerTest {
+
+    private ObjectMapper padrao;
+    private ObjectMapper dedicado;
+
+    // ObjectMapper montado pelo Boot (JacksonAutoConfiguration) com os módulos do JsonConfig ligados ou desligados
+    private final ApplicationContextRunner contexto = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class))
+            .withUserConfiguration(JsonConfig.class, PropriedadesConfig.class);
+
+    @BeforeEach
+    void setUp() {
+        contexto.withPropertyValues("livros.json.serializador-dedicado=false", "livros.json.blackbird=false")
+                .run(context -> padrao = context.getBean(ObjectMapper.class));
+        contexto.run(context -> dedicado = context.getBean(ObjectMapper.class));
+    }
+
+
+    @Test
+    void deveRegistrarOsModulosSoQuandoLigados() {
+        // ASSERT
+        assertTrue(dedicado.getRegisteredModuleIds().containsAll(Set.of("livros", BlackbirdModule.class.getName())));
+        assertFalse(padrao.getRegisteredModuleIds().contains("livros"));
+    }
+
+    @Test
+    void deveGerarOMesmoJsonDoSerializadorPadrao() throws Exception {
+        // ARRANGE
+        BookResponseDTO livro = new BookResponseDTO(42L, "Grande Sertão: Veredas", "João Guimarães Rosa", "9788535908770",
+                LocalDate.of(1956, 1, 1), 7L, LocalDateTime.of(2024, 3, 5, 10, 0));
+
+        // ACT + ASSERT
+        assertArrayEquals(padrao.writeValueAsBytes(livro), dedicado.writeValueAsBytes(livro));
+    }
+
+    @Test
+    void deveGerarOMesmoJsonComNullsECaracteresEscapados() throws Exception {
+        // ARRANGE
+        BookResponseDTO vazio = new BookResponseDTO();
+        BookResponseDTO escapado = new BookResponseDTO(1L, "Aspas \" e \\ barra", "Tab\te\nquebra \u0001", "isbn</script>",
+                LocalDate.of(10_000, 12, 31));
+        BookResponseDTO antigo = new BookResponseDTO(2L, "Ilíada", "Homero", "0", LocalDate.of(7, 2, 9));
+
+        // ACT + ASSERT
+        for (BookResponseDTO livro : List.of(vazio, escapado, antigo)) {
+            assertEquals(padrao.writeValueAsString(livro), dedicado.writeValueAsString(livro));
+        }
+    }
+
+    @Test
+    void deveGerarOMesmoJsonDaPagina() throws Exception {
+        // ARRANGE
+        BookPageDTO pagina = new BookPageDTO(List.of(
+                new BookResponseDTO(1L, "Dom Casmurro", "Machado de Assis", "9788508040421", LocalDate.of(1899, 1, 1)),
+                new BookResponseDTO(2L, "O Alquimista", "Paulo Coelho", "9788575427583", LocalDate.of(1988, 4, 15))), "Mg");
+
+        // ACT + ASSERT
+        assertArrayEquals(padrao.writeValueAsBytes(pagina), dedicado.writeValueAsBytes(pagina));
+    }
+
+    @Test
+    void deveSeguirDatasComoTimestampQuandoConfigurado() throws Exception {
+        // ARRANGE
+        BookResponseDTO livro = new BookResponseDTO(1L, "1984", "George Orwell", "9788535914849", LocalDate.of(1949, 6, 8));
+
+        // ACT + ASSERT
+        contexto.withPropertyValues("spring.jackson.serialization.write-dates-as-timestamps=true").run(context ->
+                assertEquals("{\"id\":1,\"titulo\":\"1984\",\"autor\":\"George Orwell\",\"isbn\":\"9788535914849\",\"publicadoEm\":[1949,6,8]}",
+                        context.getBean(ObjectMapper.class).writeValueAsString(livro)));
+    }
+
+    @Test
+    void deveLerORequestIgualAoPadrao() throws Exception {
+        // ARRANGE
+        String json = "{\"titulo\":\"Clean Code\",\"autor\":\"Robert C. Martin\",\"isbn\":\"978-0132350884\",\"publicadoEm\":\"2008-08-01\"}";
+
+        // ACT
+        BookRequestDTO lido = dedicado.readValue(json, BookRequestDTO.class);
+
+        // ASSERT
+        assertEquals(padrao.writeValueAsString(padrao.readValue(json, BookRequestDTO.class)), padrao.writeValueAsString(lido));
+    }
+
+    // O JsonConfig lê livros.json.*; fora da aplicação as propriedades precisam ser registradas pelo teste
+    @Configuration
+    @EnableConfigurationProperties(LivrosProperties.class)
+    static class PropriedadesConfig {
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.sistema.livros.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.sistema.livros.model.Book;
+import jakarta.persistence.EntityManagerFactory;
+
+// Cache de segundo nível ligado (LIVROS_CACHE_L2) e sem a transação do teste: cada chamada ao repository
+// roda na própria transação, como no service, e só o cache evita a ida ao banco
+@DataJpaTest(properties = "LIVROS_CACHE_L2=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookRepositoryCacheTest {
+
+    @Autowired
+    private BookRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics estatisticas;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        book = repository.save(new Book("Livro em cache", "Autor", "978-2000000001", LocalDate.of(2020, 1, 1)));
+
+        estatisticas = sessionFactory.getStatistics();
+        estatisticas.clear();
+    }
+
+
+    @Test
+    void deveResponderIsbnRepetidoPeloCacheDeConsultas() {
+        // ARRANGE
+        // As consultas de ISBN que o lote (depois do filtro de ISBNs) e o POST /lookup fazem
+        List<String> isbns = List.of("978-2000000001", "978-2000000002");
+
+        // ACT
+        assertEquals(List.of("978-2000000001"), repository.findIsbnsExistentes(isbns));
+        assertEquals(List.of("978-2000000001"), repository.findIsbnsExistentes(isbns));
+        assertEquals(book.getId(), repository.findResponsesByIsbnIn(isbns).get(0).getId());
+        assertEquals(book.getId(), repository.findResponsesByIsbnIn(isbns).get(0).getId());
+
+        // ASSERT
+        assertEquals(2, estatisticas.getQueryExecutionCount()); // Uma ida ao banco por consulta
+        assertEquals(2, estatisticas.getQueryCacheHitCount());
+
+        repository.deleteById(book.getId());
+    }
+
+    @Test
+    void deveBuscarPorIdNoCacheDeEntidades() {
+        // ACT
+        repository.findById(book.getId());
+        repository.findById(book.getId());
+
+        // ASSERT
+        assertEquals(0, estatisticas.getEntityLoadCount()); // O save já deixou o livro no cache
+        assertEquals(2, estatisticas.getSecondLevelCacheHitCount());
+
+        repository.deleteById(book.getId());
+    }
+
+    @Test
+    void deveInvalidarOCacheAoExcluirPeloComandoNativo() {
+        // ARRANGE
+        assertEquals(1, repository.findIsbnsExistentes(List.of("978-2000000001")).size());
+        repository.findById(book.getId());
+
+        // ACT
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> repository.removerRetornando(book.getId(), null));
+
+        // ASSERT
+        assertTrue(repository.findIsbnsExistentes(List.of("978-2000000001")).isEmpty());
+        assertTrue(repository.findById(book.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,200 @@
+package br.com.sistema.livros.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.model.Book;
+
+// @DataJpaTest - Sobe só a camada JPA com H2 e as migrações do Flyway (inclusive os dados iniciais da V2)
+@DataJpaTest
+class BookRepositoryTest {
+
+    @Autowired
+    private BookRepository repository;
+
+
+    @Test
+    void deveBuscarIgnorandoAcentosEMaiusculas() {
+        // ACT
+        List<Book> livros = repository.buscarPorTermos(List.of("sertao"), 10);
+
+        // ASSERT
+        assertEquals(1, livros.size());
+        assertEquals("Grande Sertão: Veredas", livros.get(0).getTitulo());
+    }
+
+    @Test
+    void deveBuscarPorTituloEAutorAoMesmoTempo() {
+        // ACT
+        List<Book> livros = repository.buscarPorTermos(List.of("senhor", "tolkien"), 10);
+
+        // ASSERT
+        assertEquals(1, livros.size());
+        assertEquals("9788533613379", livros.get(0).getIsbn());
+    }
+
+    @Test
+    void deveRespeitarLimiteDaBusca() {
+        // ACT
+        // "o" aparece em quase todos os livros iniciais
+        List<Book> livros = repository.buscarPorTermos(List.of("o"), 3);
+
+        // ASSERT
+        assertEquals(3, livros.size());
+    }
+
+    @Test
+    void deveRetornarVazioQuandoNenhumLivroCombinar() {
+        // ACT + ASSERT
+        assertTrue(repository.buscarPorTermos(List.of("inexistente"), 10).isEmpty());
+    }
+
+    @Test
+    void deveExcluirEDevolverOLivroRemovido() {
+        // ARRANGE
+        Book existente = repository.findByIsbn("9788533613379").orElseThrow();
+
+        // ACT
+        Optional<Book> removido = repository.removerRetornando(existente.getId(), null);
+
+        // ASSERT
+        assertEquals("9788533613379", removido.orElseThrow().getIsbn());
+        assertFalse(repository.existsById(existente.getId()));
+    }
+
+    @Test
+    void deveExcluirSoNaVersaoEsperada() {
+        // ARRANGE
+        Book existente = repository.findByIsbn("9788533613379").orElseThrow();
+        Long versao = existente.getVersao();
+
+        // ACT + ASSERT
+        assertTrue(repository.removerRetornando(existente.getId(), versao + 1).isEmpty());
+        assertTrue(repository.existsById(existente.getId()));
+        assertTrue(repository.removerRetornando(existente.getId(), versao).isPresent());
+        assertTrue(repository.removerRetornando(existente.getId(), null).isEmpty()); // Já não existe
+    }
+
+    @Test
+    void deveProjetarRespostaSemCarregarEntidade() {
+        // ARRANGE
+        Book existente = repository.findByIsbn("9788533613379").orElseThrow();
+
+        // ACT
+        BookResponseDTO resposta = repository.findResponseById(existente.getId()).orElseThrow();
+
+        // ASSERT
+        assertEquals(existente.getTitulo(), resposta.getTitulo());
+        assertEquals(existente.getVersao(), resposta.getVersao());
+        assertNotNull(resposta.getAtualizadoEm()); // Sem atualização, vale a data de criação
+    }
+
+    @Test
+    void deveProjetarPaginaEmOrdemDeId() {
+        // ACT
+        List<BookResponseDTO> pagina = repository.findResponsesAPartirDe(0L, Limit.of(3));
+
+        // ASSERT
+        assertEquals(3, pagina.size());
+        assertTrue(pagina.get(0).getId() < pagina.get(1).getId() && pagina.get(1).getId() < pagina.get(2).getId());
+        assertEquals(2, repository.findResponsesAPartirDe(pagina.get(0).getId(), Limit.of(2)).size());
+    }
+
+    @Test
+    void deveBuscarVariosPorIdEIsbnEmUmaConsulta() {
+        // ARRANGE
+        Book existente = repository.findByIsbn("9788533613379").orElseThrow();
+
+        // ACT
+        // Três chaves: o padding do IN completa com parâmetros repetidos até 4, sem mudar o resultado
+        List<BookResponseDTO> porId = repository.findResponsesByIdIn(List.of(existente.getId(), -1L, -2L));
+        List<BookResponseDTO> porIsbn = repository.findResponsesByIsbnIn(List.of("9788533613379", "0000000000000"));
+
+        // ASSERT
+        assertEquals(List.of(existente.getId()), porId.stream().map(BookResponseDTO::getId).toList());
+        assertEquals(List.of("9788533613379"), porIsbn.stream().map(BookResponseDTO::getIsbn).toList());
+    }
+
+    @Test
+    void devePaginarPorAutorEmOrdemDeId() {
+        // ARRANGE
+        repository.save(new Book("Memórias Póstumas de Brás Cubas", "Machado de Assis", "9788508040422", LocalDate.of(1881, 1, 1)));
+        Specification<Book> doAutor = BookSpecifications.doAutor("Machado de Assis");
+        Sort porId = Sort.by("id");
+
+        // ACT
+        List<BookResponseDTO> primeira = repository.findResponses(doAutor, porId, Limit.of(1));
+        List<BookResponseDTO> segunda = repository.findResponses(doAutor.and(BookSpecifications.depoisDe(
+                "id", Sort.Direction.ASC, null, primeira.get(0).getId())), porId, Limit.of(5));
+
+        // ASSERT
+        assertEquals("Dom Casmurro", primeira.get(0).getTitulo());
+        assertEquals(List.of("Memórias Póstumas de Brás Cubas"), segunda.stream().map(BookResponseDTO::getTitulo).toList());
+    }
+
+    @Test
+    void devePaginarEmOrdemDeTitulo() {
+        // ARRANGE
+        Sort porTitulo = Sort.by("titulo", "id");
+
+        // ACT
+        List<BookResponseDTO> primeira = repository.findResponses(Specification.unrestricted(), porTitulo, Limit.of(2));
+        BookResponseDTO ultimo = primeira.get(1);
+        List<BookResponseDTO> segunda = repository.findResponses(BookSpecifications.depoisDe(
+                "titulo", Sort.Direction.ASC, ultimo.getTitulo(), ultimo.getId()), porTitulo, Limit.of(1));
+
+        // ASSERT
+        assertEquals(List.of("1984", "A Menina que Roubava Livros"), primeira.stream().map(BookResponseDTO::getTitulo).toList());
+        assertEquals("Cem Anos de Solidão", segunda.get(0).getTitulo());
+    }
+
+    @Test
+    void deveFiltrarPorSpecificationsNaOrdemPedida() {
+        // ARRANGE
+        // Publicados entre 1940 e 1960 (V2): 1943, 1949, 1954 e 1956
+        Specification<Book> filtro = Specification.allOf(
+                BookSpecifications.publicadosDesde(LocalDate.of(1940, 1, 1)),
+                BookSpecifications.publicadosAte(LocalDate.of(1959, 12, 31)));
+        Sort porDataDecrescente = Sort.by(Sort.Direction.DESC, "publicadoEm", "id");
+
+        // ACT
+        List<BookResponseDTO> primeira = repository.findResponses(filtro, porDataDecrescente, Limit.of(2));
+        BookResponseDTO ultimo = primeira.get(1);
+        List<BookResponseDTO> segunda = repository.findResponses(filtro.and(BookSpecifications.depoisDe(
+                "publicadoEm", Sort.Direction.DESC, ultimo.getPublicadoEm(), ultimo.getId())), porDataDecrescente, Limit.of(5));
+
+        // ASSERT
+        assertEquals(List.of(LocalDate.of(1956, 1, 1), LocalDate.of(1954, 7, 29)),
+                primeira.stream().map(BookResponseDTO::getPublicadoEm).toList());
+        assertEquals(List.of("1984", "O Pequeno Príncipe"), segunda.stream().map(BookResponseDTO::getTitulo).toList());
+    }
+
+    @Test
+    void deveFiltrarPorPrefixoDeIsbnSemTratarCuringas() {
+        // ARRANGE
+        repository.save(new Book("Livro de Teste", "Autor de Teste", "123_456789", LocalDate.of(2020, 1, 1)));
+        repository.save(new Book("Outro Livro", "Autor de Teste", "1234456789", LocalDate.of(2020, 1, 1)));
+
+        // ACT
+        List<BookResponseDTO> encontrados = repository.findResponses(
+                BookSpecifications.comIsbnIniciadoPor("123_"), Sort.by("id"), Limit.of(10));
+
+        // ASSERT
+        // O "_" é literal: "1234456789" não entra
+        assertEquals(List.of("123_456789"), encontrados.stream().map(BookResponseDTO::getIsbn).toList());
+    }
+}
@@ -0,0 +1,197 @@
+package br.com.sistema.livros.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.sistema.livros.config.LivrosProperties;
+import br.com.sistema.livros.dto.BookAsyncStatusDTO;
+import br.com.sistema.livros.dto.BookAsyncStatusDTO.Status;
+import br.com.sistema.livros.dto.BookBatchResultDTO;
+import br.com.sistema.livros.dto.BookRequestDTO;
+import br.com.sistema.livros.exception.EntityNotFoundException;
+import br.com.sistema.livros.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class BookAsyncServiceTest {
+
+    @Mock
+    private BookBatchService batchService;
+
+    private LivrosProperties properties;
+    private BookAsyncService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LivrosProperties();
+        properties.getFila().setEsperaLote(Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.destroy();
+    }
+
+    // O gravador só começa quando o teste chama afterSingletonsInstantiated
+    private BookAsyncService criarService() {
+        service = new BookAsyncService(batchService, properties, new SimpleMeterRegistry());
+        return service;
+    }
+
+    private static BookRequestDTO livro(int i) {
+        return new BookRequestDTO("Livro " + i, "Autor " + i, "978-00000000" + i, LocalDate.of(2020, 1, 1));
+    }
+
+    // Resultado do lote como o BookBatchService devolveria: todos criados, IDs a partir de 100
+    private static List<BookBatchResultDTO> criados(List<BookRequestDTO> requests) {
+        List<BookBatchResultDTO> resultados = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            resultados.add(new BookBatchResultDTO(i, BookBatchResultDTO.Status.CRIADO, 100L + i, requests.get(i).getIsbn(), null));
+        }
+        return resultados;
+    }
+
+    private BookAsyncStatusDTO aguardarConclusao(String chave) throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        BookAsyncStatusDTO status = service.consultar(chave);
+        while (status.getStatus() == Status.PENDENTE && System.nanoTime() < limite) {
+            Thread.sleep(10);
+            status = service.consultar(chave);
+        }
+        return status;
+    }
+
+
+    @Test
+    void deveGravarPedidosEnfileiradosNumMesmoLote() throws Exception {
+        // ARRANGE
+        when(batchService.criarEmLote(anyList())).thenAnswer(invocacao -> criados(invocacao.getArgument(0)));
+        criarService();
+        assertEquals(Status.PENDENTE, service.enfileirar("a", livro(1)).getStatus());
+        service.enfileirar("b", livro(2));
+
+        // ACT
+        service.afterSingletonsInstantiated();
+
+        // ASSERT
+        assertEquals(Status.CRIADO, aguardarConclusao("a").getStatus());
+        assertEquals(101L, aguardarConclusao("b").getId());
+        verify(batchService, times(1)).criarEmLote(argThat(requests -> requests.size() == 2)); // Uma transação para os dois
+    }
+
+    @Test
+    void deveDevolverOMesmoPedidoAoRepetirAChave() {
+        // ARRANGE
+        criarService();
+        BookAsyncStatusDTO primeiro = service.enfileirar("a", livro(1));
+
+        // ACT
+        BookAsyncStatusDTO repetido = service.enfileirar("a", livro(1));
+
+        // ASSERT
+        assertSame(primeiro, repetido);
+    }
+
+    @Test
+    void deveRecusarChaveRepetidaComOutroLivro() {
+        // ARRANGE
+        criarService();
+        service.enfileirar("a", livro(1));
+
+        // ACT + ASSERT
+        assertThrows(IllegalArgumentException.class, () -> service.enfileirar("a", livro(2)));
+    }
+
+    @Test
+    void deveRecusarComFilaCheiaELiberarAChave() {
+        // ARRANGE
+        properties.getFila().setCapacidade(1);
+        criarService();
+        service.enfileirar("a", livro(1));
+
+        // ACT
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class, () -> service.enfileirar("b", livro(2)));
+
+        // ASSERT
+        assertEquals(1, ex.getRetryAfter());
+        assertThrows(EntityNotFoundException.class, () -> service.consultar("b")); // Pode ser reenviada depois
+    }
+
+    @Test
+    void deveManterPedidosPendentesAlemDoMaximoDeChaves() {
+        // ARRANGE
+        // O limite de chaves vale só para os concluídos: nenhum pendente pode sair antes de gravado
+        properties.getFila().setMaximoChaves(1);
+        criarService();
+        List<BookAsyncStatusDTO> primeiros = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            primeiros.add(service.enfileirar("chave-" + i, livro(i)));
+        }
+
+        // ACT + ASSERT
+        // Repetir a chave devolve o mesmo pedido, sem enfileirar outro
+        for (int i = 0; i < 50; i++) {
+            assertSame(primeiros.get(i), service.enfileirar("chave-" + i, livro(i)));
+            assertEquals(Status.PENDENTE, service.consultar("chave-" + i).getStatus());
+        }
+    }
+
+    @Test
+    void deveDevolverOResultadoAoRepetirAChaveDepoisDeGravado() throws Exception {
+        // ARRANGE
+        when(batchService.criarEmLote(anyList())).thenAnswer(invocacao -> criados(invocacao.getArgument(0)));
+        criarService();
+        service.enfileirar("a", livro(1));
+        service.afterSingletonsInstantiated();
+        assertEquals(Status.CRIADO, aguardarConclusao("a").getStatus());
+
+        // ACT
+        BookAsyncStatusDTO repetido = service.enfileirar("a", livro(1));
+
+        // ASSERT
+        assertEquals(Status.CRIADO, repetido.getStatus());
+        assertEquals(100L, repetido.getId());
+        verify(batchService, times(1)).criarEmLote(anyList()); // Gravado uma única vez
+    }
+
+    @Test
+    void deveGravarUmAUmQuandoOLoteFalhar() throws Exception {
+        // ARRANGE
+        // O lote com os dois falha (ex.: ISBN gravado por outra requisição); sozinho, só o segundo falha
+        when(batchService.criarEmLote(anyList())).thenAnswer(invocacao -> {
+            List<BookRequestDTO> requests = invocacao.getArgument(0);
+            if (requests.size() > 1 || requests.get(0).getIsbn().equals(livro(2).getIsbn())) {
+                throw new IllegalStateException("falha no commit");
+            }
+            return criados(requests);
+        });
+        criarService();
+        service.enfileirar("a", livro(1));
+        service.enfileirar("b", livro(2));
+
+        // ACT
+        service.afterSingletonsInstantiated();
+
+        // ASSERT
+        assertEquals(Status.CRIADO, aguardarConclusao("a").getStatus());
+        assertEquals(Status.ERRO, aguardarConclusao("b").getStatus());
+    }
+}
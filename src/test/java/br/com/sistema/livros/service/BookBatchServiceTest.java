@@ -0,0 +1,159 @@
+package br.com.sistema.livros.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import br.com.sistema.livros.config.LivrosProperties;
+import br.com.sistema.livros.dto.BookBatchResultDTO;
+import br.com.sistema.livros.dto.BookBatchResultDTO.Status;
+import br.com.sistema.livros.dto.BookRequestDTO;
+import br.com.sistema.livros.mapper.BookMapper;
+import br.com.sistema.livros.model.Book;
+import br.com.sistema.livros.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+
+@ExtendWith(MockitoExtension.class)
+class BookBatchServiceTest {
+
+    @Mock
+    private BookRepository repository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    @Mock
+    private BookIsbnFilterService filtroIsbns;
+
+    private ValidatorFactory validatorFactory;
+    private LivrosProperties properties;
+    private BookBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        // Validator e mapper reais: o lote depende das mesmas regras do cadastro unitário
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        properties = new LivrosProperties();
+        service = new BookBatchService(repository, new BookMapper(), validatorFactory.getValidator(), entityManager, properties, eventos, filtroIsbns);
+
+        // Por padrão o filtro de ISBNs não descarta nenhum: todos seguem para a consulta no banco
+        lenient().when(filtroIsbns.talvezExistentes(anyCollection())).thenAnswer(invocation -> new ArrayList<>(invocation.<Collection<String>>getArgument(0)));
+
+        // Simula a sequência do banco atribuindo IDs no persist (lenient: nem todo teste chega a persistir)
+        AtomicLong ids = new AtomicLong();
+        lenient().doAnswer(invocation -> {
+            Book book = invocation.getArgument(0);
+            book.setId(ids.incrementAndGet());
+            return null;
+        }).when(entityManager).persist(any(Book.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+
+    @Test
+    void deveRetornarUmResultadoPorItemNaOrdemDoLote() {
+        // ARRANGE
+        BookRequestDTO novo = new BookRequestDTO("Clean Code", "Robert C. Martin", "978-0132350884", LocalDate.of(2008, 8, 1));
+        BookRequestDTO jaCadastrado = new BookRequestDTO("Dom Casmurro", "Machado de Assis", "9788508040421", LocalDate.of(1899, 1, 1));
+        BookRequestDTO invalido = new BookRequestDTO("", "Robert C. Martin", "978-0134494166", LocalDate.of(2017, 9, 12));
+        BookRequestDTO repetido = new BookRequestDTO("Clean Code (cópia)", "Robert C. Martin", "978-0132350884", LocalDate.of(2008, 8, 1));
+
+        when(repository.findIsbnsExistentes(anyCollection())).thenReturn(List.of("9788508040421"));
+
+        // ACT
+        List<BookBatchResultDTO> resultados = service.criarEmLote(Arrays.asList(novo, jaCadastrado, invalido, repetido, null));
+
+        // ASSERT
+        assertEquals(5, resultados.size());
+        assertEquals(Status.CRIADO, resultados.get(0).getStatus());
+        assertEquals(1L, resultados.get(0).getId());
+        assertEquals(Status.DUPLICADO, resultados.get(1).getStatus());
+        assertEquals(Status.INVALIDO, resultados.get(2).getStatus());
+        assertEquals(Status.DUPLICADO, resultados.get(3).getStatus());
+        assertEquals(Status.INVALIDO, resultados.get(4).getStatus());
+        assertNull(resultados.get(3).getId());
+
+        // Só o primeiro livro foi persistido, com um único flush (e um único evento de criação)
+        verify(entityManager, times(1)).persist(any(Book.class));
+        verify(entityManager, times(1)).flush();
+        verify(eventos, times(1)).publishEvent(any(BookChangedEvent.class));
+    }
+
+
+    @Test
+    void deveConsultarIsbnsEmBlocos() {
+        // ARRANGE
+        // 2.500 livros válidos e distintos -> 3 consultas IN (1000 + 1000 + 500)
+        List<BookRequestDTO> lote = new ArrayList<>();
+        for (int i = 0; i < 2_500; i++) {
+            lote.add(new BookRequestDTO("Livro " + i, "Autor " + i, String.format("978%010d", i), LocalDate.of(2020, 1, 1)));
+        }
+        when(repository.findIsbnsExistentes(anyCollection())).thenReturn(Collections.emptyList());
+
+        // ACT
+        List<BookBatchResultDTO> resultados = service.criarEmLote(lote);
+
+        // ASSERT
+        assertEquals(2_500, resultados.stream().filter(r -> r.getStatus() == Status.CRIADO).count());
+        verify(repository, times(3)).findIsbnsExistentes(anyCollection());
+        verify(entityManager, times(5)).flush(); // A cada 500 livros
+    }
+
+
+    @Test
+    void naoDeveConsultarOBancoQuandoOFiltroDescartaTodosOsIsbns() {
+        // ARRANGE
+        when(filtroIsbns.talvezExistentes(anyCollection())).thenReturn(new ArrayList<>());
+        BookRequestDTO dto = new BookRequestDTO("Clean Code", "Robert C. Martin", "978-0132350884", LocalDate.of(2008, 8, 1));
+
+        // ACT
+        List<BookBatchResultDTO> resultados = service.criarEmLote(List.of(dto));
+
+        // ASSERT
+        assertEquals(Status.CRIADO, resultados.get(0).getStatus());
+        verify(repository, never()).findIsbnsExistentes(anyCollection());
+    }
+
+    @Test
+    void deveRejeitarLoteAcimaDoTamanhoMaximo() {
+        // ARRANGE
+        properties.getLote().setTamanhoMaximo(1);
+        BookRequestDTO dto = new BookRequestDTO("Clean Code", "Robert C. Martin", "978-0132350884", LocalDate.of(2008, 8, 1));
+
+        // ACT + ASSERT
+        assertThrows(IllegalArgumentException.class, () -> service.criarEmLote(List.of(dto, dto)));
+        verify(repository, never()).findIsbnsExistentes(anyCollection());
+    }
+}
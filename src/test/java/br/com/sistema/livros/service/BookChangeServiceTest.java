@@ -0,0 +1,169 @@
+package br.com.sistema.livros.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.sistema.livros.config.LivrosProperties;
+import br.com.sistema.livros.dto.BookChangeDTO;
+import br.com.sistema.livros.dto.BookChangeDTO.Tipo;
+import br.com.sistema.livros.dto.BookChangePageDTO;
+import br.com.sistema.livros.dto.BookRequestDTO;
+import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.exception.GoneException;
+import br.com.sistema.livros.mapper.BookMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Banco de verdade (H2 + Flyway) e sem a transação do @DataJpaTest: o outbox só é gravado no commit de cada operação
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ BookService.class, BookChangeService.class, BookMapper.class, LivrosProperties.class, SimpleMeterRegistry.class })
+class BookChangeServiceTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookChangeService service;
+
+    @Autowired
+    private LivrosProperties properties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long inicio;
+
+    @BeforeEach
+    void setUp() {
+        properties.getMudancas().setAtrasoVisibilidade(Duration.ZERO);
+        properties.getMudancas().setRetencao(Duration.ofDays(7));
+        inicio = service.listar(null, null).getUltimo();
+    }
+
+    private static BookRequestDTO livro(String isbn, String titulo) {
+        return new BookRequestDTO(titulo, "Autor", isbn, LocalDate.of(2020, 1, 1));
+    }
+
+
+    @Test
+    void deveRegistrarCriacaoAlteracaoERemocaoEmOrdem() {
+        // ARRANGE
+        BookResponseDTO criado = bookService.criarLivro(livro("978-1000000001", "Primeiro título"));
+        bookService.atualizarLivro(criado.getId(), livro("978-1000000001", "Título revisto"));
+        bookService.deletar(criado.getId());
+
+        // ACT
+        BookChangePageDTO pagina = service.listar(inicio, null);
+
+        // ASSERT
+        List<BookChangeDTO> alteracoes = pagina.getAlteracoes();
+        assertEquals(List.of(Tipo.CRIADO, Tipo.ATUALIZADO, Tipo.REMOVIDO), alteracoes.stream().map(BookChangeDTO::getTipo).toList());
+        assertEquals("Primeiro título", alteracoes.get(0).getLivro().getTitulo());
+        assertEquals("Título revisto", alteracoes.get(1).getLivro().getTitulo());
+        assertEquals(criado.getId(), alteracoes.get(2).getLivroId()); // A remoção leva o último estado do livro
+        assertEquals(alteracoes.get(2).getSeq(), pagina.getUltimo());
+        assertFalse(pagina.isTemMais());
+    }
+
+    @Test
+    void naoDeveRegistrarAlteracaoDeTransacaoDesfeita() {
+        // ARRANGE
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        // ACT
+        transacao.executeWithoutResult(status -> {
+            bookService.criarLivro(livro("978-1000000002", "Desfeito"));
+            status.setRollbackOnly();
+        });
+
+        // ASSERT
+        assertTrue(service.listar(inicio, null).getAlteracoes().isEmpty());
+    }
+
+    @Test
+    void devePaginarPeloUltimo() {
+        // ARRANGE
+        BookResponseDTO a = bookService.criarLivro(livro("978-1000000003", "A"));
+        BookResponseDTO b = bookService.criarLivro(livro("978-1000000004", "B"));
+
+        // ACT
+        BookChangePageDTO primeira = service.listar(inicio, 1);
+        BookChangePageDTO segunda = service.listar(primeira.getUltimo(), 1);
+
+        // ASSERT
+        assertTrue(primeira.isTemMais());
+        assertEquals(a.getId(), primeira.getAlteracoes().get(0).getLivroId());
+        assertEquals(b.getId(), segunda.getAlteracoes().get(0).getLivroId());
+        assertFalse(segunda.isTemMais());
+
+        bookService.deletar(a.getId());
+        bookService.deletar(b.getId());
+    }
+
+    @Test
+    void deveEsconderAlteracoesAindaRecentes() {
+        // ARRANGE
+        properties.getMudancas().setAtrasoVisibilidade(Duration.ofHours(1));
+        BookResponseDTO criado = bookService.criarLivro(livro("978-1000000005", "Recente"));
+
+        // ACT
+        BookChangePageDTO pagina = service.listar(inicio, null);
+
+        // ASSERT
+        assertTrue(pagina.getAlteracoes().isEmpty());
+        assertEquals(inicio, pagina.getUltimo()); // O consumidor não avança além do que ainda pode mudar
+
+        bookService.deletar(criado.getId());
+    }
+
+    @Test
+    void deveLiberarAlteracaoQuandoPassarOAtrasoPeloRelogioDoBanco() throws InterruptedException {
+        // ARRANGE
+        properties.getMudancas().setAtrasoVisibilidade(Duration.ofMillis(300));
+        BookResponseDTO criado = bookService.criarLivro(livro("978-1000000007", "Quase visível"));
+        assertTrue(service.listar(inicio, null).getAlteracoes().isEmpty());
+
+        // ACT
+        Thread.sleep(400);
+        BookChangePageDTO pagina = service.listar(inicio, null);
+
+        // ASSERT
+        assertEquals(List.of(criado.getId()), pagina.getAlteracoes().stream().map(BookChangeDTO::getLivroId).toList());
+        assertEquals(pagina.getUltimo(), service.listar(null, null).getUltimo()); // A posição atual também avançou
+
+        bookService.deletar(criado.getId());
+    }
+
+    @Test
+    void deveResponder410ParaPosicaoForaDaRetencao() {
+        // ARRANGE
+        BookResponseDTO criado = bookService.criarLivro(livro("978-1000000006", "Expira"));
+        bookService.deletar(criado.getId());
+        properties.getMudancas().setRetencao(Duration.ZERO);
+
+        // ACT
+        service.removerExpiradas();
+
+        // ASSERT
+        // A última alteração fica: marca até onde o feed chegou
+        BookChangePageDTO atual = service.listar(null, null);
+        assertTrue(service.listar(atual.getUltimo(), null).getAlteracoes().isEmpty());
+        assertThrows(GoneException.class, () -> service.listar(inicio, null));
+    }
+}
@@ -0,0 +1,160 @@
+package br.com.sistema.livros.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import br.com.sistema.livros.config.LivrosProperties;
+import br.com.sistema.livros.dto.BookChangeDTO;
+import br.com.sistema.livros.dto.BookChangePageDTO;
+import br.com.sistema.livros.dto.BookResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class BookChangeStreamServiceTest {
+
+    private static final int TAMANHO = new LivrosProperties().getMudancas().getTamanhoMaximo();
+
+    @Mock
+    private BookChangeService changeService;
+
+    private SimpleMeterRegistry registry;
+    private List<EmitterCapturado> emitters;
+    private BookChangeStreamService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        emitters = new ArrayList<>();
+        // Sem afterSingletonsInstantiated: cada rodada é disparada pelo teste
+        service = new BookChangeStreamService(changeService, new LivrosProperties(), registry) {
+            @Override
+            SseEmitter criarEmitter(long timeout) {
+                EmitterCapturado emitter = new EmitterCapturado();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private static BookChangePageDTO pagina(long ultimo, long... seqs) {
+        List<BookChangeDTO> alteracoes = new ArrayList<>();
+        for (long seq : seqs) {
+            BookResponseDTO livro = new BookResponseDTO(seq, "Livro " + seq, "Autor", "978-00000000" + seq, LocalDate.of(2020, 1, 1));
+            alteracoes.add(new BookChangeDTO(seq, BookChangeDTO.Tipo.CRIADO, seq, livro, LocalDateTime.of(2024, 1, 1, 0, 0)));
+        }
+        return new BookChangePageDTO(alteracoes, ultimo, false);
+    }
+
+    private double assinantes() {
+        return registry.get("livros.mudancas.assinantes").gauge().value();
+    }
+
+
+    @Test
+    void deveEntregarAsAlteracoesEmOrdemComOSeqComoId() {
+        // ARRANGE
+        // Sem posição, o stream começa no fim atual do feed
+        when(changeService.listar(null, null)).thenReturn(pagina(5));
+        when(changeService.listar(5L, TAMANHO)).thenReturn(pagina(7, 6, 7));
+        when(changeService.listar(7L, TAMANHO)).thenReturn(pagina(7));
+        service.assinar(null);
+
+        // ACT
+        service.publicar();
+        service.publicar();
+
+        // ASSERT
+        assertEquals(List.of("id:6\ndata:seq=6\n\n", "id:7\ndata:seq=7\n\n"), emitters.get(0).eventos);
+        verify(changeService).listar(7L, TAMANHO); // A segunda rodada continua do último entregue
+    }
+
+    @Test
+    void deveRetomarDaPosicaoInformadaNoLastEventId() {
+        // ARRANGE
+        when(changeService.listar(42L, TAMANHO)).thenReturn(pagina(43, 43));
+        service.assinar(42L);
+        service.assinar(42L);
+
+        // ACT
+        service.publicar();
+
+        // ASSERT
+        verify(changeService, times(2)).verificarPosicao(42L);
+        verify(changeService, times(1)).listar(42L, TAMANHO); // Assinantes na mesma posição dividem a consulta
+        assertEquals(List.of("id:43\ndata:seq=43\n\n"), emitters.get(0).eventos);
+        assertEquals(List.of("id:43\ndata:seq=43\n\n"), emitters.get(1).eventos);
+    }
+
+    @Test
+    void deveMandarHeartbeatDepoisDeUmTempoSemNovidades() {
+        // ARRANGE
+        when(changeService.listar(10L, TAMANHO)).thenReturn(pagina(10));
+        long inicio = System.nanoTime();
+        service.assinar(10L);
+
+        // ACT
+        service.publicar(inicio + TimeUnit.SECONDS.toNanos(1));
+        List<String> antes = List.copyOf(emitters.get(0).eventos);
+        service.publicar(inicio + TimeUnit.SECONDS.toNanos(16));
+
+        // ASSERT
+        assertTrue(antes.isEmpty());
+        assertEquals(List.of(":ping\n\n"), emitters.get(0).eventos);
+    }
+
+    @Test
+    void deveRemoverAssinanteDesconectado() {
+        // ARRANGE
+        when(changeService.listar(10L, TAMANHO)).thenReturn(pagina(11, 11));
+        service.assinar(10L);
+        emitters.get(0).desconectado = true;
+
+        // ACT
+        service.publicar();
+        service.publicar();
+
+        // ASSERT
+        assertEquals(0.0, assinantes());
+        verify(changeService, times(1)).listar(eq(10L), eq(TAMANHO)); // Sem assinantes, a rodada nem consulta o feed
+        verify(changeService, never()).listar(eq(11L), eq(TAMANHO));
+    }
+
+    // Guarda o texto de cada evento em vez de escrever numa conexão; "desconectado" simula o cliente que saiu
+    private static final class EmitterCapturado extends SseEmitter {
+
+        private final List<String> eventos = new ArrayList<>();
+        private boolean desconectado;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (desconectado) {
+                throw new IOException("Broken pipe");
+            }
+            StringBuilder texto = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType parte : builder.build()) {
+                texto.append(parte.getData() instanceof BookChangeDTO alteracao ? "seq=" + alteracao.getSeq() : parte.getData());
+            }
+            eventos.add(texto.toString());
+        }
+    }
+}
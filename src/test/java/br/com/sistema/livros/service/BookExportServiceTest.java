@@ -0,0 +1,91 @@
+package br.com.sistema.livros.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.com.sistema.livros.mapper.BookMapper;
+import br.com.sistema.livros.model.Book;
+import br.com.sistema.livros.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class BookExportServiceTest {
+
+    @Mock
+    private BookRepository repository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private BookExportService service;
+
+    private Book book;
+    private Book bookComVirgula;
+
+    @BeforeEach
+    void setUp() {
+        // Mapper e ObjectMapper reais: queremos verificar o conteúdo exato que sai no stream
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        service = new BookExportService(repository, new BookMapper(), objectMapper, entityManager);
+
+        book = new Book("Clean Code", "Robert C. Martin", "978-0132350884", LocalDate.of(2008, 8, 1));
+        book.setId(1L);
+        bookComVirgula = new Book("Grande Sertão: Veredas", "Rosa, \"Guimarães\"", "9788520923054", LocalDate.of(1956, 1, 1));
+        bookComVirgula.setId(2L);
+    }
+
+
+    @Test
+    void deveExportarUmLivroPorLinhaEmNdjson() throws Exception {
+        // ARRANGE
+        when(repository.streamTodos()).thenReturn(Stream.of(book, bookComVirgula));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // ACT
+        service.exportarNdjson(out);
+
+        // ASSERT
+        String[] linhas = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, linhas.length);
+        assertEquals("{\"id\":1,\"titulo\":\"Clean Code\",\"autor\":\"Robert C. Martin\",\"isbn\":\"978-0132350884\",\"publicadoEm\":\"2008-08-01\"}", linhas[0]);
+
+        // Cada livro escrito é removido do contexto de persistência
+        verify(entityManager, times(1)).detach(book);
+        verify(entityManager, times(1)).detach(bookComVirgula);
+    }
+
+
+    @Test
+    void deveEscaparCamposNoCsv() throws Exception {
+        // ARRANGE
+        when(repository.streamTodos()).thenReturn(Stream.of(bookComVirgula));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // ACT
+        service.exportarCsv(out);
+
+        // ASSERT
+        assertEquals("id,titulo,autor,isbn,publicadoEm\r\n"
+                + "2,Grande Sertão: Veredas,\"Rosa, \"\"Guimarães\"\"\",9788520923054,1956-01-01\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.sistema.livros.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.sistema.livros.config.LivrosProperties;
+import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.repository.BookRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class BookIsbnFilterServiceTest {
+
+    @Mock
+    private BookRepository repository;
+
+    // A carga roda num TransactionTemplate; o mock só precisa aceitar begin/commit
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LivrosProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private BookIsbnFilterService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LivrosProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        service = new BookIsbnFilterService(repository, transactionManager, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    private static String isbn(int i) {
+        return String.format("978%010d", i);
+    }
+
+    private static BookChangedEvent criado(String isbn) {
+        return BookChangedEvent.criado(1L, new BookResponseDTO(1L, "Livro", "Autor", isbn, null));
+    }
+
+    private double memoria() {
+        return meterRegistry.get("livros.isbns.filtro.memoria").gauge().value();
+    }
+
+
+    @Test
+    void deveDescartarIsbnsQueNaoEstaoCadastrados() {
+        // ARRANGE
+        when(repository.count()).thenReturn(2L);
+        when(repository.streamIsbns()).thenReturn(List.of(isbn(1), isbn(2)).stream());
+        service.afterSingletonsInstantiated();
+
+        // ACT
+        List<String> talvez = service.talvezExistentes(List.of(isbn(1), isbn(3)));
+
+        // ASSERT
+        assertEquals(List.of(isbn(1)), talvez);
+        assertEquals(1, meterRegistry.get("livros.isbns.filtro.consultas").tag("resultado", "ausente").counter().count());
+    }
+
+    @Test
+    void deveConsiderarTodosAntesDaCarga() {
+        // ACT + ASSERT
+        assertEquals(List.of(isbn(1), isbn(3)), service.talvezExistentes(List.of(isbn(1), isbn(3))));
+    }
+
+    @Test
+    void deveIncluirOIsbnDoLivroCriado() {
+        // ARRANGE
+        when(repository.streamIsbns()).thenReturn(List.<String>of().stream());
+        service.afterSingletonsInstantiated();
+
+        // ACT
+        service.aoAlterarLivro(criado(isbn(7)));
+
+        // ASSERT
+        assertEquals(List.of(isbn(7)), service.talvezExistentes(List.of(isbn(7), isbn(8))));
+    }
+
+    @Test
+    void deveReconstruirMaiorQuandoATaxaEstimadaPassaDoLimite() throws InterruptedException {
+        // ARRANGE
+        properties.getFiltroIsbns().setCapacidadeMinima(100);
+        when(repository.streamIsbns()).thenReturn(List.<String>of().stream());
+        service.afterSingletonsInstantiated();
+        double memoriaInicial = memoria();
+
+        // A reconstrução relê a tabela, agora com 1.000 livros
+        List<String> cadastrados = new ArrayList<>(IntStream.range(0, 1_000).mapToObj(BookIsbnFilterServiceTest::isbn).toList());
+        when(repository.count()).thenReturn(1_000L);
+        when(repository.streamIsbns()).thenAnswer(invocation -> cadastrados.stream());
+
+        // ACT
+        for (String isbn : cadastrados) {
+            service.aoAlterarLivro(criado(isbn));
+        }
+
+        // ASSERT
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (memoria() == memoriaInicial && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertTrue(memoria() > memoriaInicial);
+        assertEquals(cadastrados, service.talvezExistentes(cadastrados)); // Nenhum ISBN perdido na troca
+    }
+}
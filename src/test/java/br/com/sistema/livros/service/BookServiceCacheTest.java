@@ -0,0 +1,100 @@
+package br.com.sistema.livros.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.sistema.livros.config.CacheConfig;
+import br.com.sistema.livros.config.LivrosProperties;
+import br.com.sistema.livros.dto.BookRequestDTO;
+import br.com.sistema.livros.mapper.BookMapper;
+import br.com.sistema.livros.model.Book;
+import br.com.sistema.livros.repository.BookRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Carrega apenas o service com o cache de verdade (proxy do Spring) e o repository mockado
+@SpringBootTest(classes = { CacheConfig.class, BookService.class, BookMapper.class, LivrosProperties.class, SimpleMeterRegistry.class })
+class BookServiceCacheTest {
+
+    @Autowired
+    private BookService service;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private BookRepository repository;
+
+    // As leituras abrem a transação por TransactionTemplate; o mock só precisa aceitar begin/commit
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.LIVROS_POR_ID).clear();
+
+        book = new Book("Clean Code", "Robert C. Martin", "978-0132350884", LocalDate.of(2008, 8, 1));
+        book.setId(1L);
+        when(repository.findById(1L)).thenReturn(Optional.of(book));
+        // A leitura usa a projeção; o DTO sai do estado atual do "banco" (o book)
+        when(repository.findResponseById(1L)).thenAnswer(invocacao -> Optional.of(new BookMapper().toResponse(book)));
+    }
+
+
+    @Test
+    void deveBuscarNoBancoApenasNaPrimeiraLeitura() {
+        // ACT
+        service.getById(1L);
+        service.getById(1L);
+        service.getById(1L);
+
+        // ASSERT
+        verify(repository, times(1)).findResponseById(1L);
+    }
+
+
+    @Test
+    void deveRemoverDoCacheAoAtualizar() {
+        // ARRANGE
+        service.getById(1L);
+        when(repository.saveAndFlush(book)).thenReturn(book);
+
+        // ACT
+        service.atualizarLivro(1L, new BookRequestDTO("Clean Code - 2ª edição", "Robert C. Martin", "978-0132350884", LocalDate.of(2008, 8, 1)));
+
+        // ASSERT
+        // A próxima leitura volta ao banco e enxerga o título novo
+        assertEquals("Clean Code - 2ª edição", service.getById(1L).getTitulo());
+        verify(repository, times(2)).findResponseById(1L); // leitura e nova leitura
+        verify(repository, times(1)).findById(1L);         // a atualização carrega a entidade
+    }
+
+
+    @Test
+    void deveRemoverDoCacheAoDeletar() {
+        // ARRANGE
+        service.getById(1L);
+        when(repository.removerRetornando(1L, null)).thenReturn(Optional.of(book));
+
+        // ACT
+        service.deletar(1L);
+        service.getById(1L);
+
+        // ASSERT
+        verify(repository, times(2)).findResponseById(1L); // leitura e nova leitura (a exclusão não lê antes)
+    }
+}
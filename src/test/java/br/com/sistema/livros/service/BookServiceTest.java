@@ -2,24 +2,52 @@ package br.com.sistema.livros.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import br.com.sistema.livros.config.LivrosProperties;
+import br.com.sistema.livros.config.RoteamentoLeitura;
+import br.com.sistema.livros.dto.BookFiltroDTO;
+import br.com.sistema.livros.dto.BookLookupRequestDTO;
+import br.com.sistema.livros.dto.BookLookupResultDTO;
+import br.com.sistema.livros.dto.BookPageDTO;
+import br.com.sistema.livros.dto.BookPatchDTO;
 import br.com.sistema.livros.dto.BookRequestDTO;
 import br.com.sistema.livros.dto.BookResponseDTO;
+import br.com.sistema.livros.dto.BookVersionDTO;
 import br.com.sistema.livros.exception.EntityNotFoundException;
+import br.com.sistema.livros.exception.PreconditionFailedException;
 import br.com.sistema.livros.mapper.BookMapper;
 import br.com.sistema.livros.model.Book;
 import br.com.sistema.livros.repository.BookRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 
 @ExtendWith(MockitoExtension.class) // Ativa o Mockito nessa classe de teste
@@ -30,6 +58,18 @@ class BookServiceTest {
 
     @Mock // Cria um "fake" do mapper (não converte de verdade)
     private BookMapper mapper; // Variável que vai ser o fake
+
+    @Mock // Publicador de eventos (BookChangedEvent) - só verificamos o que foi publicado
+    private ApplicationEventPublisher eventos;
+
+    @Spy // Objeto real (valores padrão de paginação) que também é injetado no service
+    private LivrosProperties properties = new LivrosProperties();
+
+    @Mock // As leituras abrem a transação por TransactionTemplate; o mock só aceita begin/commit
+    private PlatformTransactionManager transactionManager;
+
+    @Spy // Registro de métricas em memória (contadores da coalescência de leituras)
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
     
     @InjectMocks // Injeta automaticamente os @Mock acima no service
     private BookService service; // O service recebe os mocks automaticamente
@@ -53,9 +93,8 @@ class BookServiceTest {
     void testCriarLivroComSucesso() { // Nome do teste: deve + ação + resultado esperado
     	
         // ========== ARRANGE (Preparar dados) - CONFIGURAR OS MOCKS ==========
-        when(repository.existsByIsbn("978-0132350884")).thenReturn(false); 	// Quando perguntar "existe ISBN?", responde FALSE - Significa: "O ISBN não existe ainda, pode criar"
         when(mapper.toEntity(requestDTO)).thenReturn(book); 				// Quando perguntar "converta DTO em Entity?", retorna o book - Significa: "Aqui está o livro convertido"
-        when(repository.save(book)).thenReturn(book); 						// Quando perguntar "salve esse livro?", retorna o book - Significa: "Livro salvo com sucesso"
+        when(repository.saveAndFlush(book)).thenReturn(book); 				// Quando perguntar "salve esse livro?", retorna o book - Significa: "Livro salvo com sucesso" (sem consultar o ISBN antes)
         when(mapper.toResponse(book)).thenReturn(responseDTO); 				// Quando perguntar "converta Entity em DTO?", retorna o responseDTO - Significa: "Aqui está o DTO para enviar ao cliente"
 
         
@@ -77,30 +116,49 @@ class BookServiceTest {
     @Test
     void deveApresentarIsbnDuplicado() {
     	// ARRANGE
-    	when(repository.existsByIsbn("978-0132350884")).thenReturn(true);
+    	// O banco recusa o INSERT pela restrição UNIQUE do ISBN
+    	when(mapper.toEntity(requestDTO)).thenReturn(book);
+    	when(repository.saveAndFlush(book)).thenThrow(violacaoDeUnicidade());
    
     	// ACT + ASSERT
-        assertThrows(IllegalArgumentException.class, () -> service.criarLivro(requestDTO)); // Quero que lance uma IllegalArgumentException ao chamar o método criarLivro	
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.criarLivro(requestDTO)); // Quero que lance uma IllegalArgumentException ao chamar o método criarLivro
+        assertEquals("ISBN já cadastrado: 978-0132350884", ex.getMessage());
+        verify(repository, never()).existsByIsbn(any());
+    }
+    
+    
+    @Test
+    void deveManterOutrasViolacoesDeIntegridade() {
+    	// ARRANGE
+    	DataIntegrityViolationException naoNulo = new DataIntegrityViolationException("not null", new ConstraintViolationException(
+    			"not null", new SQLException(), ConstraintViolationException.ConstraintKind.OTHER, "titulo"));
+    	when(mapper.toEntity(requestDTO)).thenReturn(book);
+    	when(repository.saveAndFlush(book)).thenThrow(naoNulo);
+   
+    	// ACT + ASSERT
+        assertThrows(DataIntegrityViolationException.class, () -> service.criarLivro(requestDTO));
     }
     
     
     @Test
     void deveExcluirLivroComSucesso() {
     	//ARRANGE
-    	when(repository.existsById(1L)).thenReturn(true);
+    	when(repository.removerRetornando(1L, null)).thenReturn(Optional.of(book));	// DELETE ... RETURNING: uma ida ao banco
     	
     	//ACT
     	service.deletar(1L);
     	
     	// ASSERT
-        // Se chegou aqui sem exceção, teste PASSOU
+    	verify(repository, never()).findById(any());
+    	verify(eventos).publishEvent(any(BookChangedEvent.class));	// Avisa quem acompanha as alterações (ex.: índice de sugestões)
     }
     
     
     @Test
     void deveLançarErroAoDeletarLivroInexistente() {
     	//ARRANGE
-    	when(repository.existsById(1L)).thenReturn(false);
+    	when(repository.removerRetornando(1L, null)).thenReturn(Optional.empty());
+    	when(repository.findVersaoById(1L)).thenReturn(Optional.empty());
     	
     	// ACT + ASSERT
         assertThrows(						// Uma função que ESPERA uma exceção
@@ -110,15 +168,257 @@ class BookServiceTest {
     }
     
     
+    @Test
+    void deveRecusarExclusaoComVersaoDesatualizada() {
+    	// ARRANGE
+    	// Nenhuma linha na versão 2, mas o livro existe (versão 3): alguém alterou depois que o cliente leu
+    	when(repository.removerRetornando(1L, 2L)).thenReturn(Optional.empty());
+    	when(repository.findVersaoById(1L)).thenReturn(Optional.of(new BookVersionDTO(3L, null)));
+    	
+    	// ACT
+    	PreconditionFailedException erro = assertThrows(PreconditionFailedException.class, () -> service.deletar(1L, 2L));
+    	
+    	// ASSERT
+    	assertEquals("Versão 2 do livro 1 não é mais a atual (versão atual: 3)", erro.getMessage());
+    }
+    
+    
+    @Test
+    void naoDeveCitarVersaoDoClienteQuandoAExclusaoNaoTinhaIfMatch() {
+    	// ARRANGE
+    	// Sem pré-condição o DELETE não removeu nada, mas o livro existe: mudou entre o comando e a consulta
+    	when(repository.removerRetornando(1L, null)).thenReturn(Optional.empty());
+    	when(repository.findVersaoById(1L)).thenReturn(Optional.of(new BookVersionDTO(4L, null)));
+    	
+    	// ACT
+    	PreconditionFailedException erro = assertThrows(PreconditionFailedException.class, () -> service.deletar(1L));
+    	
+    	// ASSERT
+    	assertEquals("Livro 1 foi alterado por outra requisição durante a exclusão (versão atual: 4)", erro.getMessage());
+    }
+    
+    
     @Test
     void deveAtualizarLivroComSucesso() {
     	// ARRANGE
-        when(repository.existsById(1L)).thenReturn(true);
+        when(repository.findById(1L)).thenReturn(Optional.of(book));
+        when(repository.saveAndFlush(book)).thenReturn(book);
+        when(mapper.toResponse(book)).thenReturn(responseDTO);
 
         // ACT
         BookResponseDTO result = service.atualizarLivro(book.getId(), requestDTO);
 
         // ASSERT
         assertNotNull(result);
+        verify(repository, never()).existsByIsbn(any());	// ISBN repetido fica a cargo da restrição UNIQUE
+        verify(eventos).publishEvent(any(BookChangedEvent.class));
+    }
+    
+    
+    @Test
+    void deveTraduzirIsbnDuplicadoNaAtualizacao() {
+    	// ARRANGE
+        when(repository.findById(1L)).thenReturn(Optional.of(book));
+        // Como o PostgreSQL reporta: sem o tipo da restrição, só o SQLState 23505 (unique_violation)
+        when(repository.saveAndFlush(book)).thenThrow(new DataIntegrityViolationException("duplicate key", new ConstraintViolationException(
+        		"duplicate key", new SQLException("duplicate key", "23505"), ConstraintViolationException.ConstraintKind.OTHER, "books_isbn_key")));
+        BookRequestDTO outroIsbn = new BookRequestDTO("Clean Code", "Robert C. Martin", "978-0135957059", LocalDate.of(2008, 8, 1));
+
+        // ACT + ASSERT
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.atualizarLivro(1L, outroIsbn));
+        assertEquals("ISBN já cadastrado: 978-0135957059", ex.getMessage());
+    }
+    
+    
+    @Test
+    void deveAtualizarParcialmenteSoOsCamposInformados() {
+    	// ARRANGE
+        when(repository.findById(1L)).thenReturn(Optional.of(book));
+        when(repository.saveAndFlush(book)).thenReturn(book);
+
+        // ACT
+        service.atualizarParcialmente(1L, new BookPatchDTO("Clean Code - 2ª edição", null, null, null), null);
+
+        // ASSERT
+        assertEquals("Clean Code - 2ª edição", book.getTitulo());
+        assertEquals("Robert C. Martin", book.getAutor());			// Campos não enviados continuam iguais
+        assertEquals("978-0132350884", book.getIsbn());
+        assertEquals(LocalDate.of(2008, 8, 1), book.getPublicadoEm());
+    }
+    
+    
+    @Test
+    void deveRecusarAtualizacaoParcialSemCampos() {
+    	// ACT + ASSERT
+    	assertThrows(IllegalArgumentException.class, () -> service.atualizarParcialmente(1L, new BookPatchDTO(), null));
+    	verify(repository, never()).findById(any());
+    }
+    
+    
+    @Test
+    void deveListarPrimeiraPaginaComCursorParaProxima() {
+    	// ARRANGE
+    	BookResponseDTO response2 = new BookResponseDTO(2L, "Clean Architecture", "Robert C. Martin", "978-0134494166", LocalDate.of(2017, 9, 12));
+    	BookResponseDTO response3 = new BookResponseDTO(3L, "Refactoring", "Martin Fowler", "978-0134757599", LocalDate.of(2018, 11, 20));
+    	when(repository.findResponsesAPartirDe(0L, Limit.of(3))).thenReturn(List.of(responseDTO, response2, response3)); // Pede 1 a mais que o tamanho
+
+    	// ACT
+    	BookPageDTO pagina = service.listarTodos(null, 2);
+
+    	// ASSERT
+    	assertEquals(2, pagina.getConteudo().size());		// O registro extra não é devolvido
+    	assertNotNull(pagina.getProximo());					// Existe próxima página
+    	verify(mapper, never()).toResponse(any(Book.class));	// A projeção já vem pronta do banco
+    	
+    	// O cursor aponta para o último livro entregue (ID 2)
+    	when(repository.findResponsesAPartirDe(eq(2L), any(Limit.class))).thenReturn(List.of(response3));
+    	BookPageDTO segunda = service.listarTodos(pagina.getProximo(), 2);
+    	assertEquals(1, segunda.getConteudo().size());
+    	assertNull(segunda.getProximo());					// Última página
+    }
+    
+    
+    @Test
+    void deveLimitarTamanhoDaPaginaAoMaximoConfigurado() {
+    	// ARRANGE
+    	properties.getPaginacao().setTamanhoMaximo(50);
+    	when(repository.findResponsesAPartirDe(0L, Limit.of(51))).thenReturn(List.of());
+
+    	// ACT
+    	BookPageDTO pagina = service.listarTodos(null, 10_000);
+
+    	// ASSERT
+    	assertEquals(0, pagina.getConteudo().size());
+    	assertNull(pagina.getProximo());
+    }
+    
+    
+    @Test
+    void deveRejeitarCursorInvalido() {
+    	assertThrows(IllegalArgumentException.class, () -> service.listarTodos("nao-e-um-cursor", null));
+    }
+    
+    
+    @Test
+    void deveListarComFiltrosPorSpecificationECursorNoCampoDaOrdenacao() {
+    	// ARRANGE
+    	BookFiltroDTO filtro = new BookFiltroDTO("Robert C. Martin", null, null, null, "titulo", "desc");
+    	BookResponseDTO response2 = new BookResponseDTO(2L, "Clean Architecture", "Robert C. Martin", "978-0134494166", LocalDate.of(2017, 9, 12));
+    	when(repository.findResponses(any(), eq(Sort.by(Sort.Direction.DESC, "titulo", "id")), eq(Limit.of(2))))
+    			.thenReturn(List.of(responseDTO, response2));
+
+    	// ACT
+    	BookPageDTO pagina = service.listarTodos(null, 1, filtro);
+
+    	// ASSERT
+    	assertEquals(List.of(responseDTO), pagina.getConteudo());
+    	verify(repository, never()).findResponsesAPartirDe(any(), any());	// Com filtro, a consulta fixa por ID não atende
+
+    	// O cursor guarda o título e o ID do último entregue, e só vale para a mesma ordenação
+    	when(repository.findResponses(any(), any(), any())).thenReturn(List.of(response2));
+    	assertNull(service.listarTodos(pagina.getProximo(), 1, filtro).getProximo());
+    	assertThrows(IllegalArgumentException.class, () -> service.listarTodos(pagina.getProximo(), 1, new BookFiltroDTO()));
+    }
+    
+    
+    @Test
+    void deveIgnorarEspacosNasPontasDosFiltrosDeTexto() {
+    	// ACT
+    	// "?autor=%20Machado&isbnPrefixo=978%20" e "?autor=%20%20"
+    	ConsultaLivros comEspacos = ConsultaLivros.de(new BookFiltroDTO(" Machado", null, null, "978 ", null, null));
+    	ConsultaLivros soEspacos = ConsultaLivros.de(new BookFiltroDTO("  ", null, null, " ", null, null));
+
+    	// ASSERT
+    	assertEquals("Machado", comEspacos.autor());
+    	assertEquals("978", comEspacos.isbnPrefixo());
+    	assertNull(soEspacos.autor());
+    	assertNull(soEspacos.isbnPrefixo());
+    }
+    
+    
+    @Test
+    void deveRejeitarOrdenacaoEFaixaDePublicacaoInvalidas() {
+    	assertThrows(IllegalArgumentException.class,
+    			() -> service.listarTodos(null, null, new BookFiltroDTO(null, null, null, null, "isbn", null)));
+    	assertThrows(IllegalArgumentException.class,
+    			() -> service.listarTodos(null, null, new BookFiltroDTO(null, null, null, null, "titulo", "para-cima")));
+    	assertThrows(IllegalArgumentException.class, () -> service.listarTodos(null, null,
+    			new BookFiltroDTO(null, LocalDate.of(2020, 1, 1), LocalDate.of(2019, 1, 1), null, null, null)));
+    	verify(repository, never()).findResponses(any(), any(), any());
+    }
+    
+    
+    @Test
+    void deveRecusarAtualizacaoComVersaoDesatualizada() {
+    	// ARRANGE
+    	book.setVersao(3L);													// Versão atual no banco
+    	when(repository.findById(1L)).thenReturn(Optional.of(book));
+
+    	// ACT + ASSERT
+    	// O cliente enviou If-Match com a versão 2: alguém alterou o livro depois que ele leu
+    	assertThrows(PreconditionFailedException.class, () -> service.atualizarLivro(1L, requestDTO, 2L));
+    }
+    
+    
+    @Test
+    void deveBuscarVariosNaOrdemDoEnvioMarcandoAusentes() {
+    	// ARRANGE
+    	BookResponseDTO outro = new BookResponseDTO(2L, "Refactoring", "Martin Fowler", "978-0134757599", LocalDate.of(2018, 11, 20));
+    	when(repository.findResponsesByIdIn(Set.of(2L, 99L, 1L))).thenReturn(List.of(responseDTO, outro));	// Ordem do banco, não do envio
+    	when(repository.findResponsesByIsbnIn(Set.of("978-0000000000", "978-0132350884"))).thenReturn(List.of(responseDTO));
+
+    	// ACT
+    	List<BookLookupResultDTO> resultados = service.buscarVarios(new BookLookupRequestDTO(
+    			List.of(2L, 99L, 1L, 2L), List.of("978-0000000000", "978-0132350884")));
+
+    	// ASSERT
+    	assertEquals(List.of("2", "99", "1", "2", "978-0000000000", "978-0132350884"),
+    			resultados.stream().map(BookLookupResultDTO::getChave).toList());
+    	assertEquals(List.of(BookLookupResultDTO.Status.ENCONTRADO, BookLookupResultDTO.Status.NAO_ENCONTRADO,
+    			BookLookupResultDTO.Status.ENCONTRADO, BookLookupResultDTO.Status.ENCONTRADO,
+    			BookLookupResultDTO.Status.NAO_ENCONTRADO, BookLookupResultDTO.Status.ENCONTRADO),
+    			resultados.stream().map(BookLookupResultDTO::getStatus).toList());
+    	assertEquals("Refactoring", resultados.get(0).getLivro().getTitulo());
+    	assertNull(resultados.get(1).getLivro());
+    	assertEquals(BookLookupResultDTO.Tipo.ISBN, resultados.get(5).getTipo());
+    }
+    
+    
+    @Test
+    void deveRecusarBuscaDeVariosVaziaOuAcimaDoMaximo() {
+    	// ARRANGE
+    	properties.getLote().setConsultaMaxima(2);
+
+    	// ACT + ASSERT
+    	assertThrows(IllegalArgumentException.class, () -> service.buscarVarios(new BookLookupRequestDTO(null, List.of())));
+    	assertThrows(IllegalArgumentException.class, () -> service.buscarVarios(new BookLookupRequestDTO(List.of(1L, 2L), List.of("978-0132350884"))));
+    	verify(repository, never()).findResponsesByIdIn(any());
+    }
+
+    @Test
+    void deveLerDoPrimarioOLivroAlteradoHaPouco() {
+    	// ARRANGE
+    	// Registra, a cada consulta, se a leitura foi obrigada a ir ao primário
+    	List<Boolean> noPrimario = new ArrayList<>();
+    	when(repository.findResponseById(1L)).thenAnswer(invocacao -> {
+    		noPrimario.add(RoteamentoLeitura.primarioExigido());
+    		return Optional.of(responseDTO);
+    	});
+    	service.getById(1L);
+
+    	// ACT
+    	service.aoAlterarLivro(BookChangedEvent.atualizado(1L, responseDTO, responseDTO));
+    	service.getById(1L);
+
+    	// ASSERT
+    	// Antes da alteração a leitura aceita réplica; durante a janela, só o primário
+    	assertEquals(List.of(false, true), noPrimario);
+    }
+    
+    
+    // Exceção como o Spring entrega quando o banco recusa um ISBN repetido
+    private static DataIntegrityViolationException violacaoDeUnicidade() {
+    	return new DataIntegrityViolationException("duplicate key", new ConstraintViolationException(
+    			"duplicate key", new SQLException(), ConstraintViolationException.ConstraintKind.UNIQUE, "books_isbn_key"));
     }
-}
\ No newline at end of file
+}
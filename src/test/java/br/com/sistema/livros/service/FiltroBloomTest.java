@@ -0,0 +1,66 @@
+package br.com.sistema.livros.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class FiltroBloomTest {
+
+    private static String isbn(int i) {
+        return String.format("978%010d", i);
+    }
+
+
+    @Test
+    void deveEncontrarTodosOsIsbnsIncluidos() {
+        // ARRANGE
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar(isbn(i));
+        }
+
+        // ACT + ASSERT
+        // Nunca há falso negativo
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtro.talvezContenha(isbn(i)));
+        }
+    }
+
+    @Test
+    void deveManterFalsosPositivosPertoDaTaxaConfigurada() {
+        // ARRANGE
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar(isbn(i));
+        }
+
+        // ACT
+        int falsosPositivos = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filtro.talvezContenha(isbn(i))) {
+                falsosPositivos++;
+            }
+        }
+
+        // ASSERT
+        double taxa = falsosPositivos / 100_000.0;
+        assertTrue(taxa < 0.02, "taxa observada: " + taxa);
+        assertEquals(0.01, filtro.taxaEstimada(), 0.005); // A estimativa pelos bits ligados acompanha a observada
+    }
+
+    @Test
+    void deveDimensionarPelaCapacidadeETaxa() {
+        // ACT
+        FiltroBloom filtro = new FiltroBloom(1_000_000, 0.01);
+
+        // ASSERT
+        // ~9,6 bits por ISBN e 7 funções de hash para 1%
+        assertEquals(1_198_136, filtro.bytes(), 64);
+        assertEquals(7, filtro.funcoes());
+        assertFalse(filtro.talvezContenha(isbn(1)));
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloom(0, 0.01));
+    }
+}
@@ -0,0 +1,166 @@
+package br.com.sistema.livros.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.sistema.livros.dto.BookSuggestionDTO;
+import br.com.sistema.livros.dto.BookSuggestionDTO.Campo;
+
+class IndiceSugestoesTest {
+
+    private IndiceSugestoes indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceSugestoes(10);
+
+        IndiceSugestoes.Carga carga = indice.iniciarCarga();
+        carga.adicionar(Campo.TITULO, "Grande Sertão: Veredas");
+        carga.adicionar(Campo.AUTOR, "Guimarães Rosa");
+        carga.adicionar(Campo.TITULO, "Dom Casmurro");
+        carga.adicionar(Campo.AUTOR, "Machado de Assis");
+        carga.adicionar(Campo.TITULO, "Memórias Póstumas de Brás Cubas");
+        carga.adicionar(Campo.AUTOR, "Machado de Assis");
+        carga.concluir();
+    }
+
+    private List<String> textos(String prefixo) {
+        return indice.sugerir(prefixo, 10).stream().map(BookSuggestionDTO::getTexto).toList();
+    }
+
+
+    @Test
+    void deveSugerirIgnorandoAcentosEMaiusculas() {
+        // ACT + ASSERT
+        assertEquals(List.of("Grande Sertão: Veredas"), textos("SERT"));
+        assertEquals(List.of("Guimarães Rosa"), textos("guimaraes r"));
+    }
+
+    @Test
+    void deveSugerirPeloInicioDeQualquerPalavra() {
+        // ACT + ASSERT
+        // "Grande Sertão: Veredas" -> a pontuação conta como um único espaço
+        assertEquals(List.of("Grande Sertão: Veredas"), textos("sertao veredas"));
+        assertEquals(List.of("Memórias Póstumas de Brás Cubas"), textos("bras"));
+        assertTrue(textos("ertao").isEmpty()); // No meio de uma palavra não vale
+    }
+
+    @Test
+    void deveContarLivrosPorTextoEPriorizarQuemComecaPeloPrefixo() {
+        // ACT
+        List<BookSuggestionDTO> sugestoes = indice.sugerir("m", 10);
+
+        // ASSERT
+        // "Machado de Assis" e "Memórias..." começam por "m"; o autor tem 2 livros e vem primeiro
+        assertEquals("Machado de Assis", sugestoes.get(0).getTexto());
+        assertEquals(2, sugestoes.get(0).getLivros());
+        assertEquals(Campo.AUTOR, sugestoes.get(0).getCampo());
+        assertEquals("Memórias Póstumas de Brás Cubas", sugestoes.get(1).getTexto());
+    }
+
+    @Test
+    void deveDistinguirPalavraCompletaQuandoPrefixoTerminaComEspaco() {
+        // ARRANGE
+        indice.adicionar(Campo.TITULO, "Domingo no Parque");
+
+        // ACT + ASSERT
+        assertEquals(2, textos("dom").size());
+        assertEquals(List.of("Dom Casmurro"), textos("dom "));
+    }
+
+    @Test
+    void deveAcompanharInclusoesEExclusoesIncrementais() {
+        // ACT
+        indice.adicionar(Campo.TITULO, "Sagarana");
+        indice.remover(Campo.TITULO, "Dom Casmurro");
+
+        // ASSERT
+        assertEquals(List.of("Sagarana"), textos("saga"));
+        assertTrue(textos("casmurro").isEmpty());
+        // Um dos livros do Machado saiu: a contagem do autor cai para 1
+        indice.remover(Campo.AUTOR, "Machado de Assis");
+        assertEquals(1, indice.sugerir("machado", 10).get(0).getLivros());
+    }
+
+    @Test
+    void deveVoltarASugerirTextoZeradoQuandoForUsadoDeNovo() {
+        // ARRANGE
+        indice.remover(Campo.TITULO, "Dom Casmurro");
+        assertTrue(textos("casm").isEmpty());
+
+        // ACT
+        indice.adicionar(Campo.TITULO, "Dom Casmurro");
+
+        // ASSERT
+        assertEquals(List.of("Dom Casmurro"), textos("casm"));
+        assertEquals(5, indice.textos());
+    }
+
+    @Test
+    void deveRanquearTodosOsTextosDoPrefixoMesmoComMuitosCandidatos() {
+        // ARRANGE
+        // 600 títulos começando por "a"; o mais usado é o último em ordem alfabética
+        for (int i = 0; i < 600; i++) {
+            indice.adicionar(Campo.TITULO, String.format("A%03d", i));
+        }
+        for (int i = 0; i < 3; i++) {
+            indice.adicionar(Campo.TITULO, "Azul Profundo");
+        }
+
+        // ACT
+        List<BookSuggestionDTO> sugestoes = indice.sugerir("a", 5);
+
+        // ASSERT
+        assertEquals(5, sugestoes.size());
+        assertEquals("Azul Profundo", sugestoes.get(0).getTexto());
+        assertEquals(3, sugestoes.get(0).getLivros());
+        assertEquals("A000", sugestoes.get(1).getTexto()); // Empates em 1 livro: ordem alfabética
+    }
+
+    @Test
+    void deveRefazerOsMelhoresDoPrefixoQuandoAContagemMuda() {
+        // ARRANGE
+        // Cada prefixo guarda só os 2 melhores; 40 títulos em "b" forçam a divisão dos baldes
+        indice = new IndiceSugestoes(2);
+        for (int i = 0; i < 40; i++) {
+            indice.adicionar(Campo.TITULO, String.format("Bala %02d", i));
+        }
+
+        // ACT
+        indice.adicionar(Campo.TITULO, "Bala 39");
+        List<String> depoisDeSubir = indice.sugerir("bala", 10).stream().map(BookSuggestionDTO::getTexto).toList();
+        indice.remover(Campo.TITULO, "Bala 39");
+        indice.remover(Campo.TITULO, "Bala 39");
+        indice.remover(Campo.TITULO, "Bala 00");
+        List<String> depoisDeSair = indice.sugerir("b", 10).stream().map(BookSuggestionDTO::getTexto).toList();
+
+        // ASSERT
+        assertEquals(List.of("Bala 39", "Bala 00"), depoisDeSubir);
+        assertEquals(List.of("Bala 01", "Bala 02"), depoisDeSair);
+        assertEquals(List.of("Bala 17"), indice.sugerir("bala 17", 10).stream().map(BookSuggestionDTO::getTexto).toList());
+        assertEquals(38, indice.textos());
+    }
+
+    @Test
+    void deveEstimarMemoriaOcupada() {
+        // ACT
+        long antes = indice.bytesEstimados();
+        indice.adicionar(Campo.TITULO, "Vidas Secas");
+
+        // ASSERT
+        assertTrue(antes > 0);
+        assertTrue(indice.bytesEstimados() > antes);
+    }
+
+    @Test
+    void deveIgnorarPrefixoSemLetrasOuNumeros() {
+        // ACT + ASSERT
+        assertTrue(textos(" :: ").isEmpty());
+        assertTrue(textos(null).isEmpty());
+    }
+}
@@ -0,0 +1,137 @@
+package br.com.sistema.livros.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LeiturasEmAndamentoTest {
+
+    private final AtomicLong geracao = new AtomicLong();
+    private final AtomicInteger cargas = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private LeiturasEmAndamento<Long, String> leituras;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        leituras = new LeiturasEmAndamento<>("getById", geracao::get, meterRegistry);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // Carga que só termina quando o teste liberar, contando quantas vezes foi ao "banco"
+    private String carregar(CountDownLatch iniciada, CountDownLatch liberada) {
+        cargas.incrementAndGet();
+        iniciada.countDown();
+        try {
+            liberada.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return "livro-" + cargas.get();
+    }
+
+    private double contador(String resultado) {
+        return meterRegistry.get("livros.leituras.coalescencia").tag("resultado", resultado).counter().count();
+    }
+
+    // Espera as chamadas chegarem à coalescência (executada + compartilhadas)
+    private void aguardarChamadas(int quantidade) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (contador("executada") + contador("compartilhada") < quantidade && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+    }
+
+
+    @Test
+    void deveCompartilharUmaCargaEntreChamadasSimultaneas() throws Exception {
+        // ARRANGE
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberada = new CountDownLatch(1);
+        List<Future<String>> chamadas = new ArrayList<>();
+
+        // ACT
+        for (int i = 0; i < 10; i++) {
+            chamadas.add(executor.submit(() -> leituras.executar(1L, () -> carregar(iniciada, liberada))));
+        }
+        iniciada.await(5, TimeUnit.SECONDS);
+        aguardarChamadas(10);
+        liberada.countDown();
+
+        // ASSERT
+        for (Future<String> chamada : chamadas) {
+            assertEquals("livro-1", chamada.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, cargas.get());
+        assertEquals(1, contador("executada"));
+        assertEquals(9, contador("compartilhada"));
+
+        // Terminada a carga, nada fica guardado: a próxima chamada vai ao banco de novo
+        assertEquals("livro-2", leituras.executar(1L, () -> carregar(new CountDownLatch(1), new CountDownLatch(0))));
+    }
+
+    @Test
+    void naoDeveAproveitarCargaIniciadaAntesDeUmaAlteracao() throws Exception {
+        // ARRANGE
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberada = new CountDownLatch(1);
+        Future<String> antiga = executor.submit(() -> leituras.executar(1L, () -> carregar(iniciada, liberada)));
+        iniciada.await(5, TimeUnit.SECONDS);
+
+        // ACT
+        geracao.incrementAndGet(); // Alteração confirmada enquanto a primeira carga está em andamento
+        String nova = leituras.executar(1L, () -> carregar(new CountDownLatch(1), new CountDownLatch(0)));
+        liberada.countDown();
+
+        // ASSERT
+        assertEquals("livro-2", nova);
+        assertEquals(2, cargas.get());
+        assertEquals(0, contador("compartilhada"));
+        antiga.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void deveRepassarAExcecaoDaCargaParaQuemEspera() throws Exception {
+        // ARRANGE
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberada = new CountDownLatch(1);
+        IllegalStateException falha = new IllegalStateException("banco fora do ar");
+        Future<String> primeira = executor.submit(() -> leituras.executar(1L, () -> {
+            carregar(iniciada, liberada);
+            throw falha;
+        }));
+        iniciada.await(5, TimeUnit.SECONDS);
+
+        // ACT
+        Future<String> segunda = executor.submit(() -> leituras.executar(1L, () -> "não deveria executar"));
+        aguardarChamadas(2);
+        liberada.countDown();
+
+        // ASSERT
+        Exception recebida = assertThrows(Exception.class, () -> segunda.get(5, TimeUnit.SECONDS));
+        assertSame(falha, recebida.getCause());
+        assertThrows(Exception.class, () -> primeira.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.sistema.livros.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TermosBuscaTest {
+
+    @Test
+    void deveRemoverAcentosEMaiusculas() {
+        // ACT + ASSERT
+        assertEquals("grande sertao: veredas", TermosBusca.normalizar("Grande Sertão: Veredas"));
+        assertEquals("acao e coracao", TermosBusca.normalizar("AÇÃO e Coração"));
+    }
+
+    @Test
+    void deveQuebrarEmTermosSemRepeticao() {
+        // ACT
+        List<String> termos = TermosBusca.termos("  Sertão, sertao -- Veredas! ");
+
+        // ASSERT
+        assertEquals(List.of("sertao", "veredas"), termos);
+    }
+
+    @Test
+    void deveLimitarQuantidadeDeTermos() {
+        // ACT
+        List<String> termos = TermosBusca.termos("a b c d e f g h i j k");
+
+        // ASSERT
+        assertEquals(TermosBusca.MAXIMO_TERMOS, termos.size());
+    }
+
+    @Test
+    void deveRetornarVazioQuandoNaoHouverTermos() {
+        // ACT + ASSERT
+        assertTrue(TermosBusca.termos(" ?! ").isEmpty());
+        assertTrue(TermosBusca.termos(null).isEmpty());
+    }
+
+    @Test
+    void deveManterLetrasForaDoAsciiComoNoUnaccent() {
+        // ACT + ASSERT
+        // Letras sem decomposição são transliteradas; outros alfabetos continuam sendo termos
+        assertEquals(List.of("soren", "kierkegaard"), TermosBusca.termos("Søren Kierkegaard"));
+        assertEquals(List.of("strasse", "lodz"), TermosBusca.termos("Straße, Łódź"));
+        assertEquals(List.of("достоевский", "ομηρος"), TermosBusca.termos("Достоевский / Όμηρος"));
+    }
+}